@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.hcl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.hcl.HclParser;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a synthetic Terraform corpus, one parser per thread, as a build tool parsing a monorepo would.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class HclParserBenchmark {
+
+    @Param({"250"})
+    int files;
+
+    List<Parser.Input> inputs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        inputs = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            String source = terraform(i);
+            inputs.add(Parser.Input.fromString(Paths.get("module" + i + "/main.tf"), source));
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        HclParser.builder().build()
+                .parseInputs(inputs, null, new InMemoryExecutionContext())
+                .forEach(blackhole::consume);
+    }
+
+    private static String terraform(int i) {
+        //language=hcl
+        return "terraform {\n" +
+               "  required_providers {\n" +
+               "    aws = {\n" +
+               "      source  = \"hashicorp/aws\"\n" +
+               "      version = \"~> 5.0\"\n" +
+               "    }\n" +
+               "  }\n" +
+               "}\n" +
+               "\n" +
+               "variable \"name\" {\n" +
+               "  type    = string\n" +
+               "  default = \"service-" + i + "\"\n" +
+               "}\n" +
+               "\n" +
+               "locals {\n" +
+               "  tags = merge(var.tags, { Name = var.name, Index = " + i + " })\n" +
+               "  azs  = [for az in data.aws_availability_zones.available.names : az if az != \"us-east-1e\"]\n" +
+               "}\n" +
+               "\n" +
+               "resource \"aws_instance\" \"web\" {\n" +
+               "  count         = var.enabled ? 2 : 0\n" +
+               "  ami           = data.aws_ami.ubuntu.id\n" +
+               "  instance_type = \"t3.micro\"\n" +
+               "  subnet_id     = element(module.vpc.private_subnets, count.index)\n" +
+               "  user_data     = <<-EOT\n" +
+               "    #!/bin/bash\n" +
+               "    echo \"${var.name}\" > /etc/hostname\n" +
+               "  EOT\n" +
+               "\n" +
+               "  dynamic \"ebs_block_device\" {\n" +
+               "    for_each = var.volumes\n" +
+               "    content {\n" +
+               "      device_name = ebs_block_device.value.device\n" +
+               "      volume_size = ebs_block_device.value.size * 2\n" +
+               "    }\n" +
+               "  }\n" +
+               "\n" +
+               "  tags = local.tags\n" +
+               "}\n" +
+               "\n" +
+               "output \"ids\" {\n" +
+               "  value = aws_instance.web[*].id\n" +
+               "}\n";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HclParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.java;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeIds;
+import org.openrewrite.java.JavaParser;
+
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TreeIdBenchmark {
+
+    @Param({"secureRandom", "threadLocal"})
+    String generator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        TreeIds.setGenerator("secureRandom".equals(generator) ? TreeIds.SECURE_RANDOM : TreeIds.THREAD_LOCAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TreeIds.setGenerator(TreeIds.THREAD_LOCAL);
+    }
+
+    @Benchmark
+    public void randomId(Blackhole blackhole) {
+        blackhole.consume(Tree.randomId());
+    }
+
+    @Benchmark
+    public void parse(JavaFiles state, Blackhole blackhole) {
+        JavaParser.fromJavaVersion().build()
+                .parse(state.getSourceFiles(), null, new InMemoryExecutionContext())
+                .forEach(blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TreeIdBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
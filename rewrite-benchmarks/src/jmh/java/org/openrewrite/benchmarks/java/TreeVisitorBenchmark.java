@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.java;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.marker.Markers;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Measures the overhead of traversing a tree that no visitor changes. Run with the GC profiler
+ * to see the allocation rate per visit. The generic visitor isn't a Java visitor, so every tree
+ * it visits checks that the visitor is adaptable to Java.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class TreeVisitorBenchmark {
+    private static final J UNVISITED = new J.Empty(randomId(), Space.EMPTY, Markers.EMPTY);
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TreeVisitorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public void javaVisitor(JavaCompilationUnitState state, Blackhole hole) {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        JavaIsoVisitor<ExecutionContext> visitor = new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                hole.consume(getCursor().firstEnclosing(J.ClassDeclaration.class));
+                return super.visitMethodInvocation(method, ctx);
+            }
+
+            @Override
+            public @Nullable J preVisit(J tree, ExecutionContext ctx) {
+                if (tree instanceof J.Import) {
+                    stopAfterPreVisit();
+                }
+                return tree;
+            }
+        };
+        for (SourceFile sourceFile : state.getSourceFiles()) {
+            hole.consume(visitor.visit(sourceFile, ctx));
+        }
+    }
+
+    @Benchmark
+    public void genericVisitor(JavaCompilationUnitState state, Blackhole hole) {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        TreeVisitor<Tree, ExecutionContext> visitor = new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree preVisit(Tree tree, ExecutionContext ctx) {
+                hole.consume(getCursor().getNearestMessage("message"));
+                hole.consume(getCursor().isScopeInPath(UNVISITED));
+                return tree;
+            }
+        };
+        for (SourceFile sourceFile : state.getSourceFiles()) {
+            hole.consume(visitor.visit(sourceFile, ctx));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.maven;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.maven.MavenExecutionContextView;
+import org.openrewrite.maven.MavenParser;
+import org.openrewrite.maven.cache.InMemoryMavenPomCache;
+import org.openrewrite.maven.cache.MavenPomCache;
+import org.openrewrite.maven.tree.MavenRepository;
+import org.openrewrite.maven.tree.MetricsResolutionEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves a project against a generated repository served from a local HTTP server, so that changes to
+ * resolution can be compared without the noise of a remote repository. Besides the time per resolution,
+ * the number of requests, bytes received, cache misses, restarts and time spent resolving parents and
+ * dependencies are reported as secondary results.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 1)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MavenResolutionBenchmark {
+    private static final int LIBRARIES = 60;
+    private static final Pattern POM = Pattern.compile("/maven/bench/([^/]+)/([^/]+)/[^/]+\\.pom");
+    private static final Pattern METADATA = Pattern.compile("/maven/bench/([^/]+)/maven-metadata\\.xml");
+
+    HttpServer server;
+    MavenRepository repository;
+    MavenPomCache sharedCache = new InMemoryMavenPomCache();
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MavenResolutionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/maven/", MavenResolutionBenchmark::serve);
+        server.start();
+        repository = MavenRepository.builder()
+                .id("stand-in")
+                .uri("http://localhost:" + server.getAddress().getPort() + "/maven")
+                .knownToExist(true)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class ResolutionCounters {
+        public long requests;
+        public long bytes;
+        public long cacheMisses;
+        public long restarts;
+        public long parentMillis;
+        public long dependencyMillis;
+
+        void add(MetricsResolutionEventListener metrics) {
+            for (MetricsResolutionEventListener.Statistic statistic : metrics.getStatistics()) {
+                switch (statistic.getCategory()) {
+                    case MetricsResolutionEventListener.REQUEST:
+                        requests += statistic.getCount();
+                        bytes += statistic.getBytes();
+                        break;
+                    case MetricsResolutionEventListener.CACHE:
+                        cacheMisses += statistic.getFailures();
+                        break;
+                    case MetricsResolutionEventListener.RESTART:
+                        restarts += statistic.getCount();
+                        break;
+                    case MetricsResolutionEventListener.RESOLUTION:
+                        if ("parents".equals(statistic.getName())) {
+                            parentMillis += statistic.getTotalTime().toMillis();
+                        } else {
+                            dependencyMillis += statistic.getTotalTime().toMillis();
+                        }
+                        break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void coldCache(ResolutionCounters counters, Blackhole blackhole) {
+        resolve(new InMemoryMavenPomCache(), counters, blackhole);
+    }
+
+    @Benchmark
+    public void warmCache(ResolutionCounters counters, Blackhole blackhole) {
+        resolve(sharedCache, counters, blackhole);
+    }
+
+    private void resolve(MavenPomCache pomCache, ResolutionCounters counters, Blackhole blackhole) {
+        MetricsResolutionEventListener metrics = new MetricsResolutionEventListener();
+        MavenExecutionContextView ctx = MavenExecutionContextView.view(new InMemoryExecutionContext())
+                .setPomCache(pomCache)
+                .setRepositories(Collections.singletonList(repository))
+                .setAddLocalRepository(false)
+                .setAddCentralRepository(false)
+                .setResolutionListener(metrics);
+
+        StringBuilder dependencies = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            dependencies.append(dependency(i, "1.0"));
+        }
+        blackhole.consume(MavenParser.builder().build().parse(ctx,
+                "" +
+                "<project>" +
+                "  <parent>" +
+                "    <groupId>bench</groupId>" +
+                "    <artifactId>parent</artifactId>" +
+                "    <version>1.0</version>" +
+                "  </parent>" +
+                "  <groupId>bench</groupId>" +
+                "  <artifactId>app</artifactId>" +
+                "  <version>1.0</version>" +
+                "  <dependencies>" + dependencies + "</dependencies>" +
+                "</project>"
+        ).findFirst());
+
+        counters.add(metrics);
+    }
+
+    private static void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body = null;
+        Matcher pom = POM.matcher(path);
+        Matcher metadata = METADATA.matcher(path);
+        if (pom.matches()) {
+            body = pom(pom.group(1), pom.group(2));
+        } else if (metadata.matches()) {
+            body = "" +
+                   "<metadata>" +
+                   "  <groupId>bench</groupId>" +
+                   "  <artifactId>" + metadata.group(1) + "</artifactId>" +
+                   "  <versioning>" +
+                   "    <latest>1.1</latest>" +
+                   "    <release>1.1</release>" +
+                   "    <versions><version>1.0</version><version>1.1</version></versions>" +
+                   "  </versioning>" +
+                   "</metadata>";
+        }
+
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(body == null ? 404 : 200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Every library has the same parent and depends on the next few libraries. Every tenth library requires a
+     * version range of its first dependency that excludes the version other libraries ask for, which makes
+     * dependency resolution start over when it is seen.
+     */
+    private static @Nullable String pom(String artifactId, String version) {
+        if ("parent".equals(artifactId)) {
+            return "" +
+                   "<project>" +
+                   "  <groupId>bench</groupId>" +
+                   "  <artifactId>parent</artifactId>" +
+                   "  <version>" + version + "</version>" +
+                   "  <packaging>pom</packaging>" +
+                   "  <properties><bench.version>1.0</bench.version></properties>" +
+                   "</project>";
+        }
+        if (!artifactId.startsWith("lib-")) {
+            return null;
+        }
+
+        int library = Integer.parseInt(artifactId.substring("lib-".length()));
+        StringBuilder dependencies = new StringBuilder();
+        for (int next = library + 1; next < Math.min(library + 4, LIBRARIES); next++) {
+            boolean range = library % 10 == 0 && next == library + 1;
+            dependencies.append(dependency(next, range ? "[1.1,2.0)" : "${bench.version}"));
+        }
+        return "" +
+               "<project>" +
+               "  <parent>" +
+               "    <groupId>bench</groupId>" +
+               "    <artifactId>parent</artifactId>" +
+               "    <version>1.0</version>" +
+               "  </parent>" +
+               "  <artifactId>" + artifactId + "</artifactId>" +
+               "  <version>" + version + "</version>" +
+               "  <dependencies>" + dependencies + "</dependencies>" +
+               "</project>";
+    }
+
+    private static String dependency(int library, String version) {
+        return "" +
+               "<dependency>" +
+               "  <groupId>bench</groupId>" +
+               "  <artifactId>lib-" + library + "</artifactId>" +
+               "  <version>" + version + "</version>" +
+               "</dependency>";
+    }
+}
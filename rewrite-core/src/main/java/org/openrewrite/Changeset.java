@@ -15,7 +15,14 @@
  */
 package org.openrewrite;
 
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public interface Changeset {
     int size();
@@ -25,4 +32,27 @@ public interface Changeset {
     default List<Result> getAllResults() {
         return getPage(0, size());
     }
+
+    /**
+     * Write the diffs of every result to a single patch, in result order. Results are read a page at a time and
+     * the diffs of each page are computed in parallel, so that only one page of diffs is held in memory at once.
+     *
+     * @param relativeTo Paths in the patch are relativized to this path, if present.
+     * @param out        The patch is written to this writer, which is not closed.
+     */
+    default void writePatch(@Nullable Path relativeTo, Writer out) {
+        int pageSize = 256;
+        try {
+            for (int start = 0; start < size(); start += pageSize) {
+                List<String> diffs = getPage(start, Math.min(pageSize, size() - start)).parallelStream()
+                        .map(result -> result.diff(relativeTo))
+                        .collect(Collectors.toList());
+                for (String diff : diffs) {
+                    out.write(diff);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -29,7 +29,7 @@
 /**
  * A cursor is linked path of LST elements that can be used to traverse down the tree towards the root.
  */
-@EqualsAndHashCode(exclude = "messages")
+@EqualsAndHashCode(exclude = {"messages", "stopAfterPreVisit"})
 public class Cursor {
     public static final String ROOT_VALUE = "root";
 
@@ -41,6 +41,12 @@ public class Cursor {
     @Nullable
     private Map<String, Object> messages;
 
+    /**
+     * Set by {@link TreeVisitor#stopAfterPreVisit()}, which is checked on every visit, so is a field
+     * rather than a message.
+     */
+    boolean stopAfterPreVisit;
+
     public Cursor(@Nullable Cursor parent, Object value) {
         this.parent = parent;
         this.value = value;
@@ -162,12 +168,10 @@ public Object next() {
 
     @Nullable
     public <T> T firstEnclosing(Class<T> tClass) {
-        CursorIterator iter = new CursorIterator(this);
-        while (iter.hasNext()) {
-            Object value = iter.next();
-            if (tClass.isAssignableFrom(value.getClass())) {
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (tClass.isInstance(c.value)) {
                 //noinspection unchecked
-                return (T) value;
+                return (T) c.value;
             }
         }
         return null;
@@ -258,8 +262,12 @@ public <T> T getValue() {
     }
 
     public boolean isScopeInPath(Tree scope) {
-        return value instanceof Tree && ((Tree) value).getId().equals(scope.getId()) ||
-               getPathAsStream().anyMatch(p -> p instanceof Tree && ((Tree) p).getId().equals(scope.getId()));
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (c.value instanceof Tree && ((Tree) c.value).getId().equals(scope.getId())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void putMessageOnFirstEnclosing(Class<?> enclosing, String key, Object value) {
@@ -294,19 +302,21 @@ public <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> ma
      */
     @Nullable
     public <T> T getNearestMessage(String key) {
-        @SuppressWarnings("unchecked") T t = messages == null ? null : (T) messages.get(key);
-        return t == null && parent != null ? parent.getNearestMessage(key) : t;
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (c.messages != null) {
+                //noinspection unchecked
+                T t = (T) c.messages.get(key);
+                if (t != null) {
+                    return t;
+                }
+            }
+        }
+        return null;
     }
 
     public <T> T getNearestMessage(String key, T defaultValue) {
-        @SuppressWarnings("unchecked") T t = messages == null ? null : (T) messages.get(key);
-        if (t == null) {
-            if (parent != null) {
-                return parent.getNearestMessage(key, defaultValue);
-            }
-            return defaultValue;
-        }
-        return t;
+        T t = getNearestMessage(key);
+        return t == null ? defaultValue : t;
     }
 
     /**
@@ -318,8 +328,16 @@ public <T> T getNearestMessage(String key, T defaultValue) {
      */
     @Nullable
     public <T> T pollNearestMessage(String key) {
-        @SuppressWarnings("unchecked") T t = messages == null ? null : (T) messages.remove(key);
-        return t == null && parent != null ? parent.pollNearestMessage(key) : t;
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (c.messages != null) {
+                //noinspection unchecked
+                T t = (T) c.messages.remove(key);
+                if (t != null) {
+                    return t;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -19,6 +19,7 @@
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class DelegatingExecutionContext implements ExecutionContext {
     private final ExecutionContext delegate;
@@ -37,6 +38,11 @@ public void putMessage(String key, @Nullable Object value) {
         return delegate.getMessage(key);
     }
 
+    @Override
+    public <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> mappingFunction) {
+        return delegate.computeMessageIfAbsent(key, mappingFunction);
+    }
+
     @Override
     public <T> @Nullable T pollMessage(String key) {
         return delegate.pollMessage(key);
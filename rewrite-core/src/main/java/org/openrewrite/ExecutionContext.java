@@ -22,6 +22,7 @@
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
@@ -36,6 +37,7 @@ public interface ExecutionContext {
     String DATA_TABLES = "org.openrewrite.dataTables";
     String RUN_TIMEOUT = "org.openrewrite.runTimeout";
     String REQUIRE_PRINT_EQUALS_INPUT = "org.openrewrite.requirePrintEqualsInput";
+    String REUSE_ORIGINAL_TEXT = "org.openrewrite.reuseOriginalText";
 
     @Incubating(since = "7.20.0")
     default ExecutionContext addObserver(TreeObserver.Subscription observer) {
@@ -63,6 +65,20 @@ default <V, T> T computeMessage(String key, V value, Supplier<T> defaultValue, B
         return newMessage;
     }
 
+    /**
+     * @return The message with this key, which is computed and put first if there is none. Only execution contexts
+     * that override this, like {@link InMemoryExecutionContext}, guarantee that concurrent callers get the same message.
+     */
+    @Incubating(since = "8.13.0")
+    default <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> mappingFunction) {
+        T message = getMessage(key);
+        if (message == null) {
+            message = mappingFunction.apply(key);
+            putMessage(key, message);
+        }
+        return message;
+    }
+
     default <V, C extends Collection<V>> C putMessageInCollection(String key, V value, Supplier<C> newCollection) {
         return computeMessage(key, value, newCollection, (v, acc) -> {
             C c = newCollection.get();
@@ -22,6 +22,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class InMemoryExecutionContext implements ExecutionContext {
     private final Map<String, Object> messages = new ConcurrentHashMap<>();
@@ -66,6 +67,12 @@ public <T> T getMessage(String key) {
         return (T) messages.get(key);
     }
 
+    @Override
+    public <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> mappingFunction) {
+        //noinspection unchecked
+        return (T) messages.computeIfAbsent(key, mappingFunction);
+    }
+
     @Override
     @Nullable
     public <T> T pollMessage(String key) {
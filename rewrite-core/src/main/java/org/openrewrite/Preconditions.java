@@ -55,6 +55,13 @@ public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
                         v.visit(tree, ctx, parent) :
                         tree;
             }
+
+            @Override
+            public void reset() {
+                super.reset();
+                check.reset();
+                v.reset();
+            }
         };
     }
 
@@ -77,6 +84,14 @@ public static TreeVisitor<?, ExecutionContext> firstAcceptable(TreeVisitor<?, Ex
                 }
                 return tree;
             }
+
+            @Override
+            public void reset() {
+                super.reset();
+                for (TreeVisitor<?, ExecutionContext> v : vs) {
+                    v.reset();
+                }
+            }
         };
     }
 
@@ -94,6 +109,12 @@ public Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
                         SearchResult.found(tree) :
                         tree;
             }
+
+            @Override
+            public void reset() {
+                super.reset();
+                v.reset();
+            }
         };
     }
 
@@ -115,6 +136,14 @@ public Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
                 }
                 return tree;
             }
+
+            @Override
+            public void reset() {
+                super.reset();
+                for (TreeVisitor<?, ExecutionContext> v : vs) {
+                    v.reset();
+                }
+            }
         };
     }
 
@@ -137,6 +166,14 @@ public Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
                 }
                 return t2;
             }
+
+            @Override
+            public void reset() {
+                super.reset();
+                for (TreeVisitor<?, ExecutionContext> v : vs) {
+                    v.reset();
+                }
+            }
         };
     }
     @SafeVarargs
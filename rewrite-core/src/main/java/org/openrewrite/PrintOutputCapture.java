@@ -15,6 +15,7 @@
  */
 package org.openrewrite;
 
+import org.openrewrite.internal.SourceSlices;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Marker;
 
@@ -25,6 +26,9 @@
     private final MarkerPrinter markerPrinter;
     public final StringBuilder out = new StringBuilder();
 
+    @Nullable
+    private SourceSlices sourceSlices;
+
     public PrintOutputCapture(P p) {
         this.p = p;
         this.markerPrinter = MarkerPrinter.DEFAULT;
@@ -43,6 +47,19 @@ public MarkerPrinter getMarkerPrinter() {
         return markerPrinter;
     }
 
+    /**
+     * @return The original text of the source file being printed, which printers copy for subtrees that
+     * haven't changed since the source file was parsed.
+     */
+    @Nullable
+    public SourceSlices getSourceSlices() {
+        return sourceSlices;
+    }
+
+    public void setSourceSlices(@Nullable SourceSlices sourceSlices) {
+        this.sourceSlices = sourceSlices;
+    }
+
     public String getOut() {
         return out.toString();
     }
@@ -321,6 +321,18 @@ public TreeVisitor<?, ExecutionContext> getVisitor() {
         return TreeVisitor.noop();
     }
 
+    /**
+     * Recipes whose visitor keeps no state across source files other than what {@link TreeVisitor#reset()}
+     * clears may return {@code true} so that the scheduler constructs their visitor once per thread in each
+     * cycle and resets it between source files, rather than calling {@link #getVisitor()} for every source file.
+     *
+     * @return {@code true} if the visitor of this recipe can be reused.
+     */
+    @Incubating(since = "8.13.0")
+    public boolean isVisitorReusable() {
+        return false;
+    }
+
     public void addDataTable(DataTable<?> dataTable) {
         if (dataTables == null) {
             dataTables = new ArrayList<>();
@@ -15,6 +15,8 @@
  */
 package org.openrewrite;
 
+import org.openrewrite.scheduling.RecipeResultCache;
+import org.openrewrite.scheduling.RecipeResultCacheExecutionContextView;
 import org.openrewrite.scheduling.RecipeRunCycle;
 import org.openrewrite.scheduling.WatchableExecutionContext;
 import org.openrewrite.table.RecipeRunStats;
@@ -39,6 +41,10 @@ public RecipeRun scheduleRun(Recipe recipe,
                                  int minCycles) {
         try {
             LargeSourceSet after = runRecipeCycles(recipe, sourceSet, ctx, maxCycles, minCycles);
+            RecipeResultCache resultCache = RecipeResultCacheExecutionContextView.view(ctx).getRecipeResultCache();
+            if (resultCache != null) {
+                resultCache.save();
+            }
             return new RecipeRun(
                     after.getChangeset(),
                     ctx.getMessage(ExecutionContext.DATA_TABLES, emptyMap())
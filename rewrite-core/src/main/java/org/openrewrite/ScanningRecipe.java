@@ -52,6 +52,41 @@
      */
     public abstract TreeVisitor<?, ExecutionContext> getScanner(T acc);
 
+    /**
+     * Whether accumulators of this recipe can be merged by {@link #mergeAccumulators(Object, Object)}. If so, the
+     * scanning phase may split the source files between threads that each scan into their own accumulator supplied by
+     * {@link #getInitialValue(ExecutionContext)}, and merge those into the accumulator that is passed to
+     * {@link #generate(Object, Collection, ExecutionContext)} and {@link #getVisitor(Object)}.
+     * <br/>
+     * Scanners of such a recipe are called concurrently, so they must only accumulate scanning data to the
+     * <code>acc</code> that they were created with, and not to data tables or other state shared between threads.
+     * <br/>
+     * Recipes that return <code>false</code>, as is the default, are never sharded: their scanner visits every source
+     * file in order with the single accumulator, and {@link #mergeAccumulators(Object, Object)} is not called.
+     *
+     * @return <code>true</code> if this recipe overrides {@link #mergeAccumulators(Object, Object)}.
+     */
+    @Incubating(since = "8.13.0")
+    public boolean isAccumulatorMergeable() {
+        return false;
+    }
+
+    /**
+     * Merge the scanning data collected from some source files into the accumulator of others. Only called when
+     * {@link #isAccumulatorMergeable()} returns <code>true</code>, so the default does nothing.
+     * <br/>
+     * Each shard scans every n-th source file rather than a contiguous run of them, and the shards are merged one after
+     * another into the accumulator of the recipe. Data accumulated in the order source files are visited, such as a
+     * list, therefore ends up in a different order than when scanning without sharding, so a merge that cares about
+     * order has to restore it itself.
+     *
+     * @param acc   The accumulator to merge into.
+     * @param other The accumulated scanning data of other source files.
+     */
+    @Incubating(since = "8.13.0")
+    public void mergeAccumulators(T acc, T other) {
+    }
+
     /**
      * Generate new source files to add to the repository using information collected from scanning.
      *
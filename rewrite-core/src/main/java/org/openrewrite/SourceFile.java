@@ -15,6 +15,7 @@
  */
 package org.openrewrite;
 
+import org.openrewrite.internal.SourceSlices;
 import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.style.NamedStyles;
@@ -36,12 +37,17 @@ public interface SourceFile extends Tree {
      * @return <code>true</code> if the parse-to-print loop is idempotent, <code>false</code> otherwise.
      */
     default boolean printEqualsInput(Parser.Input input, ExecutionContext ctx) {
-        String printed = printAll();
+        SourceSlices.Recording recording = ctx.getMessage(ExecutionContext.REUSE_ORIGINAL_TEXT, false) ?
+                SourceSlices.record(this) : null;
+        String printed = recording == null ? printAll() : recording.getPrinted();
         Charset charset = getCharset();
-        if (charset != null) {
-            return printed.equals(StringUtils.readFully(input.getSource(ctx), charset));
+        boolean printEqualsInput = charset != null ?
+                printed.equals(StringUtils.readFully(input.getSource(ctx), charset)) :
+                printed.equals(StringUtils.readFully(input.getSource(ctx)));
+        if (printEqualsInput && recording != null) {
+            recording.keep();
         }
-        return printed.equals(StringUtils.readFully(input.getSource(ctx)));
+        return printEqualsInput;
     }
 
     /**
@@ -93,6 +99,13 @@ default <P> String printAll(P p) {
     }
 
     default <P> String printAll(PrintOutputCapture<P> out) {
+        if (out.getSourceSlices() == null && out.getMarkerPrinter() == PrintOutputCapture.MarkerPrinter.DEFAULT) {
+            String originalText = SourceSlices.originalText(this);
+            if (originalText != null) {
+                return out.append(originalText).getOut();
+            }
+            SourceSlices.attach(out);
+        }
         return print(new Cursor(null, "root"), out);
     }
 
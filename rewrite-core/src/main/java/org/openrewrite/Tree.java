@@ -37,8 +37,7 @@ default String getJacksonPolymorphicTypeTag() {
     }
 
     static UUID randomId() {
-        //noinspection ConstantConditions
-        return UUID.randomUUID();
+        return TreeIds.getGenerator().next();
     }
 
     /**
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates the ids returned by {@link Tree#randomId()}.
+ * <p>
+ * LSTs only need ids to be unique, not unpredictable, so by default ids are not generated with
+ * {@link UUID#randomUUID()}, which draws every id from a single {@link SecureRandom} shared by all threads.
+ * Instead, each thread draws a random 60-bit prefix from a {@link SecureRandom} once, and numbers the ids it
+ * generates after that with a counter, scrambled by a bijective mix so that ids remain well distributed as hash
+ * keys. Ids generated by different threads or processes can only collide if their prefixes do, which is
+ * about as likely as two random UUIDs colliding in a repository with fewer than a billion threads.
+ * <p>
+ * Ids are still formatted as version 4 UUIDs. Tools that require cryptographically random ids can choose
+ * {@link #SECURE_RANDOM} with {@link #setGenerator(Generator)} or with the system property
+ * {@code rewrite.treeIds=secureRandom}.
+ */
+@Incubating(since = "8.13.0")
+public final class TreeIds {
+    /**
+     * The 62 bits of the least significant half of a version 4 UUID that aren't its variant.
+     */
+    private static final long COUNTER_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    public static final Generator SECURE_RANDOM = UUID::randomUUID;
+
+    public static final Generator THREAD_LOCAL = new Generator() {
+        private final SecureRandom seeds = new SecureRandom();
+
+        private final ThreadLocal<long[]> state = ThreadLocal.withInitial(() -> {
+            synchronized (seeds) {
+                return new long[]{seeds.nextLong(), 0};
+            }
+        });
+
+        @Override
+        public UUID next() {
+            long[] s = state.get();
+            long counter = s[1]++;
+            if (counter == COUNTER_MASK) {
+                // the counter is exhausted, so start over with a new prefix
+                synchronized (seeds) {
+                    s[0] = seeds.nextLong();
+                }
+                s[1] = 0;
+            }
+            return new UUID((s[0] & ~0xF000L) | 0x4000L, mix(counter) | 0x8000000000000000L);
+        }
+    };
+
+    private static volatile Generator generator = "secureRandom".equals(System.getProperty("rewrite.treeIds")) ?
+            SECURE_RANDOM : THREAD_LOCAL;
+
+    private TreeIds() {
+    }
+
+    public static Generator getGenerator() {
+        return generator;
+    }
+
+    public static void setGenerator(Generator generator) {
+        TreeIds.generator = generator;
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        UUID next();
+    }
+
+    /**
+     * Scrambles a 62-bit counter into a 62-bit value, mapping every counter to a distinct value:
+     * multiplying by an odd constant and xor-shifting right are both invertible modulo 2<sup>62</sup>.
+     */
+    private static long mix(long h) {
+        h = (h * 0x9E3779B97F4A7C15L) & COUNTER_MASK;
+        h ^= h >>> 31;
+        h = (h * 0xBF58476D1CE4E5B9L) & COUNTER_MASK;
+        h ^= h >>> 29;
+        return h;
+    }
+}
@@ -15,29 +15,23 @@
  */
 package org.openrewrite;
 
-import de.danielbechler.diff.ObjectDiffer;
-import de.danielbechler.diff.ObjectDifferBuilder;
-import de.danielbechler.diff.inclusion.Inclusion;
-import de.danielbechler.diff.inclusion.InclusionResolver;
-import de.danielbechler.diff.node.DiffNode;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.RecipeRunException;
+import org.openrewrite.internal.TreeProperties;
 import org.openrewrite.internal.TreeVisitorAdapter;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Marker;
 import org.openrewrite.marker.Markers;
 
-import java.beans.Transient;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -56,8 +50,6 @@
  * @param <P> An input object that is passed to every visit method.
  */
 public abstract class TreeVisitor<T extends Tree, P> {
-    private static final String STOP_AFTER_PRE_VISIT = "__org.openrewrite.stopVisitor__";
-
     Cursor cursor = new Cursor(null, Cursor.ROOT_VALUE);
 
     public static <T extends Tree, P> TreeVisitor<T, P> noop() {
@@ -79,33 +71,45 @@ public static <T extends Tree, P> TreeVisitor<T, P> noop() {
     private List<TreeVisitor<?, P>> afterVisit;
 
     private int visitCount;
-    private final DistributionSummary visitCountSummary = DistributionSummary.builder("rewrite.visitor.visit.method.count").description("Visit methods called per source file visited.").tag("visitor.class", getClass().getName()).register(Metrics.globalRegistry);
-
-    private ObjectDiffer differ;
-
-    private ObjectDiffer getObjectDiffer() {
-        if (differ == null) {
-            differ = ObjectDifferBuilder.startBuilding()
-                    .inclusion()
-                    .resolveUsing(new InclusionResolver() {
-                        @Override
-                        public Inclusion getInclusion(DiffNode node) {
-                            if (node.getPropertyAnnotation(Transient.class) != null) {
-                                return Inclusion.EXCLUDED;
-                            }
-                            return Inclusion.DEFAULT;
-                        }
 
-                        @Override
-                        public boolean enablesStrictIncludeMode() {
-                            return false;
-                        }
-                    })
-                    .and()
-                    .build();
+    /**
+     * Meters are registered once per visitor class rather than once per visitor, since visitors
+     * are constructed for every source file a recipe runs on.
+     */
+    private static final ClassValue<VisitorMeters> METERS = new ClassValue<VisitorMeters>() {
+        @Override
+        protected VisitorMeters computeValue(Class<?> visitorClass) {
+            return new VisitorMeters(visitorClass.getName());
         }
-        return differ;
-    }
+    };
+
+    /**
+     * Whether an observer overrides {@link TreeObserver#propertyChanged}, since only those need to
+     * be told which properties of a tree changed.
+     */
+    private static final ClassValue<Boolean> OBSERVES_PROPERTIES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> observerType) {
+            try {
+                return observerType.getMethod("propertyChanged", String.class, Cursor.class, Tree.class,
+                        Object.class, Object.class).getDeclaringClass() != TreeObserver.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    /**
+     * The tree type of a visitor class is found reflectively, so is only looked up once per class since
+     * {@link #isAdaptableTo(Class)} is called on every tree a visitor of another language visits.
+     */
+    private static final ClassValue<Class<? extends Tree>> VISITOR_TREE_TYPES = new ClassValue<Class<? extends Tree>>() {
+        @Override
+        protected Class<? extends Tree> computeValue(Class<?> type) {
+            //noinspection unchecked,rawtypes
+            return findVisitorTreeType((Class<? extends TreeVisitor>) type);
+        }
+    };
 
     public boolean isAcceptable(SourceFile sourceFile, P p) {
         return true;
@@ -115,6 +119,18 @@ public void setCursor(@Nullable Cursor cursor) {
         this.cursor = cursor;
     }
 
+    /**
+     * Return this visitor to the state it was constructed in, so that it can visit another source file.
+     * Visitors that keep state of their own across visits of a source file must override this to clear it
+     * in order to be returned by a recipe that declares {@link Recipe#isVisitorReusable()}.
+     */
+    @Incubating(since = "8.13.0")
+    public void reset() {
+        cursor = new Cursor(null, Cursor.ROOT_VALUE);
+        afterVisit = null;
+        visitCount = 0;
+    }
+
     /**
      * @return Describes the language type that this visitor applies to, e.g. java, xml, properties.
      */
@@ -278,7 +294,7 @@ public T visit(@Nullable Tree tree, P p) {
             if (isAcceptable) {
                 //noinspection unchecked
                 t = preVisit((T) tree, p);
-                if (!cursor.getMessage(STOP_AFTER_PRE_VISIT, false)) {
+                if (!cursor.stopAfterPreVisit) {
                     if (t != null) {
                         t = t.accept(this, p);
                     }
@@ -291,15 +307,10 @@ public T visit(@Nullable Tree tree, P p) {
                     for (TreeObserver.Subscription observer : ctx.getObservers()) {
                         if (observer.isSubscribed(tree)) {
                             observer.getObserver().treeChanged(getCursor(), t);
-                            DiffNode diff = getObjectDiffer().compare(t, tree);
-                            AtomicReference<T> t2 = new AtomicReference<>(t);
-                            diff.visit((node, visit) -> {
-                                if (!node.hasChildren() && node.getPropertyName() != null) {
-                                    //noinspection unchecked
-                                    t2.set((T) observer.getObserver().propertyChanged(node.getPropertyName(), getCursor(), t2.get(), node.canonicalGet(tree), node.canonicalGet(t2.get())));
-                                }
-                            });
-                            t = t2.get();
+                            if (t.getClass() == tree.getClass() &&
+                                OBSERVES_PROPERTIES.get(observer.getObserver().getClass())) {
+                                t = notifyPropertiesChanged(observer.getObserver(), tree, t);
+                            }
                         }
                     }
                 }
@@ -308,8 +319,9 @@ public T visit(@Nullable Tree tree, P p) {
             setCursor(cursor.getParent());
 
             if (topLevel) {
-                sample.stop(Timer.builder("rewrite.visitor.visit").tag("visitor.class", getClass().getName()).register(Metrics.globalRegistry));
-                visitCountSummary.record(visitCount);
+                VisitorMeters meters = METERS.get(getClass());
+                sample.stop(meters.visit);
+                meters.visitCount.record(visitCount);
 
                 if (t != null && afterVisit != null) {
                     for (TreeVisitor<?, P> v : afterVisit) {
@@ -321,7 +333,7 @@ public T visit(@Nullable Tree tree, P p) {
                     }
                 }
 
-                sample.stop(Timer.builder("rewrite.visitor.visit.cumulative").tag("visitor.class", getClass().getName()).register(Metrics.globalRegistry));
+                sample.stop(meters.visitCumulative);
                 afterVisit = null;
                 visitCount = 0;
             }
@@ -338,6 +350,23 @@ public T visit(@Nullable Tree tree, P p) {
         return isAcceptable ? t : (T) tree;
     }
 
+    private T notifyPropertiesChanged(TreeObserver observer, Tree before, T after) {
+        T t = after;
+        for (TreeProperties.Property property : TreeProperties.of(before.getClass())) {
+            if (t.getClass() != before.getClass()) {
+                // an observer replaced the tree with one of another type
+                break;
+            }
+            Object oldValue = property.get(before);
+            Object newValue = property.get(t);
+            if (property.isChanged(oldValue, newValue)) {
+                //noinspection unchecked
+                t = (T) observer.propertyChanged(property.getName(), getCursor(), t, oldValue, newValue);
+            }
+        }
+        return t;
+    }
+
     public void visit(@Nullable List<? extends T> nodes, P p) {
         if (nodes != null) {
             for (T node : nodes) {
@@ -392,6 +421,11 @@ public boolean isAdaptableTo(@SuppressWarnings("rawtypes") Class<? extends TreeV
 
     @SuppressWarnings("rawtypes")
     protected Class<? extends Tree> visitorTreeType(Class<? extends TreeVisitor> v) {
+        return VISITOR_TREE_TYPES.get(v);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Class<? extends Tree> findVisitorTreeType(Class<? extends TreeVisitor> v) {
         for (TypeVariable<? extends Class<? extends TreeVisitor>> tp : v.getTypeParameters()) {
             for (Type bound : tp.getBounds()) {
                 if (bound instanceof Class && Tree.class.isAssignableFrom((Class<?>) bound)) {
@@ -416,7 +450,7 @@ protected Class<? extends Tree> visitorTreeType(Class<? extends TreeVisitor> v)
             }
         }
         throw new IllegalArgumentException("Expected to find a tree type somewhere in the type parameters of the " +
-                                           "type hierarchy of visitor " + getClass().getName());
+                                           "type hierarchy of visitor " + v.getName());
     }
 
     public <R extends Tree, V extends TreeVisitor<R, P>> V adapt(Class<? extends V> adaptTo) {
@@ -436,6 +470,18 @@ public <R extends Tree, V extends TreeVisitor<R, P>> V adapt(Class<? extends V>
      */
     @Incubating(since = "8.0.0")
     public void stopAfterPreVisit() {
-        getCursor().putMessage(STOP_AFTER_PRE_VISIT, true);
+        getCursor().stopAfterPreVisit = true;
+    }
+
+    private static class VisitorMeters {
+        final DistributionSummary visitCount;
+        final Timer visit;
+        final Timer visitCumulative;
+
+        VisitorMeters(String visitorClass) {
+            this.visitCount = DistributionSummary.builder("rewrite.visitor.visit.method.count").description("Visit methods called per source file visited.").tag("visitor.class", visitorClass).register(Metrics.globalRegistry);
+            this.visit = Timer.builder("rewrite.visitor.visit").tag("visitor.class", visitorClass).register(Metrics.globalRegistry);
+            this.visitCumulative = Timer.builder("rewrite.visitor.visit.cumulative").tag("visitor.class", visitorClass).register(Metrics.globalRegistry);
+        }
     }
 }
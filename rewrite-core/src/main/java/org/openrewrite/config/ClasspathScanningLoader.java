@@ -16,32 +16,55 @@
 package org.openrewrite.config;
 
 import io.github.classgraph.ClassGraph;
-import io.github.classgraph.ClassInfo;
 import io.github.classgraph.ScanResult;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 import org.openrewrite.Contributor;
 import org.openrewrite.Recipe;
-import org.openrewrite.ScanningRecipe;
 import org.openrewrite.internal.MetricsHelper;
 import org.openrewrite.internal.RecipeIntrospectionUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.style.NamedStyles;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Modifier;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 import static java.util.Collections.emptyList;
 import static org.openrewrite.internal.RecipeIntrospectionUtils.constructRecipe;
 
 public class ClasspathScanningLoader implements ResourceLoader {
 
-    private final LinkedHashSet<Recipe> recipes = new LinkedHashSet<>();
+    /**
+     * Recipe classes by class name, which are only constructed when a recipe is loaded by name or when
+     * all recipes are listed.
+     */
+    private final Map<String, Class<?>> recipeClasses = new LinkedHashMap<>();
+    private final Map<String, Recipe> constructedRecipes = new HashMap<>();
+
+    private final List<Recipe> declarativeRecipes = new ArrayList<>();
+    private final Map<String, Recipe> declarativeRecipesByName = new HashMap<>();
+
+    @Nullable
+    private LinkedHashSet<Recipe> recipes;
+
+    /**
+     * Listed recipes by name, which also finds recipes implemented in Java whose name isn't their class name.
+     */
+    @Nullable
+    private Map<String, Recipe> recipesByName;
+
     private final List<NamedStyles> styles = new ArrayList<>();
 
-    private final LinkedHashSet<RecipeDescriptor> recipeDescriptors = new LinkedHashSet<>();
+    private final List<YamlResourceLoader> yamlResourceLoaders = new ArrayList<>();
+
+    @Nullable
+    private LinkedHashSet<RecipeDescriptor> recipeDescriptors;
+
     private final List<CategoryDescriptor> categoryDescriptors = new ArrayList<>();
 
     private final Map<String, List<Contributor>> recipeAttributions = new HashMap<>();
@@ -81,13 +104,22 @@ public ClasspathScanningLoader(Properties properties, ClassLoader classLoader) {
                 classLoader);
     }
 
+    /**
+     * If the jar contains a {@link RecipeIndex}, its recipes and styles are loaded from the index
+     * rather than by scanning all classes of the jar.
+     */
     public ClasspathScanningLoader(Path jar, Properties properties, Collection<? extends ResourceLoader> dependencyResourceLoaders, ClassLoader classLoader) {
         String jarName = jar.toFile().getName();
 
-        scanClasses(new ClassGraph()
-                .acceptJars(jarName)
-                .ignoreParentClassLoaders()
-                .overrideClassLoaders(classLoader), classLoader);
+        RecipeIndex index = readIndex(jar);
+        if (index != null) {
+            loadIndexedClasses(index, classLoader);
+        } else {
+            scanClasses(new ClassGraph()
+                    .acceptJars(jarName)
+                    .ignoreParentClassLoaders()
+                    .overrideClassLoaders(classLoader), classLoader);
+        }
 
         scanYaml(new ClassGraph()
                 .acceptJars(jarName)
@@ -107,29 +139,25 @@ private ClasspathScanningLoader() {
     }
 
     /**
-     * This must be called _after_ scanClasses or the descriptors of declarative recipes will be missing any
-     * non-declarative recipes they depend on that would be discovered by scanClasses
+     * The descriptors of declarative recipes are computed lazily, once the recipes found by scanClasses,
+     * which they may depend on, are known.
      */
     private void scanYaml(ClassGraph classGraph, Properties properties, Collection<? extends ResourceLoader> dependencyResourceLoaders, @Nullable ClassLoader classLoader) {
         try (ScanResult scanResult = classGraph.enableMemoryMapping().scan()) {
-            List<YamlResourceLoader> yamlResourceLoaders = new ArrayList<>();
-
             scanResult.getResourcesWithExtension("yml").forEachInputStreamIgnoringIOException((res, input) ->
                     yamlResourceLoaders.add(new YamlResourceLoader(input, res.getURI(), properties, classLoader, dependencyResourceLoaders)));
             scanResult.getResourcesWithExtension("yaml").forEachInputStreamIgnoringIOException((res, input) ->
                     yamlResourceLoaders.add(new YamlResourceLoader(input, res.getURI(), properties, classLoader, dependencyResourceLoaders)));
-            // Extract in two passes so that the full list of recipes from all sources are known when computing recipe descriptors
-            // Otherwise recipes which include recipes from other sources in their recipeList will have incomplete descriptors
             for (YamlResourceLoader resourceLoader : yamlResourceLoaders) {
-                recipes.addAll(resourceLoader.listRecipes());
+                for (Recipe recipe : resourceLoader.listRecipes()) {
+                    declarativeRecipes.add(recipe);
+                    declarativeRecipesByName.putIfAbsent(recipe.getName(), recipe);
+                }
                 categoryDescriptors.addAll(resourceLoader.listCategoryDescriptors());
                 styles.addAll(resourceLoader.listStyles());
                 recipeAttributions.putAll(resourceLoader.listContributors());
                 recipeExamples.putAll(resourceLoader.listRecipeExamples());
             }
-            for (YamlResourceLoader resourceLoader : yamlResourceLoaders) {
-                recipeDescriptors.addAll(resourceLoader.listRecipeDescriptors(recipes, recipeAttributions, recipeExamples));
-            }
         }
     }
 
@@ -138,57 +166,144 @@ private void scanClasses(ClassGraph classGraph, ClassLoader classLoader) {
                 .ignoreClassVisibility()
                 .overrideClassLoaders(classLoader)
                 .scan()) {
+            RecipeIndex index = RecipeIndex.scan(result);
+            for (String recipeClassName : index.getRecipeClassNames()) {
+                recipeClasses.put(recipeClassName, result.getClassInfo(recipeClassName).loadClass());
+            }
+            for (String styleClassName : index.getStyleClassNames()) {
+                addStyle(result.getClassInfo(styleClassName).loadClass());
+            }
+        }
+    }
 
-            configureRecipes(result, Recipe.class.getName());
-            configureRecipes(result, ScanningRecipe.class.getName());
-
-            for (ClassInfo classInfo : result.getSubclasses(NamedStyles.class.getName())) {
-                Class<?> styleClass = classInfo.loadClass();
-                    Constructor<?> constructor = RecipeIntrospectionUtils.getZeroArgsConstructor(styleClass);
-                    if (constructor != null) {
-                        constructor.setAccessible(true);
-                        try {
-                            styles.add((NamedStyles) constructor.newInstance());
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-
+    private void loadIndexedClasses(RecipeIndex index, ClassLoader classLoader) {
+        try {
+            for (String recipeClassName : index.getRecipeClassNames()) {
+                recipeClasses.put(recipeClassName, Class.forName(recipeClassName, false, classLoader));
+            }
+            for (String styleClassName : index.getStyleClassNames()) {
+                addStyle(Class.forName(styleClassName, false, classLoader));
             }
+        } catch (ClassNotFoundException e) {
+            throw new RecipeIntrospectionException("Class listed in " + RecipeIndex.LOCATION + " not found", e);
         }
     }
 
-    private void configureRecipes(ScanResult result, String className) {
-        for (ClassInfo classInfo : result.getSubclasses(className)) {
-            Class<?> recipeClass = classInfo.loadClass();
-            if (recipeClass.getName().equals(DeclarativeRecipe.class.getName()) ||
-                (recipeClass.getModifiers() & Modifier.PUBLIC) == 0 ||
-                // `ScanningRecipe` is an example of an abstract `Recipe` subtype
-                (recipeClass.getModifiers() & Modifier.ABSTRACT) != 0) {
-                continue;
+    @Nullable
+    private static RecipeIndex readIndex(Path jar) {
+        if (!jar.toFile().isFile()) {
+            return null;
+        }
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            JarEntry entry = jarFile.getJarEntry(RecipeIndex.LOCATION);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream is = jarFile.getInputStream(entry)) {
+                return RecipeIndex.read(is);
             }
-            Timer.Builder builder = Timer.builder("rewrite.scan.configure.recipe");
-            Timer.Sample sample = Timer.start();
+        } catch (IOException e) {
+            // fall back to scanning the jar
+            return null;
+        }
+    }
+
+    private void addStyle(Class<?> styleClass) {
+        Constructor<?> constructor = RecipeIntrospectionUtils.getZeroArgsConstructor(styleClass);
+        if (constructor != null) {
+            constructor.setAccessible(true);
             try {
-                Recipe recipe = constructRecipe(recipeClass);
-                recipeDescriptors.add(recipe.getDescriptor());
-                recipes.add(recipe);
-                MetricsHelper.successTags(builder.tags("recipe", "elided"));
-            } catch (Throwable e) {
-                MetricsHelper.errorTags(builder.tags("recipe", recipeClass.getName()), e);
-            } finally {
-                sample.stop(builder.register(Metrics.globalRegistry));
+                styles.add((NamedStyles) constructor.newInstance());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
             }
         }
     }
 
+    /**
+     * @return The recipe, or {@code null} if the recipe class can't be constructed.
+     */
+    @Nullable
+    private Recipe constructRecipeClass(Class<?> recipeClass) {
+        if (constructedRecipes.containsKey(recipeClass.getName())) {
+            return constructedRecipes.get(recipeClass.getName());
+        }
+        Timer.Builder builder = Timer.builder("rewrite.scan.configure.recipe");
+        Timer.Sample sample = Timer.start();
+        Recipe recipe = null;
+        try {
+            recipe = constructRecipe(recipeClass);
+            MetricsHelper.successTags(builder.tags("recipe", "elided"));
+        } catch (Throwable e) {
+            MetricsHelper.errorTags(builder.tags("recipe", recipeClass.getName()), e);
+        } finally {
+            sample.stop(builder.register(Metrics.globalRegistry));
+        }
+        constructedRecipes.put(recipeClass.getName(), recipe);
+        return recipe;
+    }
+
     @Override
-    public Collection<Recipe> listRecipes() {
+    public synchronized Collection<Recipe> listRecipes() {
+        if (recipes == null) {
+            recipes = new LinkedHashSet<>();
+            for (Class<?> recipeClass : recipeClasses.values()) {
+                Recipe recipe = constructRecipeClass(recipeClass);
+                if (recipe != null) {
+                    recipes.add(recipe);
+                }
+            }
+            recipes.addAll(declarativeRecipes);
+            recipesByName = new HashMap<>(recipes.size() * 2);
+            for (Recipe recipe : recipes) {
+                recipesByName.putIfAbsent(recipe.getName(), recipe);
+            }
+        }
         return recipes;
     }
 
+    /**
+     * Recipes implemented in Java are found by their class name without constructing any other recipe.
+     * A recipe implemented in Java whose name isn't its class name is only found once all recipes were listed.
+     */
     @Override
-    public Collection<RecipeDescriptor> listRecipeDescriptors() {
+    @Nullable
+    public synchronized Recipe loadRecipe(String recipeName) {
+        Recipe recipe = declarativeRecipesByName.get(recipeName);
+        if (recipe != null) {
+            return recipe;
+        }
+        Class<?> recipeClass = recipeClasses.get(recipeName);
+        if (recipeClass != null) {
+            recipe = constructRecipeClass(recipeClass);
+            if (recipe != null && recipeName.equals(recipe.getName())) {
+                return recipe;
+            }
+        }
+        return recipesByName == null ? null : recipesByName.get(recipeName);
+    }
+
+    @Override
+    public synchronized Collection<RecipeDescriptor> listRecipeDescriptors() {
+        if (recipeDescriptors == null) {
+            Collection<Recipe> allRecipes = listRecipes();
+            recipeDescriptors = new LinkedHashSet<>();
+            for (Class<?> recipeClass : recipeClasses.values()) {
+                Recipe recipe = constructedRecipes.get(recipeClass.getName());
+                if (recipe != null) {
+                    try {
+                        recipeDescriptors.add(recipe.getDescriptor());
+                    } catch (Throwable ignored) {
+                        // a recipe whose descriptor can't be computed isn't listed, as when recipes were configured eagerly
+                    }
+                }
+            }
+            // Every recipe is known at this point, so that recipes which include recipes from other sources
+            // in their recipeList have complete descriptors
+            for (YamlResourceLoader resourceLoader : yamlResourceLoaders) {
+                recipeDescriptors.addAll(resourceLoader.listRecipeDescriptors(allRecipes, recipeAttributions, recipeExamples));
+            }
+        }
         return recipeDescriptors;
     }
 
@@ -25,6 +25,7 @@
 import java.net.URI;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.util.Collections.emptyList;
@@ -80,6 +81,10 @@ public void addPrecondition(Recipe recipe) {
     @JsonIgnore
     private Validated<Object> initValidation = null;
 
+    @JsonIgnore
+    @Nullable
+    private Function<String, Recipe> initializedWith;
+
     @Override
     public Duration getEstimatedEffortPerOccurrence() {
         return estimatedEffortPerOccurrence == null ? Duration.ofMinutes(0) :
@@ -87,21 +92,45 @@ public Duration getEstimatedEffortPerOccurrence() {
     }
 
     public void initialize(Collection<Recipe> availableRecipes, Map<String, List<Contributor>> recipeToContributors) {
+        initialize(indexByName(availableRecipes), recipeToContributors);
+    }
+
+    /**
+     * Resolve the recipes this recipe includes by name.
+     *
+     * @param availableRecipes     Looks up a recipe by name, returning {@code null} if there is no such recipe.
+     * @param recipeToContributors The contributors of recipes by recipe name.
+     */
+    public void initialize(Function<String, Recipe> availableRecipes, Map<String, List<Contributor>> recipeToContributors) {
+        if (initializedWith == availableRecipes) {
+            // already initialized against the same catalog, e.g. as a recipe included by several others
+            return;
+        }
+        initializedWith = availableRecipes;
         initValidation = Validated.none();
         initialize(uninitializedRecipes, recipeList, availableRecipes, recipeToContributors);
         initialize(uninitializedPreconditions, preconditions, availableRecipes, recipeToContributors);
     }
 
-    private void initialize(List<Recipe> uninitialized, List<Recipe> initialized, Collection<Recipe> availableRecipes, Map<String, List<Contributor>> recipeToContributors) {
+    /**
+     * @return A lookup of recipes by name, where the first of several recipes with the same name wins.
+     */
+    static Function<String, Recipe> indexByName(Collection<Recipe> recipes) {
+        Map<String, Recipe> recipesByName = new HashMap<>(recipes.size() * 2);
+        for (Recipe recipe : recipes) {
+            recipesByName.putIfAbsent(recipe.getName(), recipe);
+        }
+        return recipesByName::get;
+    }
+
+    private void initialize(List<Recipe> uninitialized, List<Recipe> initialized, Function<String, Recipe> availableRecipes, Map<String, List<Contributor>> recipeToContributors) {
         initialized.clear();
         for (int i = 0; i < uninitialized.size(); i++) {
             Recipe recipe = uninitialized.get(i);
             if (recipe instanceof LazyLoadedRecipe) {
                 String recipeFqn = ((LazyLoadedRecipe) recipe).getRecipeFqn();
-                Optional<Recipe> next = availableRecipes.stream()
-                        .filter(r -> recipeFqn.equals(r.getName())).findAny();
-                if (next.isPresent()) {
-                    Recipe subRecipe = next.get();
+                Recipe subRecipe = availableRecipes.apply(recipeFqn);
+                if (subRecipe != null) {
                     if (subRecipe instanceof DeclarativeRecipe) {
                         ((DeclarativeRecipe) subRecipe).initialize(availableRecipes, recipeToContributors);
                     }
@@ -18,6 +18,7 @@
 import org.openrewrite.Contributor;
 import org.openrewrite.Recipe;
 import org.openrewrite.RecipeException;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.style.NamedStyles;
 
 import java.io.File;
@@ -26,6 +27,7 @@
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
@@ -41,22 +43,22 @@ public List<Recipe> listRecipes() {
         }
         Map<String, List<Contributor>> recipeToContributors = new HashMap<>();
         Map<String, List<RecipeExample>> recipeExamples = new HashMap<>();
-        for (ResourceLoader r : resourceLoaders) {
-            if (r instanceof YamlResourceLoader) {
-                recipeExamples.putAll(r.listRecipeExamples());
-                recipeToContributors.putAll(r.listContributors());
-            }
-        }
+        collectContributorsAndExamples(recipeToContributors, recipeExamples);
 
         List<Recipe> recipes = new ArrayList<>();
         for (ResourceLoader r : resourceLoaders) {
             recipes.addAll(r.listRecipes());
         }
+        Function<String, Recipe> dependencyRecipesByName = DeclarativeRecipe.indexByName(dependencyRecipes);
         for (Recipe recipe : dependencyRecipes) {
             if (recipe instanceof DeclarativeRecipe) {
-                ((DeclarativeRecipe) recipe).initialize(dependencyRecipes, recipeToContributors);
+                ((DeclarativeRecipe) recipe).initialize(dependencyRecipesByName, recipeToContributors);
             }
         }
+        List<Recipe> availableRecipes = new ArrayList<>(dependencyRecipes.size() + recipes.size());
+        availableRecipes.addAll(dependencyRecipes);
+        availableRecipes.addAll(recipes);
+        Function<String, Recipe> availableRecipesByName = DeclarativeRecipe.indexByName(availableRecipes);
         for (Recipe recipe : recipes) {
             recipe.setContributors(recipeToContributors.get(recipe.getName()));
 
@@ -65,15 +67,22 @@ public List<Recipe> listRecipes() {
             }
 
             if (recipe instanceof DeclarativeRecipe) {
-                List<Recipe> availableRecipes = new ArrayList<>();
-                availableRecipes.addAll(dependencyRecipes);
-                availableRecipes.addAll(recipes);
-                ((DeclarativeRecipe) recipe).initialize(availableRecipes, recipeToContributors);
+                ((DeclarativeRecipe) recipe).initialize(availableRecipesByName, recipeToContributors);
             }
         }
         return recipes;
     }
 
+    private void collectContributorsAndExamples(Map<String, List<Contributor>> recipeToContributors,
+                                                Map<String, List<RecipeExample>> recipeExamples) {
+        for (ResourceLoader r : resourceLoaders) {
+            if (r instanceof YamlResourceLoader) {
+                recipeExamples.putAll(r.listRecipeExamples());
+                recipeToContributors.putAll(r.listContributors());
+            }
+        }
+    }
+
     public Collection<CategoryDescriptor> listCategoryDescriptors() {
         return resourceLoaders.stream()
                 .flatMap(r -> r.listCategoryDescriptors().stream())
@@ -133,21 +142,20 @@ public Collection<RecipeDescriptor> listRecipeDescriptors() {
         return result;
     }
 
+    /**
+     * Only the activated recipes and the recipes they include are constructed and initialized. Every call
+     * resolves recipe names afresh, so declarative recipes activated by one call are never shared with another.
+     */
     public Recipe activateRecipes(Iterable<String> activeRecipes) {
-        List<Recipe> allRecipes = listRecipes();
+        Catalog catalog = new Catalog(resourceLoaders, new Catalog(dependencyResourceLoaders, null));
         List<String> recipesNotFound = new ArrayList<>();
         List<Recipe> activatedRecipes = new ArrayList<>();
         for (String activeRecipe : activeRecipes) {
-            boolean foundRecipe = false;
-            for (Recipe recipe : allRecipes) {
-                if (activeRecipe.equals(recipe.getName())) {
-                    activatedRecipes.add(recipe);
-                    foundRecipe = true;
-                    break;
-                }
-            }
-            if (!foundRecipe) {
+            Recipe recipe = catalog.find(activeRecipe);
+            if (recipe == null) {
                 recipesNotFound.add(activeRecipe);
+            } else {
+                activatedRecipes.add(recipe);
             }
         }
         if (!recipesNotFound.isEmpty()) {
@@ -193,8 +201,7 @@ public List<NamedStyles> activateStyles(String... activeStyles) {
     }
 
     public Environment(Collection<? extends ResourceLoader> resourceLoaders) {
-        this.resourceLoaders = resourceLoaders;
-        this.dependencyResourceLoaders = emptyList();
+        this(resourceLoaders, emptyList());
     }
 
     public Environment(Collection<? extends ResourceLoader> resourceLoaders,
@@ -203,6 +210,83 @@ public Environment(Collection<? extends ResourceLoader> resourceLoaders,
         this.dependencyResourceLoaders = dependencyResourceLoaders;
     }
 
+    /**
+     * Recipes by name, found in a set of resource loaders on first use. A declarative recipe is initialized
+     * when it is found, resolving the recipes it includes through the same catalog, so every recipe is
+     * constructed and initialized at most once per activation no matter how many other recipes include it.
+     */
+    private class Catalog implements Function<String, Recipe> {
+        private final Collection<? extends ResourceLoader> loaders;
+
+        @Nullable
+        private final Catalog dependencies;
+
+        private final Map<String, Recipe> recipesByName = new HashMap<>();
+
+        @Nullable
+        private Map<String, List<Contributor>> recipeToContributors;
+
+        @Nullable
+        private Map<String, List<RecipeExample>> recipeExamples;
+
+        Catalog(Collection<? extends ResourceLoader> loaders, @Nullable Catalog dependencies) {
+            this.loaders = loaders;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * @return A recipe of the dependencies, or else of this catalog's own resource loaders.
+         */
+        @Override
+        @Nullable
+        public Recipe apply(String recipeName) {
+            Recipe recipe = dependencies == null ? null : dependencies.find(recipeName);
+            return recipe == null ? find(recipeName) : recipe;
+        }
+
+        /**
+         * @return A recipe of this catalog's own resource loaders.
+         */
+        @Nullable
+        synchronized Recipe find(String recipeName) {
+            if (recipesByName.containsKey(recipeName)) {
+                return recipesByName.get(recipeName);
+            }
+            Recipe recipe = load(recipeName);
+            // registered before initializing, so that recipes which include each other don't recurse forever
+            recipesByName.put(recipeName, recipe);
+            if (recipe != null) {
+                if (recipeToContributors == null || recipeExamples == null) {
+                    recipeToContributors = new HashMap<>();
+                    recipeExamples = new HashMap<>();
+                    collectContributorsAndExamples(recipeToContributors, recipeExamples);
+                }
+                // as in listRecipes(), only the environment's own recipes are given contributors and examples
+                if (dependencies != null) {
+                    recipe.setContributors(recipeToContributors.get(recipe.getName()));
+                    if (recipeExamples.containsKey(recipe.getName())) {
+                        recipe.setExamples(recipeExamples.get(recipe.getName()));
+                    }
+                }
+                if (recipe instanceof DeclarativeRecipe) {
+                    ((DeclarativeRecipe) recipe).initialize(this, recipeToContributors);
+                }
+            }
+            return recipe;
+        }
+
+        @Nullable
+        private Recipe load(String recipeName) {
+            for (ResourceLoader loader : loaders) {
+                Recipe recipe = loader.loadRecipe(recipeName);
+                if (recipe != null) {
+                    return recipe;
+                }
+            }
+            return null;
+        }
+    }
+
     public static Builder builder(Properties properties) {
         return new Builder(properties);
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.config;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ScanResult;
+import lombok.Value;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.style.NamedStyles;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The recipe and style classes of a recipe jar, written to {@link #LOCATION} at build time so that
+ * a {@link ClasspathScanningLoader} can load them by name instead of scanning every class in the jar.
+ * <p>
+ * The index is a text file with one {@code recipe <class name>} or {@code style <class name>} line per class.
+ */
+@Value
+public class RecipeIndex {
+    public static final String LOCATION = "META-INF/rewrite/recipes.idx";
+
+    List<String> recipeClassNames;
+    List<String> styleClassNames;
+
+    /**
+     * Find the concrete, public recipes and the styles of a classpath scan.
+     */
+    public static RecipeIndex scan(ScanResult result) {
+        Set<String> recipes = new LinkedHashSet<>();
+        for (String superclass : new String[]{Recipe.class.getName(), ScanningRecipe.class.getName()}) {
+            for (ClassInfo classInfo : result.getSubclasses(superclass)) {
+                if (!classInfo.getName().equals(DeclarativeRecipe.class.getName()) &&
+                    classInfo.isPublic() &&
+                    // `ScanningRecipe` is an example of an abstract `Recipe` subtype
+                    !classInfo.isAbstract()) {
+                    recipes.add(classInfo.getName());
+                }
+            }
+        }
+        List<String> styles = new ArrayList<>();
+        for (ClassInfo classInfo : result.getSubclasses(NamedStyles.class.getName())) {
+            styles.add(classInfo.getName());
+        }
+        return new RecipeIndex(new ArrayList<>(recipes), styles);
+    }
+
+    public static RecipeIndex read(InputStream in) throws IOException {
+        List<String> recipes = new ArrayList<>();
+        List<String> styles = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            line = line.trim();
+            if (line.startsWith("recipe ")) {
+                recipes.add(line.substring("recipe ".length()).trim());
+            } else if (line.startsWith("style ")) {
+                styles.add(line.substring("style ".length()).trim());
+            }
+        }
+        return new RecipeIndex(recipes, styles);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        for (String recipe : recipeClassNames) {
+            writer.write("recipe " + recipe + "\n");
+        }
+        for (String style : styleClassNames) {
+            writer.write("style " + style + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write the index of a compiled classes directory into that directory, e.g. as a build step before
+     * the directory is packaged into a recipe jar.
+     *
+     * @param args The classes directory, followed by any directories or jars its classes depend on.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: RecipeIndex <classes directory> [classpath entries...]");
+        }
+        Path classes = Paths.get(args[0]);
+        List<Object> classpath = new ArrayList<>();
+        for (String arg : args) {
+            classpath.add(arg);
+        }
+        // the classpath must include the dependencies so that recipes extending their classes are found,
+        // but only the classes of the directory being indexed are indexed
+        try (ScanResult result = new ClassGraph()
+                .overrideClasspath(classpath)
+                .ignoreClassVisibility()
+                .scan()) {
+            RecipeIndex all = scan(result);
+            List<String> recipes = new ArrayList<>();
+            for (String recipe : all.getRecipeClassNames()) {
+                if (isIn(result, recipe, classes)) {
+                    recipes.add(recipe);
+                }
+            }
+            List<String> styles = new ArrayList<>();
+            for (String style : all.getStyleClassNames()) {
+                if (isIn(result, style, classes)) {
+                    styles.add(style);
+                }
+            }
+            Path index = classes.resolve(LOCATION);
+            Files.createDirectories(index.getParent());
+            try (OutputStream out = Files.newOutputStream(index)) {
+                new RecipeIndex(recipes, styles).write(out);
+            }
+        }
+    }
+
+    private static boolean isIn(ScanResult result, String className, Path classes) {
+        ClassInfo classInfo = result.getClassInfo(className);
+        return classInfo != null && classes.toFile().getAbsoluteFile().equals(classInfo.getClasspathElementFile().getAbsoluteFile());
+    }
+}
@@ -17,6 +17,7 @@
 
 import org.openrewrite.Contributor;
 import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.style.NamedStyles;
 
 import java.util.Collection;
@@ -26,6 +27,22 @@
 public interface ResourceLoader {
     Collection<Recipe> listRecipes();
 
+    /**
+     * Loaders that can find a recipe without constructing every recipe they provide should override this.
+     *
+     * @param recipeName The name of a recipe.
+     * @return The recipe with this name, or {@code null} if this loader doesn't provide one.
+     */
+    @Nullable
+    default Recipe loadRecipe(String recipeName) {
+        for (Recipe recipe : listRecipes()) {
+            if (recipeName.equals(recipe.getName())) {
+                return recipe;
+            }
+        }
+        return null;
+    }
+
     Collection<RecipeDescriptor> listRecipeDescriptors();
 
     Collection<NamedStyles> listStyles();
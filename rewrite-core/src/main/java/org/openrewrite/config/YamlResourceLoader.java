@@ -43,6 +43,7 @@
 import java.time.Duration;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -72,6 +73,9 @@ public class YamlResourceLoader implements ResourceLoader {
     @Nullable
     private Map<String, List<RecipeExample>> recipeNameToExamples;
 
+    @Nullable
+    private Map<String, Map<String, Object>> recipeResourcesByName;
+
     @Getter
     private enum ResourceType {
         Recipe("specs.openrewrite.org/v1beta/recipe"),
@@ -178,77 +182,98 @@ private Collection<Map<String, Object>> loadResources(ResourceType resourceType)
         return resources;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Collection<Recipe> listRecipes() {
         Collection<Map<String, Object>> resources = loadResources(ResourceType.Recipe);
         List<Recipe> recipes = new ArrayList<>(resources.size());
         Map<String, List<Contributor>> contributors = listContributors();
         for (Map<String, Object> r : resources) {
-            if (!r.containsKey("name")) {
-                continue;
+            if (r.containsKey("name")) {
+                recipes.add(toRecipe(r, contributors));
             }
+        }
+        return recipes;
+    }
 
-            @Language("markdown") String name = (String) r.get("name");
-
-            @Language("markdown")
-            String displayName = (String) r.get("displayName");
-            if (displayName == null) {
-                displayName = name;
+    /**
+     * Only the recipe with this name is constructed, from an index of the recipe resources by name that is
+     * built on first use.
+     */
+    @Override
+    @Nullable
+    public Recipe loadRecipe(String recipeName) {
+        if (recipeResourcesByName == null) {
+            Map<String, Map<String, Object>> resourcesByName = new HashMap<>();
+            for (Map<String, Object> r : loadResources(ResourceType.Recipe)) {
+                if (r.containsKey("name")) {
+                    resourcesByName.putIfAbsent((String) r.get("name"), r);
+                }
             }
+            recipeResourcesByName = resourcesByName;
+        }
+        Map<String, Object> r = recipeResourcesByName.get(recipeName);
+        return r == null ? null : toRecipe(r, listContributors());
+    }
 
-            @Language("markdown")
-            String description = (String) r.get("description");
+    @SuppressWarnings("unchecked")
+    private Recipe toRecipe(Map<String, Object> r, Map<String, List<Contributor>> contributors) {
+        @Language("markdown") String name = (String) r.get("name");
 
-            Set<String> tags = Collections.emptySet();
-            List<String> rawTags = (List<String>) r.get("tags");
-            if (rawTags != null) {
-                tags = new HashSet<>(rawTags);
-            }
+        @Language("markdown")
+        String displayName = (String) r.get("displayName");
+        if (displayName == null) {
+            displayName = name;
+        }
 
-            String estimatedEffortPerOccurrenceStr = (String) r.get("estimatedEffortPerOccurrence");
-            Duration estimatedEffortPerOccurrence = null;
-            if (estimatedEffortPerOccurrenceStr != null) {
-                estimatedEffortPerOccurrence = Duration.parse(estimatedEffortPerOccurrenceStr);
-            }
+        @Language("markdown")
+        String description = (String) r.get("description");
 
-            List<Object> rawMaintainers = (List<Object>) r.getOrDefault("maintainers", emptyList());
-            List<Maintainer> maintainers;
-            if (rawMaintainers.isEmpty()) {
-                maintainers = emptyList();
-            } else {
-                maintainers = new ArrayList<>(rawMaintainers.size());
-                for (Object rawMaintainer : rawMaintainers) {
-                    if (rawMaintainer instanceof Map) {
-                        Map<String, Object> maintainerMap = (Map<String, Object>) rawMaintainer;
-                        String maintainerName = (String) maintainerMap.get("maintainer");
-                        String logoString = (String) maintainerMap.get("logo");
-                        URI logo = (logoString == null) ? null : URI.create(logoString);
-                        maintainers.add(new Maintainer(maintainerName, logo));
-                    }
-                }
-            }
-            DeclarativeRecipe recipe = new DeclarativeRecipe(name, displayName, description, tags,
-                    estimatedEffortPerOccurrence, source, (boolean) r.getOrDefault("causesAnotherCycle", false), maintainers);
+        Set<String> tags = Collections.emptySet();
+        List<String> rawTags = (List<String>) r.get("tags");
+        if (rawTags != null) {
+            tags = new HashSet<>(rawTags);
+        }
 
-            List<Object> recipeList = (List<Object>) r.get("recipeList");
-            if (recipeList == null) {
-                throw new RecipeException("Invalid Recipe [" + name + "] recipeList is null");
-            }
-            for (int i = 0; i < recipeList.size(); i++) {
-                loadRecipe(name, i, recipeList.get(i), recipe::addUninitialized, recipe::addUninitialized, recipe::addValidation);
-            }
-            List<Object> preconditions = (List<Object>) r.get("preconditions");
-            if(preconditions != null) {
-                for (int i = 0; i < preconditions.size(); i++) {
-                    loadRecipe(name, i, preconditions.get(i), recipe::addUninitializedPrecondition, recipe::addUninitializedPrecondition, recipe::addValidation);
+        String estimatedEffortPerOccurrenceStr = (String) r.get("estimatedEffortPerOccurrence");
+        Duration estimatedEffortPerOccurrence = null;
+        if (estimatedEffortPerOccurrenceStr != null) {
+            estimatedEffortPerOccurrence = Duration.parse(estimatedEffortPerOccurrenceStr);
+        }
+
+        List<Object> rawMaintainers = (List<Object>) r.getOrDefault("maintainers", emptyList());
+        List<Maintainer> maintainers;
+        if (rawMaintainers.isEmpty()) {
+            maintainers = emptyList();
+        } else {
+            maintainers = new ArrayList<>(rawMaintainers.size());
+            for (Object rawMaintainer : rawMaintainers) {
+                if (rawMaintainer instanceof Map) {
+                    Map<String, Object> maintainerMap = (Map<String, Object>) rawMaintainer;
+                    String maintainerName = (String) maintainerMap.get("maintainer");
+                    String logoString = (String) maintainerMap.get("logo");
+                    URI logo = (logoString == null) ? null : URI.create(logoString);
+                    maintainers.add(new Maintainer(maintainerName, logo));
                 }
             }
-            recipe.setContributors(contributors.get(recipe.getName()));
-            recipes.add(recipe);
         }
+        DeclarativeRecipe recipe = new DeclarativeRecipe(name, displayName, description, tags,
+                estimatedEffortPerOccurrence, source, (boolean) r.getOrDefault("causesAnotherCycle", false), maintainers);
 
-        return recipes;
+        List<Object> recipeList = (List<Object>) r.get("recipeList");
+        if (recipeList == null) {
+            throw new RecipeException("Invalid Recipe [" + name + "] recipeList is null");
+        }
+        for (int i = 0; i < recipeList.size(); i++) {
+            loadRecipe(name, i, recipeList.get(i), recipe::addUninitialized, recipe::addUninitialized, recipe::addValidation);
+        }
+        List<Object> preconditions = (List<Object>) r.get("preconditions");
+        if(preconditions != null) {
+            for (int i = 0; i < preconditions.size(); i++) {
+                loadRecipe(name, i, preconditions.get(i), recipe::addUninitializedPrecondition, recipe::addUninitializedPrecondition, recipe::addValidation);
+            }
+        }
+        recipe.setContributors(contributors.get(recipe.getName()));
+        return recipe;
     }
 
     @SuppressWarnings("unchecked")
@@ -334,11 +359,12 @@ public Collection<RecipeDescriptor> listRecipeDescriptors(Collection<Recipe> ext
                 ),
                 dependencyResourceLoaders.stream().flatMap(rl -> rl.listRecipes().stream())
         ).collect(toList());
+        Function<String, Recipe> recipesByName = DeclarativeRecipe.indexByName(allRecipes);
 
         List<RecipeDescriptor> recipeDescriptors = new ArrayList<>();
         for (Recipe recipe : internalRecipes) {
             DeclarativeRecipe declarativeRecipe = (DeclarativeRecipe) recipe;
-            declarativeRecipe.initialize(allRecipes, recipeNamesToContributors);
+            declarativeRecipe.initialize(recipesByName, recipeNamesToContributors);
             declarativeRecipe.setContributors(recipeNamesToContributors.get(recipe.getName()));
             declarativeRecipe.setExamples(recipeNamesToExamples.get(recipe.getName()));
             recipeDescriptors.add(declarativeRecipe.getDescriptor());
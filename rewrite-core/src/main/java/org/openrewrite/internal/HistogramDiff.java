@@ -0,0 +1,416 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.*;
+
+/**
+ * A line-based histogram diff of two texts, following the algorithm (and therefore the output) of git's
+ * default diff algorithm: common lines that occur least often are used as anchors to recursively split the
+ * texts, falling back to a Myers diff for regions that only have frequently repeated lines in common.
+ * <p>
+ * Lines are compared by a precomputed hash first, so comparisons of unequal lines are usually a single int compare.
+ */
+public class HistogramDiff {
+    private static final int MAX_CHAIN_LENGTH = 64;
+
+    private final Text a;
+    private final Text b;
+    private final List<Edit> edits = new ArrayList<>();
+
+    private HistogramDiff(Text a, Text b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * @return The regions of {@code a} that are replaced by regions of {@code b}, in order.
+     */
+    public static List<Edit> diff(Text a, Text b) {
+        int beginA = 0;
+        int beginB = 0;
+        int endA = a.size();
+        int endB = b.size();
+        while (beginA < endA && beginB < endB && a.equals(beginA, b, beginB)) {
+            beginA++;
+            beginB++;
+        }
+        while (beginA < endA && beginB < endB && a.equals(endA - 1, b, endB - 1)) {
+            endA--;
+            endB--;
+        }
+        if (beginA == endA && beginB == endB) {
+            return Collections.emptyList();
+        }
+
+        HistogramDiff diff = new HistogramDiff(a, b);
+        diff.diffRegion(new Edit(beginA, endA, beginB, endB));
+        return diff.normalize();
+    }
+
+    private void diffRegion(Edit region) {
+        Deque<Edit> queue = new ArrayDeque<>();
+        queue.push(region);
+        while (!queue.isEmpty()) {
+            Edit r = queue.pop();
+            if (r.getLengthA() == 0 && r.getLengthB() == 0) {
+                continue;
+            }
+            if (r.getLengthA() == 0 || r.getLengthB() == 0 || (r.getLengthA() == 1 && r.getLengthB() == 1)) {
+                edits.add(r);
+                continue;
+            }
+
+            Edit lcs = longestCommonSequence(r);
+            if (lcs == null) {
+                myers(r);
+            } else if (lcs.getLengthA() == 0) {
+                edits.add(r);
+            } else {
+                // the region before the common sequence is popped first, so edits are produced in order
+                queue.push(new Edit(lcs.endA, r.endA, lcs.endB, r.endB));
+                queue.push(new Edit(r.beginA, lcs.beginA, r.beginB, lcs.beginB));
+            }
+        }
+    }
+
+    /**
+     * @return The longest common run of lines around the least frequently occurring line of {@code a} that also
+     * occurs in {@code b}, an empty edit if the regions have no lines in common, or {@code null} if all common
+     * lines occur too often to be useful anchors.
+     */
+    @Nullable
+    private Edit longestCommonSequence(Edit r) {
+        Map<String, List<Integer>> occurrences = new HashMap<>();
+        for (int i = r.beginA; i < r.endA; i++) {
+            occurrences.computeIfAbsent(a.key(i), k -> new ArrayList<>(2)).add(i);
+        }
+
+        boolean hasCommon = false;
+        Edit lcs = null;
+        int lcsCount = MAX_CHAIN_LENGTH + 1;
+        for (int bPtr = r.beginB; bPtr < r.endB; ) {
+            int bNext = bPtr + 1;
+            List<Integer> aPtrs = occurrences.get(b.key(bPtr));
+            if (aPtrs != null) {
+                hasCommon = true;
+                if (aPtrs.size() <= lcsCount) {
+                    for (int aPtr : aPtrs) {
+                        int as = aPtr;
+                        int bs = bPtr;
+                        int ae = aPtr + 1;
+                        int be = bPtr + 1;
+                        int rc = aPtrs.size();
+                        while (r.beginA < as && r.beginB < bs && a.equals(as - 1, b, bs - 1)) {
+                            as--;
+                            bs--;
+                            if (1 < rc) {
+                                rc = Math.min(rc, occurrences.get(a.key(as)).size());
+                            }
+                        }
+                        while (ae < r.endA && be < r.endB && a.equals(ae, b, be)) {
+                            if (1 < rc) {
+                                rc = Math.min(rc, occurrences.get(a.key(ae)).size());
+                            }
+                            ae++;
+                            be++;
+                        }
+                        if (bNext < be) {
+                            bNext = be;
+                        }
+                        if (lcs == null || lcs.getLengthA() < ae - as || rc < lcsCount) {
+                            lcs = new Edit(as, ae, bs, be);
+                            lcsCount = rc;
+                        }
+                    }
+                }
+            }
+            bPtr = bNext;
+        }
+
+        if (lcs == null) {
+            return hasCommon ? null : new Edit(r.beginA, r.beginA, r.beginB, r.beginB);
+        }
+        return lcs;
+    }
+
+    /**
+     * A Myers diff of a region, used when the histogram has no good anchors. This is the linear space variant,
+     * which finds the middle snake of an optimal edit path by searching forward from the start and backward from
+     * the end at the same time, and then diffs the regions before and after it, so that memory stays proportional
+     * to the size of the region rather than to its size times the number of edits.
+     */
+    private void myers(Edit r) {
+        boolean[] deleted = new boolean[r.getLengthA()];
+        boolean[] inserted = new boolean[r.getLengthB()];
+        myers(r, r.beginA, r.endA, r.beginB, r.endB, deleted, inserted);
+
+        int n = deleted.length;
+        int m = inserted.length;
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            if (i < n && j < m && !deleted[i] && !inserted[j]) {
+                i++;
+                j++;
+                continue;
+            }
+            int beginA = i;
+            int beginB = j;
+            while ((i < n && deleted[i]) || (j < m && inserted[j])) {
+                if (i < n && deleted[i]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            edits.add(new Edit(r.beginA + beginA, r.beginA + i, r.beginB + beginB, r.beginB + j));
+        }
+    }
+
+    private void myers(Edit r, int beginA, int endA, int beginB, int endB, boolean[] deleted, boolean[] inserted) {
+        while (beginA < endA && beginB < endB && a.equals(beginA, b, beginB)) {
+            beginA++;
+            beginB++;
+        }
+        while (beginA < endA && beginB < endB && a.equals(endA - 1, b, endB - 1)) {
+            endA--;
+            endB--;
+        }
+        long split = beginA == endA || beginB == endB ? -1 : middleSnake(beginA, endA, beginB, endB);
+        if (split == -1) {
+            Arrays.fill(deleted, beginA - r.beginA, endA - r.beginA, true);
+            Arrays.fill(inserted, beginB - r.beginB, endB - r.beginB, true);
+            return;
+        }
+
+        int splitA = beginA + (int) (split >>> 32);
+        int splitB = beginB + (int) split;
+        myers(r, beginA, splitA, beginB, splitB, deleted, inserted);
+        myers(r, splitA, endA, splitB, endB, deleted, inserted);
+    }
+
+    /**
+     * @return A point on an optimal edit path through the region, relative to its start, with the offset into
+     * {@code a} in the high and the offset into {@code b} in the low 32 bits, or -1 if there is none. The region
+     * must not start or end with a common line, which guarantees that the point splits it into two smaller problems.
+     */
+    private long middleSnake(int beginA, int endA, int beginB, int endB) {
+        int n = endA - beginA;
+        int m = endB - beginB;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD;
+        int length = 2 * maxD + 2;
+        // the furthest offset into a reached on each diagonal, searching forward and backward respectively
+        int[] forward = new int[length];
+        int[] backward = new int[length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+
+        int delta = n - m;
+        boolean checkForward = (delta & 1) != 0;
+        // diagonals that have run off the edge of the region are not searched any further
+        int forwardStart = 0;
+        int forwardEnd = 0;
+        int backwardStart = 0;
+        int backwardEnd = 0;
+        for (int d = 0; d < maxD; d++) {
+            for (int k = -d + forwardStart; k <= d - forwardEnd; k += 2) {
+                int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1]) ?
+                        forward[offset + k + 1] :
+                        forward[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.equals(beginA + x, b, beginB + y)) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+                if (x > n) {
+                    forwardEnd += 2;
+                } else if (y > m) {
+                    forwardStart += 2;
+                } else if (checkForward) {
+                    int backwardOffset = offset + delta - k;
+                    if (backwardOffset >= 0 && backwardOffset < length && backward[backwardOffset] != -1 &&
+                        x >= n - backward[backwardOffset]) {
+                        return ((long) x << 32) | y;
+                    }
+                }
+            }
+
+            for (int k = -d + backwardStart; k <= d - backwardEnd; k += 2) {
+                int x = k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1]) ?
+                        backward[offset + k + 1] :
+                        backward[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.equals(endA - x - 1, b, endB - y - 1)) {
+                    x++;
+                    y++;
+                }
+                backward[offset + k] = x;
+                if (x > n) {
+                    backwardEnd += 2;
+                } else if (y > m) {
+                    backwardStart += 2;
+                } else if (!checkForward) {
+                    int forwardOffset = offset + delta - k;
+                    if (forwardOffset >= 0 && forwardOffset < length && forward[forwardOffset] != -1) {
+                        int forwardX = forward[forwardOffset];
+                        if (forwardX >= n - x) {
+                            return ((long) forwardX << 32) | (forwardX - (forwardOffset - offset));
+                        }
+                    }
+                }
+            }
+        }
+        // only when the region has no lines in common at all, so that every line is replaced
+        return -1;
+    }
+
+    /**
+     * Slide pure insertions and deletions as far down as possible, as git does, so that e.g. an inserted
+     * method is shown with its closing brace rather than the closing brace of the method before it.
+     */
+    private List<Edit> normalize() {
+        Edit prev = null;
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            Edit cur = edits.get(i);
+            int maxA = prev == null ? a.size() : prev.beginA;
+            int maxB = prev == null ? b.size() : prev.beginB;
+            if (cur.getLengthA() == 0) {
+                while (cur.endA < maxA && cur.endB < maxB && b.equals(cur.beginB, b, cur.endB)) {
+                    cur.shift();
+                }
+            } else if (cur.getLengthB() == 0) {
+                while (cur.endA < maxA && cur.endB < maxB && a.equals(cur.beginA, a, cur.endA)) {
+                    cur.shift();
+                }
+            }
+            prev = cur;
+        }
+        return edits;
+    }
+
+    /**
+     * Replace lines {@code [beginA, endA)} of the old text with lines {@code [beginB, endB)} of the new text.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Edit {
+        int beginA;
+        int endA;
+        int beginB;
+        int endB;
+
+        public int getLengthA() {
+            return endA - beginA;
+        }
+
+        public int getLengthB() {
+            return endB - beginB;
+        }
+
+        void shift() {
+            beginA++;
+            endA++;
+            beginB++;
+            endB++;
+        }
+    }
+
+    /**
+     * A text split into lines, where a line includes any carriage return but not its line feed.
+     */
+    public static class Text {
+        private final String[] lines;
+        private final String[] keys;
+        private final int[] hashes;
+
+        @Getter
+        private final boolean missingNewlineAtEnd;
+
+        @Getter
+        private final boolean binary;
+
+        public Text(String content, boolean ignoreAllWhitespace) {
+            List<String> lines = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i < content.length(); i++) {
+                if (content.charAt(i) == '\n') {
+                    lines.add(content.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            if (start < content.length()) {
+                lines.add(content.substring(start));
+            }
+            this.lines = lines.toArray(new String[0]);
+            this.missingNewlineAtEnd = start < content.length();
+            // the same heuristic as git: text with a NUL character near its start is binary
+            this.binary = content.substring(0, Math.min(content.length(), 8000)).indexOf('\0') >= 0;
+
+            this.keys = new String[this.lines.length];
+            this.hashes = new int[this.lines.length];
+            for (int i = 0; i < this.lines.length; i++) {
+                keys[i] = ignoreAllWhitespace ? withoutWhitespace(this.lines[i]) : this.lines[i];
+                hashes[i] = keys[i].hashCode();
+            }
+            if (missingNewlineAtEnd && !ignoreAllWhitespace) {
+                // a last line without a newline differs from the same line with one. No other key
+                // can contain a newline, so appending one makes the key distinct.
+                int last = keys.length - 1;
+                keys[last] = keys[last] + '\n';
+                hashes[last] = keys[last].hashCode();
+            }
+        }
+
+        public int size() {
+            return lines.length;
+        }
+
+        public String getLine(int i) {
+            return lines[i];
+        }
+
+        String key(int i) {
+            return keys[i];
+        }
+
+        boolean equals(int i, Text other, int j) {
+            return hashes[i] == other.hashes[j] && keys[i].equals(other.keys[j]);
+        }
+
+        private static String withoutWhitespace(String line) {
+            StringBuilder sb = null;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                boolean whitespace = c == ' ' || c == '\t' || c == '\r' || c == '\n';
+                if (whitespace && sb == null) {
+                    sb = new StringBuilder(line.length()).append(line, 0, i);
+                } else if (!whitespace && sb != null) {
+                    sb.append(c);
+                }
+            }
+            return sb == null ? line : sb.toString();
+        }
+    }
+}
@@ -18,30 +18,33 @@
 import org.openrewrite.Recipe;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.jgit.diff.DiffEntry;
-import org.openrewrite.jgit.diff.DiffFormatter;
-import org.openrewrite.jgit.diff.RawTextComparator;
-import org.openrewrite.jgit.internal.storage.dfs.DfsRepositoryDescription;
-import org.openrewrite.jgit.internal.storage.dfs.InMemoryRepository;
-import org.openrewrite.jgit.lib.*;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import org.openrewrite.jgit.lib.AbbreviatedObjectId;
+import org.openrewrite.jgit.lib.FileMode;
+import org.openrewrite.jgit.lib.ObjectId;
+
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.StringJoiner;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
+/**
+ * A git-style unified diff of two versions of a source file, computed directly from the before and after text
+ * with {@link HistogramDiff}, with the names of the recipes that made the change appended to the first hunk header.
+ */
 public class InMemoryDiffEntry extends DiffEntry implements AutoCloseable {
 
     static final AbbreviatedObjectId A_ZERO = AbbreviatedObjectId
             .fromObjectId(ObjectId.zeroId());
 
-    private final InMemoryRepository repo;
+    private static final int CONTEXT_LINES = 3;
+    private static final int ABBREVIATED_ID_LENGTH = 7;
+
+    private final String oldSource;
+    private final String newSource;
     private final Set<Recipe> recipesThatMadeChanges;
 
     public InMemoryDiffEntry(@Nullable Path originalFilePath, @Nullable Path filePath, @Nullable Path relativeTo, String oldSource,
@@ -53,37 +56,27 @@ public InMemoryDiffEntry(@Nullable Path originalFilePath, @Nullable Path filePat
                              String newSource, Set<Recipe> recipesThatMadeChanges, FileMode oldMode, FileMode newMode) {
 
         this.recipesThatMadeChanges = recipesThatMadeChanges;
+        this.oldSource = originalFilePath == null ? "" : oldSource;
+        this.newSource = filePath == null ? "" : newSource;
 
-        try {
-            this.repo = new InMemoryRepository.Builder()
-                    .setRepositoryDescription(new DfsRepositoryDescription())
-                    .build();
-
-            try (ObjectInserter inserter = repo.getObjectDatabase().newInserter()) {
-
-                if (originalFilePath != null) {
-                    this.oldId = inserter.insert(Constants.OBJ_BLOB, oldSource.getBytes(StandardCharsets.UTF_8)).abbreviate(40);
-                    this.oldMode = oldMode;
-                    this.oldPath = (relativeTo == null ? originalFilePath : relativeTo.relativize(originalFilePath)).toString().replace("\\", "/");
-                } else {
-                    this.oldId = A_ZERO;
-                    this.oldMode = FileMode.MISSING;
-                    this.oldPath = DEV_NULL;
-                }
+        if (originalFilePath != null) {
+            this.oldId = blobId(oldSource);
+            this.oldMode = oldMode;
+            this.oldPath = (relativeTo == null ? originalFilePath : relativeTo.relativize(originalFilePath)).toString().replace("\\", "/");
+        } else {
+            this.oldId = A_ZERO;
+            this.oldMode = FileMode.MISSING;
+            this.oldPath = DEV_NULL;
+        }
 
-                if (filePath != null) {
-                    this.newId = inserter.insert(Constants.OBJ_BLOB, newSource.getBytes(StandardCharsets.UTF_8)).abbreviate(40);
-                    this.newMode = newMode;
-                    this.newPath = (relativeTo == null ? filePath : relativeTo.relativize(filePath)).toString().replace("\\", "/");
-                } else {
-                    this.newId = A_ZERO;
-                    this.newMode = FileMode.MISSING;
-                    this.newPath = DEV_NULL;
-                }
-                inserter.flush();
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        if (filePath != null) {
+            this.newId = blobId(newSource);
+            this.newMode = newMode;
+            this.newPath = (relativeTo == null ? filePath : relativeTo.relativize(filePath)).toString().replace("\\", "/");
+        } else {
+            this.newId = A_ZERO;
+            this.newMode = FileMode.MISSING;
+            this.newPath = DEV_NULL;
         }
 
         if (this.oldMode == FileMode.MISSING && this.newMode != FileMode.MISSING) {
@@ -110,42 +103,206 @@ public String getDiff(@Nullable Boolean ignoreAllWhitespace) {
             return "";
         }
 
-        ByteArrayOutputStream patch = new ByteArrayOutputStream();
-        try (DiffFormatter formatter = new DiffFormatter(patch)) {
-            formatter.setDiffComparator(ignoreAllWhitespace ? RawTextComparator.WS_IGNORE_ALL : RawTextComparator.DEFAULT);
-            formatter.setRepository(repo);
-            formatter.format(this);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-
-        String diff = patch.toString();
-
-        AtomicBoolean addedComment = new AtomicBoolean(false);
-        // NOTE: String.lines() would remove empty lines which we don't want
-        return Arrays.stream(diff.split("\n"))
-                       .map(l -> {
-                           if (!addedComment.get() && l.startsWith("@@") && l.endsWith("@@")) {
-                               addedComment.set(true);
-
-                               Set<String> sortedRecipeNames = new LinkedHashSet<>();
-                               for (Recipe recipesThatMadeChange : recipesThatMadeChanges) {
-                                   sortedRecipeNames.add(recipesThatMadeChange.getName());
-                               }
-                               StringJoiner joinedRecipeNames = new StringJoiner(", ", " ", "");
-                               for (String name : sortedRecipeNames) {
-                                   joinedRecipeNames.add(name);
-                               }
-
-                               return l + joinedRecipeNames;
-                           }
-                           return l;
-                       })
-                       .collect(Collectors.joining("\n")) + "\n";
+        StringBuilder patch = new StringBuilder();
+        formatHeader(patch);
+        if (oldId.equals(newId)) {
+            return patch.toString();
+        }
+
+        HistogramDiff.Text a = new HistogramDiff.Text(oldSource, ignoreAllWhitespace);
+        HistogramDiff.Text b = new HistogramDiff.Text(newSource, ignoreAllWhitespace);
+        if (a.isBinary() || b.isBinary()) {
+            return patch.append("Binary files differ\n").toString();
+        }
+
+        patch.append("--- ").append(changeType == ChangeType.ADD ? DEV_NULL : quotePath("a/" + oldPath)).append('\n');
+        patch.append("+++ ").append(changeType == ChangeType.DELETE ? DEV_NULL : quotePath("b/" + newPath)).append('\n');
+        formatHunks(patch, HistogramDiff.diff(a, b), a, b);
+        return patch.toString();
+    }
+
+    private void formatHeader(StringBuilder patch) {
+        patch.append("diff --git ")
+                .append(quotePath("a/" + (changeType == ChangeType.ADD ? newPath : oldPath)))
+                .append(' ')
+                .append(quotePath("b/" + (changeType == ChangeType.DELETE ? oldPath : newPath)))
+                .append('\n');
+
+        if ((changeType == ChangeType.MODIFY || changeType == ChangeType.RENAME) && !oldMode.equals(newMode)) {
+            patch.append("old mode ").append(mode(oldMode)).append('\n');
+            patch.append("new mode ").append(mode(newMode)).append('\n');
+        }
+
+        if (changeType == ChangeType.ADD) {
+            patch.append("new file mode ").append(mode(newMode)).append('\n');
+        } else if (changeType == ChangeType.DELETE) {
+            patch.append("deleted file mode ").append(mode(oldMode)).append('\n');
+        } else if (changeType == ChangeType.RENAME) {
+            patch.append("similarity index ").append(getScore()).append("%\n");
+            patch.append("rename from ").append(quotePath(oldPath)).append('\n');
+            patch.append("rename to ").append(quotePath(newPath)).append('\n');
+        }
+
+        if (!oldId.equals(newId)) {
+            patch.append("index ")
+                    .append(oldId.name(), 0, ABBREVIATED_ID_LENGTH)
+                    .append("..")
+                    .append(newId.name(), 0, ABBREVIATED_ID_LENGTH);
+            if (oldMode.equals(newMode)) {
+                patch.append(' ').append(mode(newMode));
+            }
+            patch.append('\n');
+        }
+    }
+
+    private void formatHunks(StringBuilder patch, List<HistogramDiff.Edit> edits, HistogramDiff.Text a, HistogramDiff.Text b) {
+        boolean addedComment = false;
+        for (int curIdx = 0; curIdx < edits.size(); ) {
+            HistogramDiff.Edit curEdit = edits.get(curIdx);
+            int endIdx = curIdx;
+            while (endIdx + 1 < edits.size() &&
+                   (edits.get(endIdx + 1).getBeginA() - edits.get(endIdx).getEndA() <= 2 * CONTEXT_LINES ||
+                    edits.get(endIdx + 1).getBeginB() - edits.get(endIdx).getEndB() <= 2 * CONTEXT_LINES)) {
+                endIdx++;
+            }
+            HistogramDiff.Edit endEdit = edits.get(endIdx);
+
+            int aCur = Math.max(0, curEdit.getBeginA() - CONTEXT_LINES);
+            int bCur = Math.max(0, curEdit.getBeginB() - CONTEXT_LINES);
+            int aEnd = Math.min(a.size(), endEdit.getEndA() + CONTEXT_LINES);
+            int bEnd = Math.min(b.size(), endEdit.getEndB() + CONTEXT_LINES);
+
+            patch.append("@@");
+            formatRange(patch, '-', aCur + 1, aEnd - aCur);
+            formatRange(patch, '+', bCur + 1, bEnd - bCur);
+            patch.append(" @@");
+            if (!addedComment) {
+                addedComment = true;
+                formatRecipeNames(patch);
+            }
+            patch.append('\n');
+
+            while (aCur < aEnd || bCur < bEnd) {
+                if (aCur < curEdit.getBeginA() || endIdx + 1 < curIdx) {
+                    formatLine(patch, ' ', a, aCur);
+                    aCur++;
+                    bCur++;
+                } else if (aCur < curEdit.getEndA()) {
+                    formatLine(patch, '-', a, aCur);
+                    aCur++;
+                } else if (bCur < curEdit.getEndB()) {
+                    formatLine(patch, '+', b, bCur);
+                    bCur++;
+                }
+
+                if (curEdit.getEndA() <= aCur && curEdit.getEndB() <= bCur && ++curIdx < edits.size()) {
+                    curEdit = edits.get(curIdx);
+                }
+            }
+        }
+    }
+
+    private static void formatRange(StringBuilder patch, char prefix, int begin, int count) {
+        patch.append(' ').append(prefix);
+        if (count == 0) {
+            // an empty range starts at the line before it
+            patch.append(begin - 1).append(",0");
+        } else if (count == 1) {
+            patch.append(begin);
+        } else {
+            patch.append(begin).append(',').append(count);
+        }
+    }
+
+    private static void formatLine(StringBuilder patch, char prefix, HistogramDiff.Text text, int line) {
+        patch.append(prefix).append(text.getLine(line)).append('\n');
+        if (line == text.size() - 1 && text.isMissingNewlineAtEnd()) {
+            patch.append("\\ No newline at end of file\n");
+        }
+    }
+
+    private void formatRecipeNames(StringBuilder patch) {
+        Set<String> sortedRecipeNames = new LinkedHashSet<>();
+        for (Recipe recipesThatMadeChange : recipesThatMadeChanges) {
+            sortedRecipeNames.add(recipesThatMadeChange.getName());
+        }
+        StringJoiner joinedRecipeNames = new StringJoiner(", ", " ", "");
+        for (String name : sortedRecipeNames) {
+            joinedRecipeNames.add(name);
+        }
+        patch.append(joinedRecipeNames);
+    }
+
+    private static String mode(FileMode mode) {
+        return Integer.toOctalString(mode.getBits());
+    }
+
+    /**
+     * Quote a path the way git does when it contains control characters, quotes, backslashes or non-ASCII characters.
+     */
+    private static String quotePath(String path) {
+        byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+        boolean quote = false;
+        for (byte c : bytes) {
+            if (c < ' ' || c == '"' || c == '\\' || c == 0x7f) {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            return path;
+        }
+
+        StringBuilder quoted = new StringBuilder(bytes.length + 2).append('"');
+        for (byte c : bytes) {
+            switch (c) {
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                default:
+                    if (c < ' ' || c == 0x7f) {
+                        quoted.append('\\')
+                                .append((char) ('0' + ((c >> 6) & 3)))
+                                .append((char) ('0' + ((c >> 3) & 7)))
+                                .append((char) ('0' + (c & 7)));
+                    } else {
+                        quoted.append((char) c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * The object id git would give the source as a blob.
+     */
+    private static AbbreviatedObjectId blobId(String source) {
+        byte[] content = source.getBytes(StandardCharsets.UTF_8);
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            sha1.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return AbbreviatedObjectId.fromObjectId(ObjectId.fromRaw(sha1.digest(content)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
+    /**
+     * Nothing to release anymore, since diffs are no longer computed through a JGit repository.
+     */
     @Override
     public void close() {
-        this.repo.close();
     }
 }
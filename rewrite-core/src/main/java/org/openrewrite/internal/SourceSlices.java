@@ -0,0 +1,269 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The original text that the larger subtrees of a parsed source file printed to.
+ * <p>
+ * Slices are recorded while checking that a freshly parsed source file prints back to its input, so every
+ * recorded range is known to be exact. Since LSTs are immutable, a subtree of a later version of the source
+ * file that is reference-identical to a recorded one prints to the same text as long as the printer sees it
+ * in the same context, so printers copy that text instead of printing the subtree again. Printers only look
+ * at the kind of the trees enclosing the one they print (for example whether a case belongs to a switch
+ * statement or a switch expression), so a slice is only reused under ancestors of the same types as those it
+ * was recorded under, and with the same marker printer. Only the regions a recipe actually changed are
+ * printed from the LST.
+ * <p>
+ * Slices are keyed weakly by the identity of the subtree they were recorded for, so they never keep a tree
+ * reachable, and the original text is released once no version of the source file shares a recorded subtree.
+ * Recording is opt-in with {@link org.openrewrite.ExecutionContext#REUSE_ORIGINAL_TEXT}.
+ */
+public class SourceSlices {
+    /**
+     * Smaller subtrees are cheaper to print than to look up.
+     */
+    private static final int MIN_SLICE_LENGTH = 64;
+
+    private static final ReferenceQueue<Tree> COLLECTED = new ReferenceQueue<>();
+    private static final Map<TreeReference, Slice> SLICES = new ConcurrentHashMap<>();
+    private static final SourceSlices READER = new SourceSlices(null);
+
+    /**
+     * The subtrees printed so far and where their output starts and ends, when recording.
+     */
+    @Nullable
+    private final Map<Tree, Range> recorded;
+
+    private int[] starts = new int[32];
+    private int depth;
+
+    private SourceSlices(@Nullable Map<Tree, Range> recorded) {
+        this.recorded = recorded;
+    }
+
+    /**
+     * Print a source file, recording the text that each of its subtrees prints to. The slices are only kept
+     * once the caller has confirmed with {@link Recording#keep()} that the printed text equals the original input.
+     */
+    public static Recording record(SourceFile sourceFile) {
+        SourceSlices recorder = new SourceSlices(new IdentityHashMap<>());
+        PrintOutputCapture<Integer> out = new PrintOutputCapture<>(0);
+        out.setSourceSlices(recorder);
+        String printed = sourceFile.printAll(out);
+        //noinspection DataFlowIssue
+        return new Recording(sourceFile, printed, out.getMarkerPrinter(), recorder.recorded);
+    }
+
+    /**
+     * @return The original text of the source file, if this exact version of it was recorded.
+     */
+    @Nullable
+    public static String originalText(SourceFile sourceFile) {
+        Slice slice = SLICES.isEmpty() ? null : SLICES.get(new TreeReference(sourceFile, null));
+        return slice == null ? null : slice.text();
+    }
+
+    /**
+     * Attach the recorded slices to an output capture, provided that any were recorded and that the capture prints
+     * markers the default way, since the recorded text doesn't reflect any other marker printer.
+     */
+    public static void attach(PrintOutputCapture<?> out) {
+        expungeCollected();
+        if (!SLICES.isEmpty() && out.getMarkerPrinter() == PrintOutputCapture.MarkerPrinter.DEFAULT &&
+            out.getSourceSlices() == null) {
+            out.setSourceSlices(READER);
+        }
+    }
+
+    /**
+     * Called by printers before printing the tree at the cursor.
+     *
+     * @return {@code true} if the original text of the tree was appended to the output, in which
+     * case the printer must not print the tree itself. That is only the case when the tree was
+     * recorded under ancestors of the same types and with the same marker printer as it is printed now.
+     */
+    public boolean beforePrint(Cursor cursor, PrintOutputCapture<?> out) {
+        if (recorded != null) {
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+            }
+            starts[depth++] = out.out.length();
+            return false;
+        }
+        Slice slice = SLICES.get(new TreeReference(cursor.getValue(), null));
+        if (slice == null || slice.markerPrinter != out.getMarkerPrinter() ||
+            !sameAncestorTypes(cursor, slice.ancestorTypes)) {
+            return false;
+        }
+        out.append(slice.text());
+        return true;
+    }
+
+    /**
+     * Called by printers after printing the tree at the cursor.
+     */
+    public void afterPrint(Cursor cursor, PrintOutputCapture<?> out) {
+        if (recorded != null && depth > 0) {
+            int start = starts[--depth];
+            if (out.out.length() - start >= MIN_SLICE_LENGTH) {
+                recorded.put(cursor.getValue(), new Range(start, out.out.length(), ancestorTypes(cursor)));
+            }
+        }
+    }
+
+    private static Class<?>[] ancestorTypes(Cursor cursor) {
+        int n = 0;
+        for (Cursor c = cursor.getParent(); c != null; c = c.getParent()) {
+            n++;
+        }
+        Class<?>[] types = new Class<?>[n];
+        int i = 0;
+        for (Cursor c = cursor.getParent(); c != null; c = c.getParent()) {
+            types[i++] = c.getValue().getClass();
+        }
+        return types;
+    }
+
+    private static boolean sameAncestorTypes(Cursor cursor, Class<?>[] types) {
+        int i = 0;
+        for (Cursor c = cursor.getParent(); c != null; c = c.getParent()) {
+            if (i == types.length || c.getValue().getClass() != types[i++]) {
+                return false;
+            }
+        }
+        return i == types.length;
+    }
+
+    private static void expungeCollected() {
+        for (Reference<? extends Tree> ref; (ref = COLLECTED.poll()) != null; ) {
+            //noinspection SuspiciousMethodCalls
+            SLICES.remove(ref);
+        }
+    }
+
+    public static class Recording {
+        private final SourceFile sourceFile;
+        private final String printed;
+        private final PrintOutputCapture.MarkerPrinter markerPrinter;
+        private final Map<Tree, Range> ranges;
+
+        private Recording(SourceFile sourceFile, String printed, PrintOutputCapture.MarkerPrinter markerPrinter,
+                          Map<Tree, Range> ranges) {
+            this.sourceFile = sourceFile;
+            this.printed = printed;
+            this.markerPrinter = markerPrinter;
+            this.ranges = ranges;
+        }
+
+        public String getPrinted() {
+            return printed;
+        }
+
+        public void keep() {
+            expungeCollected();
+            for (Map.Entry<Tree, Range> entry : ranges.entrySet()) {
+                Range range = entry.getValue();
+                SLICES.put(new TreeReference(entry.getKey(), COLLECTED),
+                        new Slice(printed, range.start, range.end, range.ancestorTypes, markerPrinter));
+            }
+            Range whole = ranges.get(sourceFile);
+            SLICES.put(new TreeReference(sourceFile, COLLECTED), new Slice(printed, 0, printed.length(),
+                    whole == null ? new Class<?>[0] : whole.ancestorTypes, markerPrinter));
+        }
+    }
+
+    private static class Range {
+        private final int start;
+        private final int end;
+        private final Class<?>[] ancestorTypes;
+
+        private Range(int start, int end, Class<?>[] ancestorTypes) {
+            this.start = start;
+            this.end = end;
+            this.ancestorTypes = ancestorTypes;
+        }
+    }
+
+    private static class Slice {
+        private final String source;
+        private final int start;
+        private final int end;
+
+        /**
+         * The types of the values on the cursor path above the recorded tree, nearest first.
+         */
+        private final Class<?>[] ancestorTypes;
+
+        private final PrintOutputCapture.MarkerPrinter markerPrinter;
+
+        private Slice(String source, int start, int end, Class<?>[] ancestorTypes,
+                      PrintOutputCapture.MarkerPrinter markerPrinter) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.ancestorTypes = ancestorTypes;
+            this.markerPrinter = markerPrinter;
+        }
+
+        private String text() {
+            return start == 0 && end == source.length() ? source : source.substring(start, end);
+        }
+    }
+
+    /**
+     * Compares the trees it refers to by identity, so that different versions of a tree with the same id
+     * are never confused, and so that a key doesn't keep its tree reachable.
+     */
+    private static class TreeReference extends WeakReference<Tree> {
+        private final int hash;
+
+        private TreeReference(Tree tree, @Nullable ReferenceQueue<Tree> queue) {
+            super(tree, queue);
+            this.hash = System.identityHashCode(tree);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TreeReference)) {
+                return false;
+            }
+            Tree tree = get();
+            return tree != null && tree == ((TreeReference) o).get();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.beans.Transient;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The bean properties of an LST type, used to tell {@link org.openrewrite.TreeObserver}s which
+ * properties of a tree a visitor changed.
+ * <p>
+ * The getters of each tree type are found once, the first time a tree of that type is compared, and called
+ * through method handles from then on. Comparison is shallow: since LSTs are immutable, a property holding
+ * the same tree, or a list of the same trees, before and after a visit is unchanged, so nothing beneath a
+ * property is ever traversed. Other values are compared with {@link Object#equals(Object)}.
+ */
+public class TreeProperties {
+    private static final ClassValue<List<Property>> PROPERTIES = new ClassValue<List<Property>>() {
+        @Override
+        protected List<Property> computeValue(Class<?> type) {
+            return introspect(type);
+        }
+    };
+
+    private TreeProperties() {
+    }
+
+    public static List<Property> of(Class<? extends Tree> treeType) {
+        return PROPERTIES.get(treeType);
+    }
+
+    public static final class Property {
+        private final String name;
+        private final MethodHandle getter;
+
+        private Property(String name, MethodHandle getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        public Object get(Tree tree) {
+            try {
+                return getter.invoke(tree);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        public boolean isChanged(@Nullable Object before, @Nullable Object after) {
+            if (before == after) {
+                return false;
+            } else if (before == null || after == null || before instanceof Tree || after instanceof Tree) {
+                return true;
+            } else if (before instanceof List && after instanceof List) {
+                // getters of padded elements unwrap them into a new list on each call
+                List<?> b = (List<?>) before;
+                List<?> a = (List<?>) after;
+                if (b.size() != a.size()) {
+                    return true;
+                }
+                for (int i = 0; i < b.size(); i++) {
+                    if (isChanged(b.get(i), a.get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return !before.equals(after);
+        }
+    }
+
+    private static List<Property> introspect(Class<?> type) {
+        Map<String, Property> properties = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) ||
+                method.getParameterCount() != 0 ||
+                method.getReturnType() == void.class ||
+                method.getDeclaringClass() == Object.class ||
+                method.isBridge() ||
+                method.isAnnotationPresent(Transient.class) ||
+                // padding and other views over the tree are new on each call
+                "getPadding".equals(method.getName())) {
+                continue;
+            }
+            String name = propertyName(method);
+            if (name == null || properties.containsKey(name)) {
+                continue;
+            }
+            try {
+                // public getters may be declared on types that aren't themselves public
+                method.setAccessible(true);
+                properties.put(name, new Property(name, MethodHandles.lookup().unreflect(method)));
+            } catch (RuntimeException | IllegalAccessException ignored) {
+                // not a property observers can be told about
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(properties.values()));
+    }
+
+    @Nullable
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        String property;
+        if (name.startsWith("get") && name.length() > 3) {
+            property = name.substring(3);
+        } else if (name.startsWith("is") && name.length() > 2 &&
+                   (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            property = name.substring(2);
+        } else {
+            return null;
+        }
+        return property.length() > 1 && Character.isUpperCase(property.charAt(1)) ?
+                property :
+                Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+}
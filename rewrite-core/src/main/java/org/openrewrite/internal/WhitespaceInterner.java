@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Interns the comment-free whitespace elements of the language-specific {@code Space} types, so that
+ * functionally identical whitespace, which repeats throughout every source file, is only stored once.
+ * <p>
+ * Parsers on many threads intern whitespace concurrently, so rather than a single synchronized map this uses:
+ * <ul>
+ *     <li>Lock-free tables for the most common whitespace: a run of spaces, or a newline followed by a run of
+ *     spaces or tabs. These are looked up directly from the source text, without allocating a string.</li>
+ *     <li>Weak maps striped by hash code for everything else, so that threads seldom contend for the same lock.</li>
+ * </ul>
+ *
+ * @param <S> The type of the interned whitespace element.
+ */
+public class WhitespaceInterner<S> {
+    private static final int MAX_COMMON_LENGTH = 64;
+    private static final int MAX_INTERNED_LENGTH = 100;
+
+    private static final int SPACES = 0;
+    private static final int NEWLINE_SPACES = 1;
+    private static final int NEWLINE_TABS = 2;
+    private static final int CRLF_SPACES = 3;
+    private static final int CRLF_TABS = 4;
+
+    private final Function<String, S> factory;
+
+    /**
+     * Indexed by {@code kind * MAX_COMMON_LENGTH + count}.
+     */
+    private final AtomicReferenceArray<S> common = new AtomicReferenceArray<>(5 * MAX_COMMON_LENGTH);
+
+    private final Map<String, S>[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param factory Creates the whitespace element for a whitespace string seen for the first time.
+     */
+    public WhitespaceInterner(Function<String, S> factory) {
+        this.factory = factory;
+
+        int stripeCount = 1;
+        while (stripeCount < Runtime.getRuntime().availableProcessors() * 4 && stripeCount < 64) {
+            stripeCount <<= 1;
+        }
+        //noinspection unchecked
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = Collections.synchronizedMap(new WeakHashMap<>());
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Seed the interner with an existing element, e.g. a constant that all other references should share.
+     */
+    public void put(String whitespace, S element) {
+        int index = commonIndex(whitespace, 0, whitespace.length());
+        if (index >= 0) {
+            common.set(index, element);
+        } else {
+            stripe(whitespace).put(whitespace, element);
+        }
+    }
+
+    /**
+     * @return The interned element, or {@code null} if the whitespace is too long to be worth interning.
+     */
+    @Nullable
+    public S intern(String whitespace) {
+        int index = commonIndex(whitespace, 0, whitespace.length());
+        if (index >= 0) {
+            return common(index, whitespace, 0, whitespace.length());
+        }
+        if (whitespace.length() > MAX_INTERNED_LENGTH) {
+            return null;
+        }
+        //noinspection StringOperationCanBeSimplified
+        return stripe(whitespace).computeIfAbsent(whitespace, k -> factory.apply(new String(whitespace)));
+    }
+
+    /**
+     * Look up common whitespace directly from a region of source text.
+     *
+     * @return The interned element, or {@code null} if the region isn't one of the common whitespace forms,
+     * in which case the caller should fall back to {@link #intern(String)} or its own handling of the region.
+     */
+    @Nullable
+    public S internCommon(CharSequence source, int beginIndex, int endIndex) {
+        int index = commonIndex(source, beginIndex, endIndex);
+        return index < 0 ? null : common(index, source, beginIndex, endIndex);
+    }
+
+    private S common(int index, CharSequence source, int beginIndex, int endIndex) {
+        S element = common.get(index);
+        if (element == null) {
+            element = factory.apply(source.subSequence(beginIndex, endIndex).toString());
+            if (!common.compareAndSet(index, null, element)) {
+                element = common.get(index);
+            }
+        }
+        return element;
+    }
+
+    private Map<String, S> stripe(String whitespace) {
+        int h = whitespace.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+
+    private static int commonIndex(CharSequence source, int beginIndex, int endIndex) {
+        int length = endIndex - beginIndex;
+        if (length <= 0) {
+            return -1;
+        }
+
+        int kind;
+        int i = beginIndex;
+        char indent;
+        if (source.charAt(i) == ' ') {
+            kind = SPACES;
+            indent = ' ';
+        } else if (source.charAt(i) == '\n' || source.charAt(i) == '\r') {
+            boolean crlf = source.charAt(i) == '\r';
+            if (crlf) {
+                if (length < 2 || source.charAt(i + 1) != '\n') {
+                    return -1;
+                }
+                i++;
+            }
+            i++;
+            indent = i < endIndex ? source.charAt(i) : ' ';
+            if (indent == ' ') {
+                kind = crlf ? CRLF_SPACES : NEWLINE_SPACES;
+            } else if (indent == '\t') {
+                kind = crlf ? CRLF_TABS : NEWLINE_TABS;
+            } else {
+                return -1;
+            }
+        } else {
+            return -1;
+        }
+
+        int count = endIndex - i;
+        if (count >= MAX_COMMON_LENGTH) {
+            return -1;
+        }
+        for (; i < endIndex; i++) {
+            if (source.charAt(i) != indent) {
+                return -1;
+            }
+        }
+        return kind * MAX_COMMON_LENGTH + count;
+    }
+}
@@ -25,10 +25,19 @@
 import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 public class LocalRemoteArtifactCache implements RemoteArtifactCache {
+    /**
+     * Downloads in progress by cached artifact path, shared by every cache instance using the same directory.
+     */
+    private static final Map<Path, CompletableFuture<@Nullable Path>> IN_FLIGHT = new ConcurrentHashMap<>();
+
     private final Path cacheDir;
 
     public LocalRemoteArtifactCache(Path cacheDir) {
@@ -69,6 +78,32 @@ public Path put(URI uri, InputStream artifactInputStream, Consumer<Throwable> on
         }
     }
 
+    /**
+     * Concurrent callers computing the same artifact share one download.
+     */
+    @Override
+    @Nullable
+    public Path compute(URI uri, Callable<@Nullable InputStream> artifactStream, Consumer<Throwable> onError) {
+        Path artifact = get(uri);
+        if (artifact != null) {
+            return artifact;
+        }
+
+        Path cachedArtifact = cacheDir.resolve(hashUri(uri)).toAbsolutePath();
+        CompletableFuture<@Nullable Path> download = new CompletableFuture<>();
+        CompletableFuture<@Nullable Path> inFlight = IN_FLIGHT.putIfAbsent(cachedArtifact, download);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            artifact = RemoteArtifactCache.super.compute(uri, artifactStream, onError);
+            return artifact;
+        } finally {
+            IN_FLIGHT.remove(cachedArtifact, download);
+            download.complete(artifact);
+        }
+    }
+
     public static String hashUri(URI uri) {
         // hash the string using SHA-256
         try {
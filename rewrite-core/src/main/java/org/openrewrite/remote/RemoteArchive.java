@@ -31,14 +31,17 @@
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 /**
  * Represents a source to be extracted from within an archive hosted at a remote URI.
@@ -85,6 +88,11 @@ public class RemoteArchive implements Remote {
     @Nullable
     Checksum checksum;
 
+    /**
+     * The archive is downloaded into the artifact cache once. Entries are located through the central directory
+     * of each archive, and every entry on the way to the requested one, including nested archives, is extracted
+     * into the artifact cache, so that later requests for the same entry don't inflate anything.
+     */
     @Override
     public InputStream getInputStream(ExecutionContext ctx) {
         HttpSender httpSender = HttpSenderExecutionContextView.view(ctx).getLargeFileHttpSender();
@@ -100,44 +108,35 @@ public InputStream getInputStream(ExecutionContext ctx) {
                 throw new IllegalStateException("Failed to download " + uri + " to artifact cache");
             }
 
-            InputStream body = Files.newInputStream(localArchive);
-            InputStream inner = readIntoArchive(body, paths, 0);
-            if (inner == null) {
+            Path entry = extract(cache, localArchive, 0, ctx.getOnError());
+            if (entry == null) {
                 throw new IllegalArgumentException("Unable to find path " + paths + " in zip file " + uri);
             }
-            return inner;
+            return Files.newInputStream(entry);
         } catch (IOException e) {
             throw new UncheckedIOException("Unable to download " + uri + " to file", e);
         }
     }
 
-    private @Nullable InputStream readIntoArchive(InputStream body, List<String> paths, int index) {
-        ZipInputStream zis = new ZipInputStream(body);
+    private @Nullable Path extract(RemoteArtifactCache cache, Path archive, int index, Consumer<Throwable> onError) {
         Pattern pattern = Pattern.compile(paths.get(index));
-
-        try {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (pattern.matcher(entry.getName()).matches()) {
-                    if (paths.size() == index + 1) {
-                        return new InputStream() {
-                            @Override
-                            public int read() throws IOException {
-                                return zis.read();
-                            }
-
-                            @Override
-                            public void close() throws IOException {
-                                zis.closeEntry();
-                                zis.close();
-                            }
-                        };
-                    } else {
-                        InputStream maybeInputStream = readIntoArchive(zis, paths, index + 1);
-                        if (maybeInputStream != null) {
-                            return maybeInputStream;
-                        }
-                    }
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!pattern.matcher(entry.getName()).matches()) {
+                    continue;
+                }
+                Path extracted = cache.compute(entryUri(archive, entry), () -> zip.getInputStream(entry), onError);
+                if (extracted == null) {
+                    throw new IllegalStateException("Failed to extract " + entry.getName() + " from " + uri + " to artifact cache");
+                }
+                if (paths.size() == index + 1) {
+                    return extracted;
+                }
+                Path nested = extract(cache, extracted, index + 1, onError);
+                if (nested != null) {
+                    return nested;
                 }
             }
         } catch (IOException e) {
@@ -145,4 +144,16 @@ public void close() throws IOException {
         }
         return null;
     }
+
+    /**
+     * Identifies an entry by the archive's location and version in the cache plus the entry's path.
+     */
+    private static URI entryUri(Path archive, ZipEntry entry) throws IOException {
+        try {
+            return new URI("file", archive.toAbsolutePath().toUri().getSchemeSpecificPart(),
+                    Files.size(archive) + "-" + Files.getLastModifiedTime(archive).toMillis() + "!/" + entry.getName());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
 }
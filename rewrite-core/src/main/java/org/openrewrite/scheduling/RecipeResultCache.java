@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openrewrite.Incubating;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.OptionDescriptor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.marker.Marker;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent record of which recipes left which source files unchanged, so that a later run of the same recipes
+ * over the same sources can skip visiting a source file with a recipe that is known not to change it.
+ * <p>
+ * A source file is identified by a hash of its path, printed content, the content of its markers other than their
+ * ids and any other state its {@link SourceStateService} reports, like the signatures of the types a Java source file
+ * uses. A recipe is identified by a hash of its name, options and implementation version. Anything else that affects
+ * what a recipe does must be part of the environment fingerprint the cache is created with. Source files with a
+ * marker that can't be serialized to JSON are always visited.
+ * <p>
+ * Only the results of recipes that are completely described by their options and the implementation version of their
+ * classes are recorded. Recipes loaded from a build that doesn't record an implementation version, like a directory of
+ * classes in an IDE, and recipes holding any state other than their options, like recipes built from lambdas or
+ * declarative recipes, are always run.
+ * <p>
+ * Only recipes that neither changed the source file nor produced data table rows or other execution context
+ * messages are recorded, and the edits of {@link org.openrewrite.ScanningRecipe}s are never recorded, because they
+ * depend on what the recipe accumulated from every other source file. Recipes whose visitors depend on state other
+ * than the source file they visit must not be run with a cache.
+ * <p>
+ * Each recorded result is a 64-bit hash, so a cache of tens of millions of results takes a few hundred megabytes.
+ */
+@Incubating(since = "8.13.0")
+public class RecipeResultCache {
+    private static final ObjectMapper MARKER_MAPPER = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+
+    private final Path file;
+    private final byte[] environmentFingerprint;
+
+    /**
+     * Results loaded from {@link #file}, sorted.
+     */
+    private final long[] persisted;
+
+    private final Set<Long> recorded = ConcurrentHashMap.newKeySet();
+    private final Map<Recipe, Optional<Long>> recipeKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Markers are usually shared by many source files, like the classpath of a source set, so each is only
+     * serialized once. They are kept until the cache is discarded, as source files keep them anyway while recipes run.
+     */
+    private final Map<Marker, byte[]> markerFingerprints = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * @param file                   The file the cache is loaded from, if it exists, and written to by {@link #save()}.
+     * @param environmentFingerprint Anything other than the source files and recipes that recipe results depend on.
+     */
+    public RecipeResultCache(Path file, String environmentFingerprint) {
+        this.file = file;
+        this.environmentFingerprint = environmentFingerprint.getBytes(StandardCharsets.UTF_8);
+        this.persisted = load(file);
+    }
+
+    /**
+     * @return A key for the content of a source file, to be combined with a recipe by {@link #isUnchanged(long, Recipe)}
+     * and {@link #recordUnchanged(long, Recipe)}, or nothing if the results of recipes on this source file can't
+     * be recorded, because not everything they depend on is known.
+     */
+    public Optional<Long> sourceKey(SourceFile sourceFile) {
+        MessageDigest digest = sha256();
+        digest.update(environmentFingerprint);
+        digest.update((byte) 0);
+        digest.update(sourceFile.getSourcePath().toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(sourceFile.printAll().getBytes(StandardCharsets.UTF_8));
+        for (Marker marker : sourceFile.getMarkers().getMarkers()) {
+            byte[] fingerprint = markerFingerprints.computeIfAbsent(marker, RecipeResultCache::markerFingerprint);
+            if (fingerprint.length == 0) {
+                return Optional.empty();
+            }
+            digest.update(fingerprint);
+        }
+        SourceStateService state;
+        try {
+            state = sourceFile.service(SourceStateService.class);
+        } catch (UnsupportedOperationException e) {
+            state = null;
+        }
+        if (state != null) {
+            try {
+                state.digest(sourceFile, digest);
+            } catch (RuntimeException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(ByteBuffer.wrap(digest.digest()).getLong());
+    }
+
+    /**
+     * @return {@code true} if the results of the recipe can be recorded, because everything that determines what
+     * it does is known.
+     */
+    public boolean isCacheable(Recipe recipe) {
+        return recipeKey(recipe).isPresent();
+    }
+
+    public boolean isUnchanged(long sourceKey, Recipe recipe) {
+        Optional<Long> recipeKey = recipeKey(recipe);
+        if (!recipeKey.isPresent()) {
+            return false;
+        }
+        long key = key(sourceKey, recipeKey.get());
+        return Arrays.binarySearch(persisted, key) >= 0 || recorded.contains(key);
+    }
+
+    public void recordUnchanged(long sourceKey, Recipe recipe) {
+        recipeKey(recipe).ifPresent(recipeKey -> recorded.add(key(sourceKey, recipeKey)));
+    }
+
+    /**
+     * @return The version of the code of a recipe class, or {@code null} if it isn't known, in which case the
+     * results of recipes of that class are never recorded.
+     */
+    @Nullable
+    protected String getImplementationVersion(Class<?> recipeClass) {
+        Package pkg = recipeClass.getPackage();
+        return pkg == null ? null : pkg.getImplementationVersion();
+    }
+
+    /**
+     * Write every result loaded or recorded to the cache file. Results are only ever added, so the cache file
+     * should be deleted when it grows too large or the recipes run against a repository change substantially.
+     */
+    public synchronized void save() {
+        long[] all = Arrays.copyOf(persisted, persisted.length + recorded.size());
+        int i = persisted.length;
+        for (Long key : recorded) {
+            if (i == all.length) {
+                break;
+            }
+            all[i++] = key;
+        }
+        Arrays.sort(all, 0, i);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                long previous = 0;
+                boolean first = true;
+                for (int j = 0; j < i; j++) {
+                    if (first || all[j] != previous) {
+                        out.writeLong(all[j]);
+                    }
+                    previous = all[j];
+                    first = false;
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long key(long sourceKey, long recipeKey) {
+        // a strong 64-bit mix of the two keys, so that results for different pairs collide no more often than random
+        long h = sourceKey * 0x9E3779B97F4A7C15L + recipeKey;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * @return A hash of the content of a marker other than its id, or an empty array if it can't be serialized.
+     */
+    private static byte[] markerFingerprint(Marker marker) {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }, digest)) {
+            MARKER_MAPPER.writeValue(out, marker.withId(new UUID(0, 0)));
+        } catch (IOException | RuntimeException e) {
+            return new byte[0];
+        }
+        return digest.digest();
+    }
+
+    private Optional<Long> recipeKey(Recipe recipe) {
+        return recipeKeys.computeIfAbsent(recipe, this::computeRecipeKey);
+    }
+
+    private Optional<Long> computeRecipeKey(Recipe recipe) {
+        StringBuilder fingerprint = new StringBuilder(recipe.getName());
+        for (Class<?> c = recipe.getClass(); c != Recipe.class && c != null; c = c.getSuperclass()) {
+            String version = getImplementationVersion(c);
+            if (version == null) {
+                return Optional.empty();
+            }
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) &&
+                    (field.isSynthetic() || !field.isAnnotationPresent(Option.class))) {
+                    // e.g. a lambda, even a transient one, or the captured variables of an anonymous class
+                    return Optional.empty();
+                }
+            }
+            fingerprint.append('\0').append(c.getName()).append('\0').append(version);
+        }
+        for (OptionDescriptor option : recipe.getDescriptor().getOptions()) {
+            fingerprint.append('\0').append(option.getName()).append('=').append(option.getValue());
+        }
+        return Optional.of(ByteBuffer.wrap(sha256().digest(fingerprint.toString().getBytes(StandardCharsets.UTF_8))).getLong());
+    }
+
+    private static long[] load(Path file) {
+        if (!Files.exists(file)) {
+            return new long[0];
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long[] keys = new long[(int) (Files.size(file) / Long.BYTES)];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = in.readLong();
+            }
+            return keys;
+        } catch (IOException e) {
+            // an unreadable cache is an empty one
+            return new long[0];
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import org.openrewrite.DelegatingExecutionContext;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
+
+/**
+ * Tools that run the same recipes over the same repositories repeatedly can use this view to give
+ * {@link org.openrewrite.RecipeScheduler} a {@link RecipeResultCache}, so that source files which a recipe
+ * is known to leave unchanged are not visited by that recipe again. The cache is saved at the end of the run.
+ */
+@Incubating(since = "8.13.0")
+public class RecipeResultCacheExecutionContextView extends DelegatingExecutionContext {
+    public static final String RECIPE_RESULT_CACHE = "org.openrewrite.scheduling.recipeResultCache";
+
+    private RecipeResultCacheExecutionContextView(ExecutionContext delegate) {
+        super(delegate);
+    }
+
+    public static RecipeResultCacheExecutionContextView view(ExecutionContext ctx) {
+        if (ctx instanceof RecipeResultCacheExecutionContextView) {
+            return (RecipeResultCacheExecutionContextView) ctx;
+        }
+        return new RecipeResultCacheExecutionContextView(ctx);
+    }
+
+    public RecipeResultCacheExecutionContextView setRecipeResultCache(RecipeResultCache cache) {
+        if (getMessage(CURRENT_CYCLE) != null) {
+            throw new IllegalStateException("The recipe result cache cannot be set once " +
+                                            "recipe execution has begun.");
+        }
+        putMessage(RECIPE_RESULT_CACHE, cache);
+        return this;
+    }
+
+    @Nullable
+    public RecipeResultCache getRecipeResultCache() {
+        return getMessage(RECIPE_RESULT_CACHE);
+    }
+}
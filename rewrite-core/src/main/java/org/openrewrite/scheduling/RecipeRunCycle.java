@@ -35,7 +35,10 @@
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
 import static org.openrewrite.Recipe.PANIC;
@@ -66,6 +69,11 @@
     long cycleStartTime = System.nanoTime();
     AtomicBoolean thrownErrorOnTimeout = new AtomicBoolean();
 
+    /**
+     * Visitors of recipes that declare them reusable, constructed once per thread in this cycle.
+     */
+    ThreadLocal<Map<Recipe, TreeVisitor<?, ExecutionContext>>> reusableVisitors = ThreadLocal.withInitial(IdentityHashMap::new);
+
     @Getter
     Set<Recipe> madeChangesInThisCycle = Collections.newSetFromMap(new IdentityHashMap<>());
 
@@ -74,34 +82,114 @@ public int getRecipePosition() {
     }
 
     public LSS scanSources(LSS sourceSet) {
-        return sourceSetEditor.apply(sourceSet, sourceFile ->
-                allRecipeStack.reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
-                    Recipe recipe = recipeStack.peek();
-                    if (source == null) {
-                        return null;
+        // source files are only collected when there are recipes to scan them again in parallel
+        List<SourceFile> scanned = hasMergeableScanningRecipe(recipe) ? new ArrayList<>() : null;
+        LSS after = sourceSetEditor.apply(sourceSet, sourceFile -> {
+            SourceFile scannedSourceFile = allRecipeStack.reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
+                Recipe recipe = recipeStack.peek();
+                if (source == null) {
+                    return null;
+                }
+
+                SourceFile after = source;
+
+                if (recipe instanceof ScanningRecipe && !((ScanningRecipe<?>) recipe).isAccumulatorMergeable()) {
+                    try {
+                        //noinspection unchecked
+                        ScanningRecipe<Object> scanningRecipe = (ScanningRecipe<Object>) recipe;
+                        Object acc = scanningRecipe.getAccumulator(rootCursor, ctx);
+                        recipeRunStats.recordScan(recipe, () -> {
+                            TreeVisitor<?, ExecutionContext> scanner = scanningRecipe.getScanner(acc);
+                            if (scanner.isAcceptable(source, ctx)) {
+                                scanner.visit(source, ctx, rootCursor);
+                            }
+                            return source;
+                        });
+                    } catch (Throwable t) {
+                        after = handleError(recipe, source, after, t);
                     }
+                }
+                return after;
+            }, sourceFile);
+            if (scanned != null && scannedSourceFile != null) {
+                scanned.add(scannedSourceFile);
+            }
+            return scannedSourceFile;
+        });
+        return scanned == null || scanned.isEmpty() ? after : scanInParallel(after, scanned);
+    }
 
-                    SourceFile after = source;
+    /**
+     * Scan the source files with each recipe that can merge its accumulators, one recipe at a time, sharding the
+     * source files of each between threads that scan into accumulators of their own.
+     */
+    private LSS scanInParallel(LSS sourceSet, List<SourceFile> sourceFiles) {
+        Map<SourceFile, List<Map.Entry<Recipe, Throwable>>> errors = Collections.synchronizedMap(new IdentityHashMap<>());
+        allRecipeStack.reduce(sourceSet, recipe, ctx, (acc, recipeStack) -> {
+            Recipe recipe = recipeStack.peek();
+            if (recipe instanceof ScanningRecipe && ((ScanningRecipe<?>) recipe).isAccumulatorMergeable()) {
+                //noinspection unchecked
+                ScanningRecipe<Object> scanningRecipe = (ScanningRecipe<Object>) recipe;
+                int shards = Math.min(Runtime.getRuntime().availableProcessors(), sourceFiles.size());
+                List<Object> shardAccumulators = IntStream.range(0, shards)
+                        .parallel()
+                        .mapToObj(shard -> scanShard(scanningRecipe, sourceFiles, shard, shards, errors))
+                        .collect(Collectors.toList());
+                Object recipeAcc = scanningRecipe.getAccumulator(rootCursor, ctx);
+                for (Object shardAcc : shardAccumulators) {
+                    scanningRecipe.mergeAccumulators(recipeAcc, shardAcc);
+                }
+            }
+            return acc;
+        }, null);
 
-                    if (recipe instanceof ScanningRecipe) {
-                        try {
-                            //noinspection unchecked
-                            ScanningRecipe<Object> scanningRecipe = (ScanningRecipe<Object>) recipe;
-                            Object acc = scanningRecipe.getAccumulator(rootCursor, ctx);
-                            recipeRunStats.recordScan(recipe, () -> {
-                                TreeVisitor<?, ExecutionContext> scanner = scanningRecipe.getScanner(acc);
-                                if (scanner.isAcceptable(source, ctx)) {
-                                    scanner.visit(source, ctx, rootCursor);
-                                }
-                                return source;
-                            });
-                        } catch (Throwable t) {
-                            after = handleError(recipe, source, after, t);
-                        }
+        if (errors.isEmpty()) {
+            return sourceSet;
+        }
+        return sourceSetEditor.apply(sourceSet, sourceFile -> {
+            SourceFile after = sourceFile;
+            for (Map.Entry<Recipe, Throwable> error : errors.getOrDefault(sourceFile, emptyList())) {
+                after = handleError(error.getKey(), sourceFile, after, error.getValue());
+            }
+            return after;
+        });
+    }
+
+    private Object scanShard(ScanningRecipe<Object> scanningRecipe, List<SourceFile> sourceFiles, int shard, int shards,
+                             Map<SourceFile, List<Map.Entry<Recipe, Throwable>>> errors) {
+        Object acc = scanningRecipe.getInitialValue(ctx);
+        // cursor messages are not safe to share between threads
+        Cursor shardRootCursor = new Cursor(null, Cursor.ROOT_VALUE);
+        for (int i = shard; i < sourceFiles.size(); i += shards) {
+            if (ctx.getMessage(PANIC) != null) {
+                break;
+            }
+            SourceFile source = sourceFiles.get(i);
+            try {
+                recipeRunStats.recordScan(scanningRecipe, () -> {
+                    TreeVisitor<?, ExecutionContext> scanner = scanningRecipe.getScanner(acc);
+                    if (scanner.isAcceptable(source, ctx)) {
+                        scanner.visit(source, ctx, shardRootCursor);
                     }
-                    return after;
-                }, sourceFile)
-        );
+                    return source;
+                });
+            } catch (Throwable t) {
+                errors.computeIfAbsent(source, s -> new ArrayList<>()).add(new AbstractMap.SimpleEntry<>(scanningRecipe, t));
+            }
+        }
+        return acc;
+    }
+
+    private static boolean hasMergeableScanningRecipe(Recipe recipe) {
+        if (recipe instanceof ScanningRecipe && ((ScanningRecipe<?>) recipe).isAccumulatorMergeable()) {
+            return true;
+        }
+        for (Recipe r : recipe.getRecipeList()) {
+            if (hasMergeableScanningRecipe(r)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public LSS generateSources(LSS sourceSet) {
@@ -130,13 +218,20 @@ public LSS editSources(LSS sourceSet) {
         // skip edits made to generated source files so that they don't show up in a diff
         // that later fails to apply on a freshly cloned repository
         // consider any recipes adding new messages as a changing recipe (which can request another cycle)
-        return sourceSetEditor.apply(sourceSet, sourceFile ->
-                allRecipeStack.reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
+        // skip recipes known from a previous run to leave this exact source file unchanged
+        RecipeResultCache resultCache = cycle == 1 ? RecipeResultCacheExecutionContextView.view(ctx).getRecipeResultCache() : null;
+        return sourceSetEditor.apply(sourceSet, sourceFile -> {
+            // the source key is only computed the first time a recipe sees the source file as it was parsed
+            List<Optional<Long>> sourceKey = new ArrayList<>(1);
+            return allRecipeStack.reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
                     Recipe recipe = recipeStack.peek();
                     if (source == null) {
                         return null;
                     }
 
+                    boolean cacheable = resultCache != null && source == sourceFile && !(recipe instanceof ScanningRecipe) &&
+                            resultCache.isCacheable(recipe);
+
                     SourceFile after = source;
 
                     try {
@@ -154,7 +249,18 @@ public LSS editSources(LSS sourceSet) {
                             return source;
                         }
 
-                        TreeVisitor<?, ExecutionContext> visitor = recipe.getVisitor();
+                        if (cacheable) {
+                            if (sourceKey.isEmpty()) {
+                                sourceKey.add(resultCache.sourceKey(source));
+                            }
+                            if (!sourceKey.get(0).isPresent()) {
+                                cacheable = false;
+                            } else if (resultCache.isUnchanged(sourceKey.get(0).get(), recipe)) {
+                                return source;
+                            }
+                        }
+
+                        TreeVisitor<?, ExecutionContext> visitor = getVisitor(recipe);
                         // set root cursor as it is required by the `ScanningRecipe#isAcceptable()`
                         visitor.setCursor(rootCursor);
 
@@ -179,6 +285,8 @@ public LSS editSources(LSS sourceSet) {
                             // consider any recipes adding new messages as a changing recipe (which can request another cycle)
                             madeChangesInThisCycle.add(recipe);
                             ctx.resetHasNewMessages();
+                        } else if (cacheable) {
+                            resultCache.recordUnchanged(sourceKey.get(0).get(), recipe);
                         }
                     } catch (Throwable t) {
                         after = handleError(recipe, source, after, t);
@@ -187,8 +295,17 @@ public LSS editSources(LSS sourceSet) {
                         after = addRecipesThatMadeChanges(recipeStack, after);
                     }
                     return after;
-                }, sourceFile)
-        );
+                }, sourceFile);
+        });
+    }
+
+    private TreeVisitor<?, ExecutionContext> getVisitor(Recipe recipe) {
+        if (!recipe.isVisitorReusable()) {
+            return recipe.getVisitor();
+        }
+        TreeVisitor<?, ExecutionContext> visitor = reusableVisitors.get().computeIfAbsent(recipe, Recipe::getVisitor);
+        visitor.reset();
+        return visitor;
     }
 
     private void recordSourceFileResult(@Nullable SourceFile before, @Nullable SourceFile after, Stack<Recipe> recipeStack, ExecutionContext ctx) {
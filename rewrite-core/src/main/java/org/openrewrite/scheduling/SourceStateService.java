@@ -0,0 +1,35 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.SourceFile;
+
+import java.security.MessageDigest;
+
+/**
+ * The state of a source file beyond its printed text and markers that recipes may depend on, like the types
+ * it is attributed with, so that {@link RecipeResultCache} can tell apart versions of a source file that print
+ * the same. Obtained with {@link SourceFile#service(Class)}.
+ */
+@Incubating(since = "8.13.0")
+public interface SourceStateService {
+
+    /**
+     * Add the state of a source file to a digest, in an order that doesn't depend on how the source file was built.
+     */
+    void digest(SourceFile sourceFile, MessageDigest digest);
+}
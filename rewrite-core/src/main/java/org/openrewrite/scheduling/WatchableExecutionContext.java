@@ -21,6 +21,7 @@
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 @RequiredArgsConstructor
 public class WatchableExecutionContext implements ExecutionContext {
@@ -51,6 +52,14 @@ public <T> T getMessage(String key) {
         return delegate.getMessage(key);
     }
 
+    @Override
+    public <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> mappingFunction) {
+        return delegate.computeMessageIfAbsent(key, k -> {
+            hasNewMessages = true;
+            return mappingFunction.apply(k);
+        });
+    }
+
     @Nullable
     @Override
     public <T> T pollMessage(String key) {
@@ -73,4 +73,20 @@ void pathAsStreamPredicates() {
         var cursor = new Cursor(new Cursor(new Cursor(null, 1), t), 2);
         assertThat(cursor.getPathAsStream(v -> v instanceof PlainText).toList()).containsExactly(t);
     }
+
+    @Test
+    void firstEnclosingAndScopeInPath() {
+        var t = PlainText.builder()
+          .sourcePath(Paths.get("test.txt"))
+          .text("test")
+          .build();
+        var other = t.withId(Tree.randomId());
+        var cursor = new Cursor(new Cursor(new Cursor(null, Cursor.ROOT_VALUE), t), 2);
+
+        assertThat(cursor.firstEnclosing(PlainText.class)).isSameAs(t);
+        assertThat(cursor.firstEnclosing(Integer.class)).isEqualTo(2);
+        assertThat(cursor.firstEnclosing(Cursor.class)).isNull();
+        assertThat(cursor.isScopeInPath(t)).isTrue();
+        assertThat(cursor.isScopeInPath(other)).isFalse();
+    }
 }
@@ -19,8 +19,13 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.openrewrite.config.DeclarativeRecipe;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.marker.BuildTool;
+import org.openrewrite.marker.Markers;
 import org.openrewrite.marker.Markup;
+import org.openrewrite.scheduling.RecipeResultCache;
+import org.openrewrite.scheduling.RecipeResultCacheExecutionContextView;
 import org.openrewrite.scheduling.WorkingDirectoryExecutionContextView;
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.text.PlainText;
@@ -30,14 +35,15 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.openrewrite.scheduling.WorkingDirectoryExecutionContextView.WORKING_DIRECTORY_ROOT;
@@ -135,6 +141,154 @@ void managedWorkingDirectoryWithMultipleRecipes(@TempDir Path path) {
         );
         assertThat(path).doesNotExist();
     }
+
+    @Test
+    void unchangedSourcesAreNotVisitedAgain(@TempDir Path path) {
+        FooToBar.visits.set(0);
+        runTwice(new FooToBar(), () -> new VersionedRecipeResultCache(path.resolve("results.bin")));
+
+        // both sources are visited by the first run, but only the changed one by the second
+        assertThat(FooToBar.visits.get()).isEqualTo(3);
+    }
+
+    @Test
+    void recipesWithoutKnownImplementationAreAlwaysRun(@TempDir Path path) {
+        AtomicInteger visits = new AtomicInteger();
+        Recipe adHoc = toRecipe(() -> new PlainTextVisitor<>() {
+            @Override
+            public PlainText visitText(PlainText text, ExecutionContext ctx) {
+                visits.incrementAndGet();
+                return text.getText().equals("foo") ? text.withText("bar") : text;
+            }
+        });
+        runTwice(adHoc, () -> new VersionedRecipeResultCache(path.resolve("ad-hoc.bin")));
+        assertThat(visits.get()).isEqualTo(4);
+
+        // classes compiled for this test don't record an implementation version
+        FooToBar.visits.set(0);
+        runTwice(new FooToBar(), () -> new RecipeResultCache(path.resolve("unversioned.bin"), "test"));
+        assertThat(FooToBar.visits.get()).isEqualTo(4);
+    }
+
+    @Test
+    void sourceKeyDependsOnMarkerContentButNotOnMarkerIds(@TempDir Path path) {
+        RecipeResultCache cache = new RecipeResultCache(path.resolve("markers.bin"), "test");
+        PlainText text = PlainText.builder().sourcePath(Path.of("foo.txt")).text("foo").build();
+        PlainText gradle = text.withMarkers(Markers.build(List.of(new BuildTool(Tree.randomId(), BuildTool.Type.Gradle, "8.5"))));
+
+        assertThat(cache.sourceKey(gradle)).isPresent()
+          .isEqualTo(cache.sourceKey(text.withMarkers(Markers.build(List.of(
+            new BuildTool(Tree.randomId(), BuildTool.Type.Gradle, "8.5"))))))
+          .isNotEqualTo(cache.sourceKey(text.withMarkers(Markers.build(List.of(
+            new BuildTool(Tree.randomId(), BuildTool.Type.Gradle, "8.6"))))))
+          .isNotEqualTo(cache.sourceKey(text));
+    }
+
+    private static void runTwice(Recipe recipe, Supplier<RecipeResultCache> cache) {
+        List<SourceFile> sources = List.of(
+          PlainText.builder().sourcePath(Path.of("foo.txt")).text("foo").build(),
+          PlainText.builder().sourcePath(Path.of("baz.txt")).text("baz").build()
+        );
+        for (int run = 0; run < 2; run++) {
+            ExecutionContext ctx = new InMemoryExecutionContext();
+            RecipeResultCacheExecutionContextView.view(ctx).setRecipeResultCache(cache.get());
+            List<Result> results = recipe.run(new InMemoryLargeSourceSet(sources), ctx).getChangeset().getAllResults();
+            assertThat(results).hasSize(1);
+        }
+    }
+
+    static class VersionedRecipeResultCache extends RecipeResultCache {
+        VersionedRecipeResultCache(Path file) {
+            super(file, "test");
+        }
+
+        @Override
+        protected String getImplementationVersion(Class<?> recipeClass) {
+            return "1.0.0";
+        }
+    }
+
+    @Test
+    void reusableVisitorIsConstructedOncePerCycle() {
+        AtomicInteger constructed = new AtomicInteger();
+        Recipe recipe = new Recipe() {
+            @Override
+            public String getDisplayName() {
+                return "Reusable visitor";
+            }
+
+            @Override
+            public String getDescription() {
+                return "Constructs its visitor once.";
+            }
+
+            @Override
+            public boolean isVisitorReusable() {
+                return true;
+            }
+
+            @Override
+            public TreeVisitor<?, ExecutionContext> getVisitor() {
+                constructed.incrementAndGet();
+                return new PlainTextVisitor<>() {
+                    @Override
+                    public PlainText visitText(PlainText text, ExecutionContext ctx) {
+                        return text.withText(text.getText().toUpperCase());
+                    }
+                };
+            }
+        };
+        List<SourceFile> sources = List.of(
+          PlainText.builder().sourcePath(Path.of("a.txt")).text("a").build(),
+          PlainText.builder().sourcePath(Path.of("b.txt")).text("b").build(),
+          PlainText.builder().sourcePath(Path.of("c.txt")).text("c").build()
+        );
+
+        List<Result> results = recipe.run(new InMemoryLargeSourceSet(sources), new InMemoryExecutionContext())
+          .getChangeset().getAllResults();
+
+        assertThat(results).hasSize(3);
+        assertThat(constructed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void mergeableAccumulatorsAreScannedInParallel() {
+        List<SourceFile> sources = IntStream.range(0, 100)
+          .mapToObj(i -> PlainText.builder().sourcePath(Path.of(i + ".txt")).text(Integer.toString(i)).build())
+          .collect(Collectors.toList());
+
+        List<Result> results = new CountingRecipe().run(new InMemoryLargeSourceSet(sources), new InMemoryExecutionContext())
+          .getChangeset().getAllResults();
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getAfter()).isNotNull();
+        assertThat(((PlainText) results.get(0).getAfter()).getText()).isEqualTo("100");
+    }
+}
+
+class FooToBar extends Recipe {
+    static final AtomicInteger visits = new AtomicInteger();
+
+    @Override
+    public String getDisplayName() {
+        return "Foo to bar";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replaces text that is `foo` with `bar`.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new PlainTextVisitor<>() {
+            @Override
+            public PlainText visitText(PlainText text, ExecutionContext ctx) {
+                visits.incrementAndGet();
+                return text.getText().equals("foo") ? text.withText("bar") : text;
+            }
+        };
+    }
 }
 
 @AllArgsConstructor
@@ -258,3 +412,46 @@ public Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
     public record Accumulator(Path workingDirectory) {
     }
 }
+
+class CountingRecipe extends ScanningRecipe<Set<Path>> {
+    @Override
+    public String getDisplayName() {
+        return "Count source files";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Generates a file containing the number of source files.";
+    }
+
+    @Override
+    public Set<Path> getInitialValue(ExecutionContext ctx) {
+        return new HashSet<>();
+    }
+
+    @Override
+    public boolean isAccumulatorMergeable() {
+        return true;
+    }
+
+    @Override
+    public void mergeAccumulators(Set<Path> acc, Set<Path> other) {
+        acc.addAll(other);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Set<Path> acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                acc.add(((SourceFile) requireNonNull(tree)).getSourcePath());
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Set<Path> acc, ExecutionContext ctx) {
+        return List.of(PlainText.builder().sourcePath(Path.of("count.txt")).text(Integer.toString(acc.size())).build());
+    }
+}
@@ -20,6 +20,7 @@
 import org.openrewrite.text.PlainText;
 import org.openrewrite.text.PlainTextVisitor;
 
+import java.util.ArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -58,4 +59,34 @@ public Tree propertyChanged(String property, Cursor cursor, Tree newTree, Object
 
         assertThat(observed.get()).isEqualTo(1);
     }
+
+    @Test
+    void onlyChangedPropertiesAreObserved() {
+        var properties = new ArrayList<String>();
+
+        rewriteRun(
+          spec -> spec
+            .recipe(toRecipe(() -> new PlainTextVisitor<>() {
+                @Override
+                public PlainText visitText(PlainText text, ExecutionContext executionContext) {
+                    return text.withText("hello jonathan");
+                }
+            }))
+            .executionContext(new InMemoryExecutionContext().addObserver(new TreeObserver.Subscription(new TreeObserver() {
+                @Override
+                public Tree propertyChanged(String property, Cursor cursor, Tree newTree, Object oldValue, Object newValue) {
+                    properties.add(property);
+                    assertThat(oldValue).isEqualTo("hello jon");
+                    assertThat(newValue).isEqualTo("hello jonathan");
+                    return newTree;
+                }
+            }).subscribeToType(PlainText.class))),
+          text(
+            "hello jon",
+            "hello jonathan"
+          )
+        );
+
+        assertThat(properties).containsExactly("text");
+    }
 }
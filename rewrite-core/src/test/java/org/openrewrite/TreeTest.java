@@ -20,6 +20,14 @@
 import org.openrewrite.marker.Markup;
 import org.openrewrite.test.RewriteTest;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.UnaryOperator;
 
 import static java.util.Objects.requireNonNull;
@@ -49,4 +57,29 @@ public String afterSyntax(Marker marker, Cursor cursor, UnaryOperator<String> co
           )
         );
     }
+
+    @Test
+    void randomIdsAreUniqueVersion4Uuids() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        UUID id = Tree.randomId();
+                        assertThat(id.version()).isEqualTo(4);
+                        assertThat(id.variant()).isEqualTo(2);
+                        ids.add(id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(ids).hasSize(400_000);
+    }
 }
@@ -15,13 +15,19 @@
  */
 package org.openrewrite.internal;
 
+import org.openrewrite.Changeset;
+import org.openrewrite.Result;
 import org.openrewrite.jgit.lib.FileMode;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.openrewrite.text.PlainText;
+import org.openrewrite.text.PlainTextParser;
 
+import java.io.StringWriter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import static java.util.Collections.emptySet;
@@ -217,6 +223,74 @@ public void test() {
             );
         }
     }
+
+    @Test
+    void noNewlineAtEndOfFile() {
+        try (var result = new InMemoryDiffEntry(
+          filePath, filePath, null,
+          "a\nb",
+          "a\nc",
+          emptySet())) {
+            assertThat(result.getDiff()).isEqualTo(
+              """
+                diff --git a/com/netflix/MyJavaClass.java b/com/netflix/MyJavaClass.java
+                index 0a207c0..817f660 100644
+                --- a/com/netflix/MyJavaClass.java
+                +++ b/com/netflix/MyJavaClass.java
+                @@ -1,2 +1,2 @@
+                 a
+                -b
+                \\ No newline at end of file
+                +c
+                \\ No newline at end of file
+                """
+            );
+        }
+    }
+
+    @Test
+    void renameWithoutContentChange() {
+        try (var result = new InMemoryDiffEntry(
+          Paths.get("A.java"), Paths.get("B.java"), null,
+          "class A {}",
+          "class A {}",
+          emptySet())) {
+            assertThat(result.getDiff()).isEqualTo(
+              """
+                diff --git a/A.java b/B.java
+                similarity index 0%
+                rename from A.java
+                rename to B.java
+                """
+            );
+        }
+    }
+
+    @Test
+    void combinedPatch() {
+        PlainText a = (PlainText) PlainTextParser.builder().build().parse("a\n").findFirst().orElseThrow();
+        PlainText b = (PlainText) PlainTextParser.builder().build().parse("b\n").findFirst().orElseThrow();
+        List<Result> results = List.of(
+          new Result(a.withSourcePath(Paths.get("a.txt")), a.withSourcePath(Paths.get("a.txt")).withText("a2\n")),
+          new Result(b.withSourcePath(Paths.get("b.txt")), b.withSourcePath(Paths.get("b.txt")).withText("b2\n"))
+        );
+        Changeset changeset = new Changeset() {
+            @Override
+            public int size() {
+                return results.size();
+            }
+
+            @Override
+            public List<Result> getPage(int start, int count) {
+                return results.subList(start, start + count);
+            }
+        };
+
+        StringWriter patch = new StringWriter();
+        changeset.writePatch(null, patch);
+        assertThat(patch.toString()).isEqualTo(results.get(0).diff() + results.get(1).diff());
+    }
+
     @Disabled("Does not work with CI due to jgit shadowJar")
     @Test
     void executableFile() {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WhitespaceInternerTest {
+
+    @Test
+    void internsCommonWhitespaceFromSourceRegion() {
+        AtomicInteger created = new AtomicInteger();
+        WhitespaceInterner<String> interner = new WhitespaceInterner<>(ws -> {
+            created.incrementAndGet();
+            return ws;
+        });
+
+        String source = "class A {\n    int a;\n    int b;\r\n\t\tint c;\n}";
+        String indent = interner.internCommon(source, 9, 14);
+        assertThat(indent).isEqualTo("\n    ");
+        assertThat(interner.internCommon(source, 20, 25)).isSameAs(indent);
+        assertThat(interner.intern("\n    ")).isSameAs(indent);
+        assertThat(interner.internCommon(source, 31, 35)).isEqualTo("\r\n\t\t");
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    void regionsThatAreNotCommonWhitespace() {
+        WhitespaceInterner<String> interner = new WhitespaceInterner<>(ws -> ws);
+        for (String ws : List.of("", "\t ", "\n \t", " \n", "\r ", "//")) {
+            assertThat(interner.internCommon(ws, 0, ws.length())).as(ws).isNull();
+        }
+    }
+
+    @Test
+    void seededElementsAreShared() {
+        WhitespaceInterner<String> interner = new WhitespaceInterner<>(String::new);
+        String singleSpace = " ";
+        interner.put(" ", singleSpace);
+        assertThat(interner.intern(new String(" "))).isSameAs(singleSpace);
+        assertThat(interner.internCommon("a b", 1, 2)).isSameAs(singleSpace);
+    }
+
+    @Test
+    void uncommonWhitespace() {
+        WhitespaceInterner<String> interner = new WhitespaceInterner<>(String::new);
+        String mixed = interner.intern("\n \t ");
+        assertThat(mixed).isEqualTo("\n \t ");
+        assertThat(interner.intern(new String("\n \t "))).isSameAs(mixed);
+        assertThat(interner.intern(" \n".repeat(51))).isNull();
+    }
+
+    @Test
+    void concurrentInterningYieldsOneInstance() {
+        WhitespaceInterner<String> interner = new WhitespaceInterner<>(String::new);
+        Set<String> instances = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            String ws = "\n" + " ".repeat(i % 8);
+            String interned = interner.intern(ws);
+            if (i % 8 == 3) {
+                instances.add(System.identityHashCode(interned) + "");
+            }
+        });
+        assertThat(instances).hasSize(1);
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.openrewrite.remote;
 
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.openrewrite.ExecutionContext;
@@ -25,8 +27,12 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -88,6 +94,39 @@ void gradleWrapperConcurrent(String version) throws Exception {
         executorService.shutdown();
     }
 
+    @Test
+    void extractedEntryIsCached(@TempDir Path cacheDir) throws Exception {
+        URL distributionUrl = requireNonNull(RemoteArchiveTest.class.getClassLoader().getResource("gradle-7.6-bin.zip"));
+        AtomicInteger downloads = new AtomicInteger();
+        RemoteArchive remoteArchive = Remote
+          .builder(
+            Paths.get("gradle/wrapper/gradle-wrapper.jar"),
+            distributionUrl.toURI()
+          )
+          .build("gradle-[^\\/]+\\/(?:.*\\/)+gradle-wrapper-(?!shared).*\\.jar");
+
+        long[] sizes = new long[2];
+        for (int i = 0; i < sizes.length; i++) {
+            ExecutionContext ctx = new InMemoryExecutionContext();
+            HttpSenderExecutionContextView.view(ctx)
+              .setLargeFileHttpSender(new MockHttpSender(() -> {
+                  downloads.incrementAndGet();
+                  return distributionUrl.openStream();
+              }));
+            RemoteExecutionContextView.view(ctx).setArtifactCache(new LocalRemoteArtifactCache(cacheDir));
+            try (InputStream is = remoteArchive.getInputStream(ctx)) {
+                sizes[i] = getInputStreamSize(is);
+            }
+        }
+
+        assertThat(downloads.get()).isEqualTo(1);
+        assertThat(sizes[0]).isGreaterThan(50_000).isEqualTo(sizes[1]);
+        // the archive and the extracted wrapper jar
+        try (Stream<Path> cached = Files.list(cacheDir)) {
+            assertThat(cached).hasSize(2);
+        }
+    }
+
     private Long getInputStreamSize(InputStream is) {
         BlackHoleOutputStream out = new BlackHoleOutputStream();
         try {
@@ -16,6 +16,8 @@
 package org.openrewrite.hcl;
 
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.tree.ParseError;
 import org.openrewrite.Parser;
@@ -56,17 +58,14 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
                 lexer.removeErrorListeners();
                 lexer.addErrorListener(new ForwardingErrorListener(input.getPath(), ctx));
 
-                HCLParser parser = new HCLParser(new CommonTokenStream(lexer));
-                parser.removeErrorListeners();
-                parser.addErrorListener(new ForwardingErrorListener(input.getPath(), ctx));
-
                 Hcl.ConfigFile configFile = (Hcl.ConfigFile) new HclParserVisitor(
                         input.getRelativePath(relativeTo),
                         sourceStr,
                         is.getCharset(),
                         is.isCharsetBomMarked(),
                         input.getFileAttributes()
-                ).visitConfigFile(parser.configFile());
+                ).visitConfigFile(parseConfigFile(new CommonTokenStream(lexer),
+                        new ForwardingErrorListener(input.getPath(), ctx)));
 
                 configFile = configFile.withMarkers(Markers.build(styles));
 
@@ -79,6 +78,26 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
         });
     }
 
+    /**
+     * Parse with SLL prediction, falling back to full LL prediction only when SLL fails.
+     */
+    private static HCLParser.ConfigFileContext parseConfigFile(CommonTokenStream tokens, ANTLRErrorListener errorListener) {
+        HCLParser parser = new HCLParser(tokens);
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return parser.configFile();
+        } catch (ParseCancellationException e) {
+            tokens.seek(0);
+            parser.reset();
+            parser.addErrorListener(errorListener);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            return parser.configFile();
+        }
+    }
+
     @Override
     public boolean accept(Path path) {
         return path.toString().endsWith(".tf") || path.toString().endsWith(".tfvars");
@@ -35,18 +35,23 @@
 public class HclTemplateParser {
     private static final PropertyPlaceholderHelper placeholderHelper = new PropertyPlaceholderHelper("#{", "}", null);
 
-    private final Object templateCacheLock = new Object();
     private final HclParser parser = HclParser.builder().build();
 
     private static final String BODY_STUB = "#{}";
     private static final String EXPRESSION_STUB = "a=#{}";
 
-    private static final Map<String, List<? extends Hcl>> templateCache = new LinkedHashMap<String, List<? extends Hcl>>() {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > 10_000;
-        }
-    };
+    /**
+     * Parsed templates by their text after substitution, shared by all template parsers and least recently used
+     * first. Parameters that are trees are substituted by placeholders, so applying a template with different
+     * tree parameters reuses the same parse.
+     */
+    private static final Map<String, List<? extends Hcl>> templateCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, List<? extends Hcl>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry eldest) {
+                    return size() > 10_000;
+                }
+            });
 
     private final Consumer<String> onAfterVariableSubstitution;
     private final Consumer<String> onBeforeParseTemplate;
@@ -84,12 +89,14 @@ private String substitute(String stub, String template) {
 
     @SuppressWarnings("unchecked")
     private <H extends Hcl> List<H> cache(String stub, Supplier<List<? extends Hcl>> ifAbsent) {
-        List<H> hs;
-        synchronized (templateCacheLock) {
-            hs = (List<H>) templateCache.get(stub);
-            if (hs == null) {
-                hs = (List<H>) ifAbsent.get();
-                templateCache.put(stub, hs);
+        List<H> hs = (List<H>) templateCache.get(stub);
+        if (hs == null) {
+            // parsed without holding a lock, so that recipes running in parallel don't wait on each other's
+            // templates. Two threads parsing the same template at once each parse it, and the first one is kept.
+            hs = (List<H>) ifAbsent.get();
+            List<H> existing = (List<H>) templateCache.putIfAbsent(stub, hs);
+            if (existing != null) {
+                hs = existing;
             }
         }
         return ListUtils.map(hs, j -> (H) new RandomizeIdVisitor<Integer>().visit(j, 0));
@@ -16,12 +16,15 @@
 package org.openrewrite.java.isolated;
 
 import com.sun.tools.javac.comp.Annotate;
+import com.sun.tools.javac.comp.AttrContext;
 import com.sun.tools.javac.comp.Check;
 import com.sun.tools.javac.comp.Enter;
+import com.sun.tools.javac.comp.Env;
 import com.sun.tools.javac.comp.Modules;
 import com.sun.tools.javac.file.JavacFileManager;
 import com.sun.tools.javac.main.JavaCompiler;
 import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeScanner;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Log;
 import com.sun.tools.javac.util.Options;
@@ -35,7 +38,9 @@
 import org.openrewrite.internal.lang.NonNullApi;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaParserExecutionContextView;
 import org.openrewrite.java.JavaParsingException;
+import org.openrewrite.java.internal.ClasspathIndex;
 import org.openrewrite.java.internal.JavaTypeCache;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Space;
@@ -147,34 +152,147 @@ public static Builder builder() {
 
     @Override
     public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
-        ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
+        int attributionBatchSize = JavaParserExecutionContextView.view(ctx).getAttributionBatchSize();
+        if (attributionBatchSize > 0) {
+            return parseInputsInBatches(sourceFiles, relativeTo, attributionBatchSize, ctx);
+        }
+
         LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseInputsToCompilerAst(sourceFiles, ctx);
         return cus.entrySet().stream().map(cuByPath -> {
-            Input input = cuByPath.getKey();
-            parsingListener.startedParsing(input);
-            try {
-                ReloadableJava21ParserVisitor parser = new ReloadableJava21ParserVisitor(
-                        input.getRelativePath(relativeTo),
-                        input.getFileAttributes(),
-                        input.getSource(ctx),
-                        styles,
-                        typeCache,
-                        ctx,
-                        context
-                );
-
-                J.CompilationUnit cu = (J.CompilationUnit) parser.scan(cuByPath.getValue(), Space.EMPTY);
-                cuByPath.setValue(null); // allow memory used by this JCCompilationUnit to be released
-                parsingListener.parsed(input, cu);
-                return requirePrintEqualsInput(cu, input, relativeTo, ctx);
-            } catch (Throwable t) {
-                ctx.getOnError().accept(t);
-                return ParseError.build(this, input, relativeTo, ctx, t);
-            }
+            SourceFile cu = convert(cuByPath.getKey(), cuByPath.getValue(), relativeTo, ctx);
+            cuByPath.setValue(null); // allow memory used by this JCCompilationUnit to be released
+            return cu;
         });
     }
 
+    /**
+     * Enters the symbols of every compilation unit up front, but attributes and converts them to LSTs
+     * lazily in batches of {@code batchSize}, so that only one batch worth of attributed javac trees
+     * is retained at any given time.
+     */
+    private Stream<SourceFile> parseInputsInBatches(Iterable<Input> sourceFiles, @Nullable Path relativeTo,
+                                                    int batchSize, ExecutionContext ctx) {
+        LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseAndEnter(sourceFiles, ctx);
+
+        // drain the todo queue so that it doesn't keep every attribution environment reachable
+        // until the whole source set has been converted
+        Map<JCTree.JCCompilationUnit, List<Env<AttrContext>>> envsByCu = new IdentityHashMap<>();
+        while (!compiler.todo.isEmpty()) {
+            Env<AttrContext> env = compiler.todo.remove();
+            envsByCu.computeIfAbsent(env.toplevel, cu -> new ArrayList<>(1)).add(env);
+        }
+
+        Iterator<Map.Entry<Input, JCTree.JCCompilationUnit>> remaining = cus.entrySet().iterator();
+        Iterator<List<Map.Entry<Input, JCTree.JCCompilationUnit>>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return remaining.hasNext();
+            }
+
+            @Override
+            public List<Map.Entry<Input, JCTree.JCCompilationUnit>> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Map.Entry<Input, JCTree.JCCompilationUnit>> batch = new ArrayList<>(batchSize);
+                while (remaining.hasNext() && batch.size() < batchSize) {
+                    Map.Entry<Input, JCTree.JCCompilationUnit> cuByPath = remaining.next();
+                    batch.add(new AbstractMap.SimpleEntry<>(cuByPath.getKey(), cuByPath.getValue()));
+                    remaining.remove();
+                }
+                return batch;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+                .flatMap(batch -> {
+                    try {
+                        for (Map.Entry<Input, JCTree.JCCompilationUnit> cuByPath : batch) {
+                            List<Env<AttrContext>> envs = envsByCu.remove(cuByPath.getValue());
+                            if (envs != null) {
+                                for (Env<AttrContext> env : envs) {
+                                    compiler.attribute(env);
+                                }
+                            }
+                        }
+                    } catch (Throwable t) {
+                        ctx.getOnError().accept(new JavaParsingException("Failed attribution", t));
+                    }
+
+                    List<SourceFile> converted = new ArrayList<>(batch.size());
+                    for (Map.Entry<Input, JCTree.JCCompilationUnit> cuByPath : batch) {
+                        JCTree.JCCompilationUnit jcCu = cuByPath.getValue();
+                        converted.add(convert(cuByPath.getKey(), jcCu, relativeTo, ctx));
+                        releaseBodies(jcCu);
+                        cuByPath.setValue(null);
+                    }
+                    return converted.stream();
+                });
+    }
+
+    private SourceFile convert(Input input, JCTree.JCCompilationUnit jcCompilationUnit, @Nullable Path relativeTo, ExecutionContext ctx) {
+        ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
+        parsingListener.startedParsing(input);
+        try {
+            ReloadableJava21ParserVisitor parser = new ReloadableJava21ParserVisitor(
+                    input.getRelativePath(relativeTo),
+                    input.getFileAttributes(),
+                    input.getSource(ctx),
+                    styles,
+                    typeCache,
+                    ctx,
+                    context
+            );
+
+            J.CompilationUnit cu = (J.CompilationUnit) parser.scan(jcCompilationUnit, Space.EMPTY);
+            parsingListener.parsed(input, cu);
+            return requirePrintEqualsInput(cu, input, relativeTo, ctx);
+        } catch (Throwable t) {
+            ctx.getOnError().accept(t);
+            return ParseError.build(this, input, relativeTo, ctx, t);
+        }
+    }
+
+    /**
+     * The compilation unit remains reachable from the class environments held by {@link Enter} until the next
+     * {@link #reset()}, so once it has been converted, drop the method bodies and initializer blocks that make up
+     * the bulk of an attributed tree. Field initializers are kept, as they may still be needed to evaluate
+     * constant values referenced by compilation units in later batches.
+     */
+    private static void releaseBodies(JCTree.JCCompilationUnit cu) {
+        new TreeScanner() {
+            @Override
+            public void visitClassDef(JCTree.JCClassDecl classDecl) {
+                for (JCTree def : classDecl.defs) {
+                    if (def instanceof JCTree.JCBlock) {
+                        ((JCTree.JCBlock) def).stats = com.sun.tools.javac.util.List.nil();
+                    }
+                }
+                super.visitClassDef(classDecl);
+            }
+
+            @Override
+            public void visitMethodDef(JCTree.JCMethodDecl method) {
+                method.body = null;
+            }
+        }.scan(cu);
+    }
+
     LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable<Input> sourceFiles, ExecutionContext ctx) {
+        LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseAndEnter(sourceFiles, ctx);
+        try {
+            compiler.attribute(compiler.todo);
+        } catch (Throwable t) {
+            ctx.getOnError().accept(new JavaParsingException("Failed attribution", t));
+        }
+        return cus;
+    }
+
+    /**
+     * Parse every input to a javac tree and enter the symbols they define, leaving the attribution
+     * environments on the compiler's todo queue.
+     */
+    private LinkedHashMap<Input, JCTree.JCCompilationUnit> parseAndEnter(Iterable<Input> sourceFiles, ExecutionContext ctx) {
         if (classpath != null) { // override classpath
             if (context.get(JavaFileManager.class) != pfm) {
                 throw new IllegalStateException("JavaFileManager has been forked unexpectedly");
@@ -213,13 +331,10 @@ LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable
             while (annotate.annotationsBlocked()) {
                 annotate.unblockAnnotations(); // also flushes once unblocked
             }
-
-            compiler.attribute(compiler.todo);
-        } catch (
-                Throwable t) {
+        } catch (Throwable t) {
             // when symbol entering fails on problems like missing types, attribution can often times proceed
             // unhindered, but it sometimes cannot (so attribution is always best-effort in the presence of errors)
-            ctx.getOnError().accept(new JavaParsingException("Failed symbol entering or attribution", t));
+            ctx.getOnError().accept(new JavaParsingException("Failed symbol entering", t));
         }
         return cus;
     }
@@ -307,6 +422,8 @@ public ReloadableJava21Parser build() {
 
     private static class ByteArrayCapableJavacFileManager extends JavacFileManager {
         private final List<PackageAwareJavaFileObject> classByteClasspath;
+        private final ClasspathIndex classpathIndex = ClasspathIndex.getDefault();
+        private final Map<Path, Optional<ClasspathIndex.Entry>> indexedClasspath = new HashMap<>();
 
         public ByteArrayCapableJavacFileManager(Context context,
                                                 boolean register,
@@ -329,7 +446,9 @@ public String inferBinaryName(Location location, JavaFileObject file) {
         @Override
         public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
             if (StandardLocation.CLASS_PATH.equals(location)) {
-                Iterable<JavaFileObject> listed = super.list(location, packageName, kinds, recurse);
+                Iterable<JavaFileObject> listed = recurse || mayContainPackage(packageName) ?
+                        super.list(location, packageName, kinds, recurse) :
+                        Collections.emptyList();
                 return classByteClasspath.isEmpty() ? listed
                         : Stream.concat(classByteClasspath.stream()
                                 .filter(jfo -> jfo.getPackage().equals(packageName)),
@@ -338,6 +457,25 @@ public Iterable<JavaFileObject> list(Location location, String packageName, Set<
             }
             return super.list(location, packageName, kinds, recurse);
         }
+
+        /**
+         * Consult the {@link ClasspathIndex} so that looking up a package that none of the classpath jars
+         * contain doesn't require opening every one of them.
+         */
+        private boolean mayContainPackage(String packageName) {
+            Iterable<? extends Path> classpath = getLocationAsPaths(StandardLocation.CLASS_PATH);
+            if (classpath == null) {
+                return true;
+            }
+            for (Path entry : classpath) {
+                Optional<ClasspathIndex.Entry> indexed = indexedClasspath.computeIfAbsent(entry,
+                        e -> Optional.ofNullable(classpathIndex.get(e)));
+                if (!indexed.isPresent() || indexed.get().containsPackage(packageName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     private static class PackageAwareJavaFileObject extends SimpleJavaFileObject {
@@ -380,6 +380,43 @@ class A {}
         );
     }
 
+    @Test
+    void importsRequestedDuringVisitAreAppliedTogether() {
+        rewriteRun(
+          spec -> spec.recipe(toRecipe(() ->
+              new JavaIsoVisitor<>() {
+                  @Override
+                  public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                      maybeRemoveImport("java.util.Set");
+                      maybeRemoveImport("java.util.List");
+                      maybeAddImport("java.util.Map", false);
+                      maybeAddImport("java.util.Map", false);
+                      maybeAddImport("java.util.HashMap");
+                      return cu;
+                  }
+              }
+            )),
+          java(
+            """
+              import java.util.List;
+              import java.util.Set;
+
+              class A {
+                  List<String> l;
+              }
+              """,
+            """
+              import java.util.List;
+              import java.util.Map;
+
+              class A {
+                  List<String> l;
+              }
+              """
+          )
+        );
+    }
+
     @Issue("https://github.com/openrewrite/rewrite/issues/484")
     @Test
     void addImportIfReferenced() {
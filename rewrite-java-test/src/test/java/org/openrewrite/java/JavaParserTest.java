@@ -30,6 +30,8 @@
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -147,4 +149,26 @@ void shouldResolvePathUsingPublicClasses(@Language("java") String source) {
           )
         );
     }
+
+    @Test
+    void attributeInBatches() {
+        List<Throwable> errors = new ArrayList<>();
+        JavaParserExecutionContextView ctx = JavaParserExecutionContextView.view(new InMemoryExecutionContext(errors::add));
+        ctx.setAttributionBatchSize(1);
+
+        List<SourceFile> cus = JavaParser.fromJavaVersion().build().parse(ctx,
+          "package a; public class A extends b.B { public b.B b() { return new b.B(); } }",
+          "package b; public class B { public static final int ONE = 1; public a.A a() { return null; } }",
+          "package c; class C { int one = b.B.ONE; a.A a = new a.A().b().a(); }"
+        ).toList();
+
+        assertThat(cus).hasSize(3).allSatisfy(cu -> assertThat(cu).isInstanceOf(J.CompilationUnit.class));
+        J.ClassDeclaration a = ((J.CompilationUnit) cus.get(0)).getClasses().get(0);
+        assertThat(a.getExtends()).isNotNull();
+        assertThat(a.getExtends().getType()).hasToString("b.B");
+        J.VariableDeclarations aField = (J.VariableDeclarations) ((J.CompilationUnit) cus.get(2)).getClasses().get(0)
+          .getBody().getStatements().get(1);
+        assertThat(aField.getVariables().get(0).getInitializer().getType()).hasToString("a.A");
+        assertThat(errors).isEmpty();
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.internal.SourceSlices;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaPrinterTest {
+
+    //language=java
+    private static final String SOURCE = """
+      import java.util.ArrayList;
+      import java.util.List;
+
+      class Test {
+          /**
+           * A method long enough that its original text is recorded.
+           */
+          List<String> unchanged(List<String> names) {
+              List<String> copy = new ArrayList<>(names);
+              copy.removeIf(name -> name.isEmpty());
+              return copy;
+          }
+
+          int changed() {
+              return 1;
+          }
+      }
+      """;
+
+    @Test
+    void unchangedCompilationUnitPrintsOriginalText() {
+        J.CompilationUnit cu = parse(reuseOriginalText());
+        assertThat(SourceSlices.originalText(cu)).isEqualTo(SOURCE);
+        assertThat(cu.printAll()).isEqualTo(SOURCE);
+    }
+
+    @Test
+    void reusesOriginalTextOfUnchangedMethods() {
+        J.CompilationUnit cu = parse(reuseOriginalText());
+        J.CompilationUnit changed = (J.CompilationUnit) new JavaIsoVisitor<Integer>() {
+            @Override
+            public J.Literal visitLiteral(J.Literal literal, Integer p) {
+                return Integer.valueOf(1).equals(literal.getValue()) ?
+                  literal.withValue(2).withValueSource("2") :
+                  literal;
+            }
+        }.visitNonNull(cu, 0);
+
+        assertThat(SourceSlices.originalText(changed)).isNull();
+        PrintOutputCapture<Integer> out = new PrintOutputCapture<>(0);
+        assertThat(changed.printAll(out)).isEqualTo(SOURCE.replace("return 1;", "return 2;"));
+        assertThat(out.getSourceSlices()).isNotNull();
+        assertThat(changed.print(new Cursor(null, Cursor.ROOT_VALUE), new PrintOutputCapture<>(0)))
+          .isEqualTo(out.getOut());
+    }
+
+    @Test
+    void reprintsCasesMovedToAnotherKindOfSwitch() {
+        //language=java
+        String source = """
+          class Test {
+              String describe(int i, boolean verbose) {
+                  switch (i) {
+                      default -> System.out.println(i);
+                  }
+                  return switch (i) {
+                      case 1 -> verbose ? "a description long enough to be recorded" : "one";
+                      default -> "other";
+                  };
+              }
+          }
+          """;
+        J.CompilationUnit cu = parse(source, reuseOriginalText());
+        J.Block expressionCases = new JavaIsoVisitor<List<J.Block>>() {
+            @Override
+            public J.SwitchExpression visitSwitchExpression(J.SwitchExpression switchExpression, List<J.Block> cases) {
+                cases.add(switchExpression.getCases());
+                return switchExpression;
+            }
+        }.reduce(cu, new ArrayList<>()).get(0);
+        J.CompilationUnit changed = (J.CompilationUnit) new JavaIsoVisitor<Integer>() {
+            @Override
+            public J.Switch visitSwitch(J.Switch switch_, Integer p) {
+                return switch_.withCases(switch_.getCases().withStatements(expressionCases.getStatements()));
+            }
+        }.visitNonNull(cu, 0);
+
+        PrintOutputCapture<Integer> out = new PrintOutputCapture<>(0);
+        changed.printAll(out);
+        assertThat(out.getSourceSlices()).isNotNull();
+        assertThat(out.getOut())
+          .isEqualTo(changed.print(new Cursor(null, Cursor.ROOT_VALUE), new PrintOutputCapture<>(0)));
+    }
+
+    @Test
+    void reusedTextIsAppendedThroughTheOutputCapture() {
+        J.CompilationUnit cu = parse(reuseOriginalText());
+        StringBuilder appended = new StringBuilder();
+        PrintOutputCapture<Integer> out = new PrintOutputCapture<>(0) {
+            @Override
+            public PrintOutputCapture<Integer> append(@Nullable String text) {
+                appended.append(text);
+                return super.append(text);
+            }
+        };
+        cu.printAll(out);
+        assertThat(appended.toString()).isEqualTo(SOURCE);
+    }
+
+    @Test
+    void reuseIsOptIn() {
+        assertThat(SourceSlices.originalText(parse(new InMemoryExecutionContext()))).isNull();
+    }
+
+    private static ExecutionContext reuseOriginalText() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        ctx.putMessage(ExecutionContext.REUSE_ORIGINAL_TEXT, true);
+        return ctx;
+    }
+
+    private static J.CompilationUnit parse(ExecutionContext ctx) {
+        return parse(SOURCE, ctx);
+    }
+
+    private static J.CompilationUnit parse(String source, ExecutionContext ctx) {
+        return (J.CompilationUnit) JavaParser.fromJavaVersion().build().parse(ctx, source).findFirst().orElseThrow();
+    }
+}
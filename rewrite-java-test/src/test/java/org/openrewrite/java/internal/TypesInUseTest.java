@@ -17,10 +17,18 @@
 
 import org.junit.jupiter.api.Test;
 import org.openrewrite.Issue;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeUtils;
 import org.openrewrite.test.RewriteTest;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.java.Assertions.java;
@@ -63,4 +71,64 @@ public class Foo {}
         );
     }
 
+    @Test
+    void typesInUseOfEditedCompilationUnit() {
+        //language=java
+        String source = """
+          import java.util.List;
+          import java.util.Map;
+          import java.util.Set;
+          class Test {
+              void list(List<String> l) {
+                  l.add("a");
+              }
+              void set(Set<String> s) {
+                  s.add("b");
+              }
+              class Nested {
+                  Map<String, Integer> counts;
+                  int count(String key) {
+                      return counts.get(key);
+                  }
+              }
+          }
+          """;
+        J.CompilationUnit cu = parse(source);
+        assertThat(typeNames(cu)).contains("java.util.List", "java.util.Set", "java.util.Map");
+
+        J.CompilationUnit withoutSet = (J.CompilationUnit) new JavaIsoVisitor<Integer>() {
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+                //noinspection DataFlowIssue
+                return "set".equals(method.getSimpleName()) ? null : method;
+            }
+        }.visitNonNull(cu, 0);
+
+        assertThat(withoutSet).isNotSameAs(cu);
+        assertThat(typeNames(withoutSet)).contains("java.util.List", "java.util.Map").doesNotContain("java.util.Set");
+        // what the untouched declarations use is the same as if the edited source file had been parsed
+        assertThat(signatures(withoutSet)).isEqualTo(signatures(parse(withoutSet.printAll())));
+    }
+
+    private static J.CompilationUnit parse(String source) {
+        return JavaParser.fromJavaVersion().build().parse(source)
+          .findFirst().map(J.CompilationUnit.class::cast).orElseThrow();
+    }
+
+    private static List<Set<String>> signatures(J.CompilationUnit cu) {
+        DefaultJavaTypeSignatureBuilder signatures = new DefaultJavaTypeSignatureBuilder();
+        TypesInUse typesInUse = cu.getTypesInUse();
+        return Stream.of(typesInUse.getTypesInUse(), typesInUse.getDeclaredMethods(),
+            typesInUse.getUsedMethods(), typesInUse.getVariables())
+          .map(types -> types.stream().map(signatures::signature).collect(Collectors.toSet()))
+          .collect(Collectors.toList());
+    }
+
+    private static List<String> typeNames(J.CompilationUnit cu) {
+        return cu.getTypesInUse().getTypesInUse().stream()
+          .map(TypeUtils::asFullyQualified)
+          .filter(Objects::nonNull)
+          .map(JavaType.FullyQualified::getFullyQualifiedName)
+          .collect(Collectors.toList());
+    }
 }
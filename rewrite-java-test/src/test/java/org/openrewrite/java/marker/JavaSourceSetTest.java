@@ -17,23 +17,34 @@
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.openrewrite.Issue;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTypeGoat;
 import org.openrewrite.java.JavaTypeVisitor;
+import org.openrewrite.java.internal.ClasspathIndex;
 import org.openrewrite.java.internal.JavaReflectionTypeMapping;
 import org.openrewrite.java.internal.JavaTypeCache;
 import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.marker.SourceSet;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
 
@@ -69,6 +80,34 @@ void shadedJar() {
         assertThat(shaded.get(0)).isInstanceOf(JavaType.ShallowClass.class);
     }
 
+    @Test
+    void jarsRecordTheirOwnTypesEvenWhenAnEarlierJarHasTheSame(@TempDir Path temp) throws IOException {
+        Path first = jarOfSourceSet(temp.resolve("first.jar"), "first.txt");
+        Path second = jarOfSourceSet(temp.resolve("second.jar"), "second.txt");
+
+        var typeNames = JavaSourceSet.build("main", List.of(first, second), new JavaTypeCache(), false)
+          .getClasspath().stream().map(JavaType.FullyQualified::getFullyQualifiedName).collect(Collectors.toList());
+        assertThat(typeNames).containsOnlyOnce(SourceSet.class.getName());
+
+        var secondIndexed = ClasspathIndex.getDefault().get(second);
+        assertThat(secondIndexed).isNotNull();
+        assertThat(secondIndexed.getDeclarableTypeNames()).containsExactly(SourceSet.class.getName());
+    }
+
+    private static Path jarOfSourceSet(Path jar, String resource) throws IOException {
+        String classFile = SourceSet.class.getName().replace('.', '/') + ".class";
+        try (InputStream classBytes = requireNonNull(SourceSet.class.getResourceAsStream("/" + classFile));
+             JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry(classFile));
+            classBytes.transferTo(out);
+            out.closeEntry();
+            // so that the jars are indexed separately
+            out.putNextEntry(new ZipEntry(resource));
+            out.closeEntry();
+        }
+        return jar;
+    }
+
     // This test uses a lot of memory and examines the "fullTypeInformation" path that we don't actually take anywhere right now
     @Disabled
     @Test
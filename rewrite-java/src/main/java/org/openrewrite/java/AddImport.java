@@ -21,6 +21,7 @@
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.internal.TypesInUse;
 import org.openrewrite.java.marker.JavaSourceSet;
 import org.openrewrite.java.search.FindMethods;
 import org.openrewrite.java.search.FindTypes;
@@ -35,6 +36,7 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.openrewrite.Tree.randomId;
 import static org.openrewrite.java.format.AutodetectGeneralFormatStyle.autodetectGeneralFormatStyle;
@@ -76,6 +78,27 @@
     @Nullable
     private final String alias;
 
+    /**
+     * Set by {@link ImportBatch} to share what is computed once per source file between the imports it adds.
+     */
+    @Nullable
+    TypesInUse typesInUse;
+
+    @Nullable
+    Supplier<GeneralFormatStyle> generalFormatStyle;
+
+    @Nullable
+    ImportLayoutStyle layoutStyle;
+
+    @Nullable
+    List<JavaType.FullyQualified> classpath;
+
+    /**
+     * When set, the prefix of the first class is left for {@link #formatFirstClassPrefix} to fix once the
+     * batch has added all of its imports.
+     */
+    boolean deferFirstClassPrefix;
+
     public AddImport(String type, @Nullable String member, boolean onlyIfReferenced) {
         int lastDotIdx = type.lastIndexOf('.');
         this.packageName = lastDotIdx != -1 ? type.substring(0, lastDotIdx) : null;
@@ -153,12 +176,8 @@ public AddImport(@Nullable String packageName, String typeName, @Nullable String
                 }
             }
 
-            ImportLayoutStyle layoutStyle = Optional.ofNullable(((SourceFile) cu).getStyle(ImportLayoutStyle.class))
-                    .orElse(IntelliJ.importLayout());
-
-            List<JavaType.FullyQualified> classpath = cu.getMarkers().findFirst(JavaSourceSet.class)
-                    .map(JavaSourceSet::getClasspath)
-                    .orElse(Collections.emptyList());
+            ImportLayoutStyle layoutStyle = this.layoutStyle != null ? this.layoutStyle : importLayoutStyle(cu);
+            List<JavaType.FullyQualified> classpath = this.classpath != null ? this.classpath : classpath(cu);
 
             List<JRightPadded<J.Import>> newImports = layoutStyle.addImport(cu.getPadding().getImports(), importToAdd, cu.getPackageDeclaration(), classpath);
 
@@ -167,20 +186,37 @@ public AddImport(@Nullable String packageName, String typeName, @Nullable String
 
             cu = cu.getPadding().withImports(newImports);
 
-            JavaSourceFile c = cu;
-            cu = cu.withClasses(ListUtils.mapFirst(cu.getClasses(), clazz -> {
-                J.ClassDeclaration cl = autoFormat(clazz, clazz.getName(), p, new Cursor(null, c));
-                return clazz.withPrefix(clazz.getPrefix().withWhitespace(cl.getPrefix().getWhitespace()));
-            }));
-
-            j = cu;
+            j = deferFirstClassPrefix ? cu : formatFirstClassPrefix(cu, p);
         }
         return j;
     }
 
+    static ImportLayoutStyle importLayoutStyle(JavaSourceFile cu) {
+        return Optional.ofNullable(((SourceFile) cu).getStyle(ImportLayoutStyle.class))
+                .orElse(IntelliJ.importLayout());
+    }
+
+    static List<JavaType.FullyQualified> classpath(JavaSourceFile cu) {
+        return cu.getMarkers().findFirst(JavaSourceSet.class)
+                .map(JavaSourceSet::getClasspath)
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Fix the blank lines between the imports and the first class, which depend on the imports that were added.
+     */
+    JavaSourceFile formatFirstClassPrefix(JavaSourceFile cu, P p) {
+        return cu.withClasses(ListUtils.mapFirst(cu.getClasses(), clazz -> {
+            J.ClassDeclaration cl = autoFormat(clazz, clazz.getName(), p, new Cursor(null, cu));
+            return clazz.withPrefix(clazz.getPrefix().withWhitespace(cl.getPrefix().getWhitespace()));
+        }));
+    }
+
     private List<JRightPadded<J.Import>> checkCRLF(JavaSourceFile cu, List<JRightPadded<J.Import>> newImports) {
         GeneralFormatStyle generalFormatStyle = Optional.ofNullable(((SourceFile) cu).getStyle(GeneralFormatStyle.class))
-                .orElse(autodetectGeneralFormatStyle(cu));
+                .orElseGet(() -> this.generalFormatStyle == null ?
+                        autodetectGeneralFormatStyle(cu) :
+                        this.generalFormatStyle.get());
         if (generalFormatStyle.isUseCRLFNewLines()) {
             return ListUtils.map(newImports, rp -> rp.map(
                     i -> i.withPrefix(i.getPrefix().withWhitespace(i.getPrefix().getWhitespace()
@@ -211,6 +247,9 @@ private boolean isTypeReference(NameTree t) {
     //Note that using anyMatch when a stream is empty ends up returning true, which is not the behavior needed here!
     private boolean hasReference(JavaSourceFile compilationUnit) {
         if (member == null) {
+            if (!mayBeReferenced(compilationUnit)) {
+                return false;
+            }
             //Non-static imports, we just look for field accesses.
             for (NameTree t : FindTypes.find(compilationUnit, fullyQualifiedName)) {
                 if ((!(t instanceof J.FieldAccess) || !((J.FieldAccess) t).isFullyQualifiedClassReference(fullyQualifiedName)) &&
@@ -238,11 +277,34 @@ private boolean hasReference(JavaSourceFile compilationUnit) {
         return hasStaticFieldAccess.get();
     }
 
+    /**
+     * Any type referenced outside of imports is in use, so a type that isn't in use, or imported, needn't be searched for.
+     */
+    private boolean mayBeReferenced(JavaSourceFile compilationUnit) {
+        if (fullyQualifiedName.contains("*") || fullyQualifiedName.contains("..")) {
+            return true;
+        }
+        for (J.Import anImport : compilationUnit.getImports()) {
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(anImport.getQualid().getType());
+            if (type != null && TypeUtils.fullyQualifiedNamesAreEqual(type.getFullyQualifiedName(), fullyQualifiedName)) {
+                return true;
+            }
+        }
+        TypesInUse types = typesInUse == null ? compilationUnit.getTypesInUse() : typesInUse;
+        for (JavaType type : types.getTypesInUse()) {
+            if (type instanceof JavaType.FullyQualified &&
+                TypeUtils.fullyQualifiedNamesAreEqual(((JavaType.FullyQualified) type).getFullyQualifiedName(), fullyQualifiedName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private class FindStaticFieldAccess extends JavaIsoVisitor<AtomicReference<Boolean>> {
         @Override
         public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, AtomicReference<Boolean> found) {
             // If the type isn't used there's no need to proceed further
-            for (JavaType.Variable varType : cu.getTypesInUse().getVariables()) {
+            for (JavaType.Variable varType : (typesInUse == null ? cu.getTypesInUse() : typesInUse).getVariables()) {
                 if (varType.getName().equals(member) && isOfClassType(varType.getType(), fullyQualifiedName)) {
                     return super.visitCompilationUnit(cu, found);
                 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.internal.TypesInUse;
+import org.openrewrite.java.style.ImportLayoutStyle;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.style.GeneralFormatStyle;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.openrewrite.java.format.AutodetectGeneralFormatStyle.autodetectGeneralFormatStyle;
+
+/**
+ * The imports added and removed by {@link JavaVisitor#maybeAddImport} and {@link JavaVisitor#maybeRemoveImport}
+ * during a visit, applied together in the order they were requested once the visit is complete.
+ * <p>
+ * Adding or removing imports doesn't change which types a source file uses, so every import in the batch is
+ * checked against the types in use of the source file as the visit left it, and the line endings of the source
+ * file are autodetected at most once. The import layout style and classpath are looked up once, and the blank lines
+ * before the first class are fixed once after a run of added imports rather than after each of them. Where each
+ * import goes is still decided one import at a time, since it depends on the imports added before it.
+ */
+class ImportBatch<P> extends JavaVisitor<P> {
+    private final Set<JavaVisitor<P>> operations = new LinkedHashSet<>();
+
+    /**
+     * @return {@code false} if the same import was already requested.
+     */
+    boolean add(JavaVisitor<P> operation) {
+        return operations.add(operation);
+    }
+
+    @Override
+    public @Nullable J visit(@Nullable Tree tree, P p) {
+        if (!(tree instanceof JavaSourceFile)) {
+            return (J) tree;
+        }
+        JavaSourceFile cu = (JavaSourceFile) tree;
+        TypesInUse typesInUse = cu.getTypesInUse();
+        Supplier<GeneralFormatStyle> generalFormatStyle = new Supplier<GeneralFormatStyle>() {
+            @Nullable
+            private GeneralFormatStyle style;
+
+            @Override
+            public GeneralFormatStyle get() {
+                if (style == null) {
+                    style = autodetectGeneralFormatStyle(cu);
+                }
+                return style;
+            }
+        };
+
+        ImportLayoutStyle layoutStyle = AddImport.importLayoutStyle(cu);
+        List<JavaType.FullyQualified> classpath = AddImport.classpath(cu);
+
+        J j = cu;
+        AddImport<P> unformatted = null;
+        for (JavaVisitor<P> operation : operations) {
+            if (operation instanceof AddImport) {
+                AddImport<P> addImport = (AddImport<P>) operation;
+                addImport.typesInUse = typesInUse;
+                addImport.generalFormatStyle = generalFormatStyle;
+                addImport.layoutStyle = layoutStyle;
+                addImport.classpath = classpath;
+                addImport.deferFirstClassPrefix = true;
+            } else {
+                if (unformatted != null) {
+                    j = unformatted.formatFirstClassPrefix((JavaSourceFile) j, p);
+                    unformatted = null;
+                }
+                if (operation instanceof RemoveImport) {
+                    ((RemoveImport<P>) operation).typesInUse = typesInUse;
+                }
+            }
+            operation.setCursor(getCursor());
+            J before = j;
+            j = operation.visit(j, p);
+            if (j == null) {
+                return null;
+            }
+            if (j != before && operation instanceof AddImport) {
+                unformatted = (AddImport<P>) operation;
+            }
+        }
+        return unformatted == null ? j : unformatted.formatFirstClassPrefix((JavaSourceFile) j, p);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        operations.clear();
+    }
+}
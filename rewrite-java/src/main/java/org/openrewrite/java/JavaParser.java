@@ -16,12 +16,10 @@
 package org.openrewrite.java;
 
 import io.github.classgraph.ClassGraph;
-import io.github.classgraph.Resource;
-import io.github.classgraph.ResourceList;
-import io.github.classgraph.ScanResult;
 import org.intellij.lang.annotations.Language;
 import org.openrewrite.*;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.internal.ClasspathIndex;
 import org.openrewrite.java.internal.JavaTypeCache;
 import org.openrewrite.java.marker.JavaSourceSet;
 import org.openrewrite.java.tree.J;
@@ -114,13 +112,12 @@ static List<Path> dependenciesFromResources(ExecutionContext ctx, String... arti
         File resourceTarget = JavaParserExecutionContextView.view(ctx)
                 .getParserClasspathDownloadTarget();
 
+        File[] extracted = resourceTarget.listFiles();
         nextArtifact:
         for (String artifactName : artifactNamesWithVersions) {
-            Pattern jarPattern = Pattern.compile("[/\\\\]" + artifactName + "-?.*\\.jar$");
-            File[] extracted = resourceTarget.listFiles();
             if (extracted != null) {
                 for (File file : extracted) {
-                    if (jarPattern.matcher(file.getPath()).find()) {
+                    if (ClasspathIndex.isJarOf(file.getName(), artifactName)) {
                         artifacts.add(file.toPath());
                         continue nextArtifact;
                     }
@@ -161,45 +158,39 @@ static List<Path> dependenciesFromResources(ExecutionContext ctx, String... arti
             caller = JavaParser.class;
         }
 
-        try (ScanResult result = new ClassGraph().acceptPaths("META-INF/rewrite/classpath")
-                .addClassLoader(caller.getClassLoader())
-                .scan()) {
-            ResourceList resources = result.getResourcesWithExtension(".jar");
-
-            for (String artifactName : new ArrayList<>(missingArtifactNames)) {
-                Pattern jarPattern = Pattern.compile(artifactName + "-?.*\\.jar$");
-                for (Resource resource : resources) {
-                    if (jarPattern.matcher(resource.getPath()).find()) {
-                        try {
-                            Path artifact = resourceTarget.toPath().resolve(Paths.get(resource.getPath()).getFileName());
-                            if (!Files.exists(artifact)) {
-                                try {
-                                    Files.copy(
-                                            requireNonNull(caller.getResourceAsStream("/" + resource.getPath())),
-                                            artifact
-                                    );
-                                } catch (FileAlreadyExistsException ignore) {
-                                    // can happen when tests run in parallel, for example
-                                }
+        List<String> resources = ClasspathIndex.classpathResourceJars(caller.getClassLoader());
+        for (String artifactName : new ArrayList<>(missingArtifactNames)) {
+            for (String resource : resources) {
+                if (ClasspathIndex.isJarOf(resource.substring(resource.lastIndexOf('/') + 1), artifactName)) {
+                    try {
+                        Path artifact = resourceTarget.toPath().resolve(Paths.get(resource).getFileName());
+                        if (!Files.exists(artifact)) {
+                            try {
+                                Files.copy(
+                                        requireNonNull(caller.getResourceAsStream("/" + resource)),
+                                        artifact
+                                );
+                            } catch (FileAlreadyExistsException ignore) {
+                                // can happen when tests run in parallel, for example
                             }
-                            missingArtifactNames.remove(artifactName);
-                            artifacts.add(artifact);
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
                         }
-                        break;
+                        missingArtifactNames.remove(artifactName);
+                        artifacts.add(artifact);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
+                    break;
                 }
             }
+        }
 
-            if (!missingArtifactNames.isEmpty()) {
-                throw new IllegalArgumentException("Unable to find classpath resource dependencies beginning with: " +
-                        missingArtifactNames.stream().map(a -> "'" + a + "'").sorted().collect(joining(", ", "", ".\n")) +
-                        "The caller is of type " + caller.getName() + ".\n" +
-                        "The resources resolvable from the caller's classpath are: " +
-                        resources.stream().map(Resource::getPath).sorted().collect(joining(", "))
-                );
-            }
+        if (!missingArtifactNames.isEmpty()) {
+            throw new IllegalArgumentException("Unable to find classpath resource dependencies beginning with: " +
+                    missingArtifactNames.stream().map(a -> "'" + a + "'").sorted().collect(joining(", ", "", ".\n")) +
+                    "The caller is of type " + caller.getName() + ".\n" +
+                    "The resources resolvable from the caller's classpath are: " +
+                    resources.stream().sorted().collect(joining(", "))
+            );
         }
 
         return artifacts;
@@ -24,6 +24,7 @@
 
 public class JavaParserExecutionContextView extends DelegatingExecutionContext {
     private static final String PARSER_CLASSPATH_DOWNLOAD_LOCATION = "org.openrewrite.java.parserClasspathDownloadLocation";
+    private static final String ATTRIBUTION_BATCH_SIZE = "org.openrewrite.java.attributionBatchSize";
 
     public JavaParserExecutionContextView(ExecutionContext delegate) {
         super(delegate);
@@ -52,5 +53,21 @@ public File getParserClasspathDownloadTarget() {
         }
         return target;
     }
-}
 
+    /**
+     * When greater than zero, parsers that support it enter the symbols of every input once, but attribute and
+     * convert compilation units to LSTs lazily in batches of this size, releasing the compiler trees of each batch
+     * as they are converted. This bounds the peak memory of parsing large source sets.
+     *
+     * @param batchSize The number of compilation units to attribute at a time, or zero to attribute all of them up front.
+     * @return This execution context view.
+     */
+    public JavaParserExecutionContextView setAttributionBatchSize(int batchSize) {
+        putMessage(ATTRIBUTION_BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    public int getAttributionBatchSize() {
+        return getMessage(ATTRIBUTION_BATCH_SIZE, 0);
+    }
+}
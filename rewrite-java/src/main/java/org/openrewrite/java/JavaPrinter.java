@@ -17,6 +17,7 @@
 
 import org.openrewrite.Cursor;
 import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.internal.SourceSlices;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.marker.CompactConstructor;
 import org.openrewrite.java.marker.OmitParentheses;
@@ -30,6 +31,24 @@
 import java.util.function.UnaryOperator;
 
 public class JavaPrinter<P> extends JavaVisitor<PrintOutputCapture<P>> {
+    @Override
+    public J preVisit(J tree, PrintOutputCapture<P> p) {
+        SourceSlices sourceSlices = p.getSourceSlices();
+        if (sourceSlices != null && sourceSlices.beforePrint(getCursor(), p)) {
+            stopAfterPreVisit();
+        }
+        return tree;
+    }
+
+    @Override
+    public J postVisit(J tree, PrintOutputCapture<P> p) {
+        SourceSlices sourceSlices = p.getSourceSlices();
+        if (sourceSlices != null) {
+            sourceSlices.afterPrint(getCursor(), p);
+        }
+        return tree;
+    }
+
     protected void visitRightPadded(List<? extends JRightPadded<? extends J>> nodes, JRightPadded.Location location, String suffixBetween, PrintOutputCapture<P> p) {
         for (int i = 0; i < nodes.size(); i++) {
             JRightPadded<? extends J> node = nodes.get(i);
@@ -127,10 +127,22 @@ public void maybeAddImport(String fullyQualifiedName, @Nullable String member, b
     }
 
     public void maybeAddImport(@Nullable String packageName, String typeName, @Nullable String member, @Nullable String alias, boolean onlyIfReferenced) {
-        JavaVisitor<P> visitor = service(ImportService.class).addImportVisitor(packageName, typeName, member, alias, onlyIfReferenced);
-        if (!getAfterVisit().contains(visitor)) {
-            doAfterVisit(visitor);
+        importBatch().add(service(ImportService.class).addImportVisitor(packageName, typeName, member, alias, onlyIfReferenced));
+    }
+
+    /**
+     * @return The imports to add and remove once this visit is complete. Consecutive requests share a batch, but a
+     * request made after some other after-visit was queued starts a new one, so it still runs after that visitor.
+     */
+    private ImportBatch<P> importBatch() {
+        List<TreeVisitor<?, P>> afterVisit = getAfterVisit();
+        if (!afterVisit.isEmpty() && afterVisit.get(afterVisit.size() - 1) instanceof ImportBatch) {
+            //noinspection unchecked
+            return (ImportBatch<P>) afterVisit.get(afterVisit.size() - 1);
         }
+        ImportBatch<P> batch = new ImportBatch<>();
+        doAfterVisit(batch);
+        return batch;
     }
 
     @Incubating(since = "8.2.0")
@@ -162,10 +174,7 @@ public void maybeRemoveImport(@Nullable JavaType.FullyQualified clazz) {
     }
 
     public void maybeRemoveImport(String fullyQualifiedName) {
-        RemoveImport<P> op = new RemoveImport<>(fullyQualifiedName);
-        if (!getAfterVisit().contains(op)) {
-            doAfterVisit(op);
-        }
+        importBatch().add(new RemoveImport<>(fullyQualifiedName));
     }
 
     public J visitExpression(Expression expression, P p) {
@@ -21,6 +21,7 @@
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.FormatFirstClassPrefix;
+import org.openrewrite.java.internal.TypesInUse;
 import org.openrewrite.java.style.ImportLayoutStyle;
 import org.openrewrite.java.style.IntelliJ;
 import org.openrewrite.java.tree.*;
@@ -41,6 +42,12 @@
     @EqualsAndHashCode.Include
     private final boolean force;
 
+    /**
+     * Set by {@link ImportBatch} to share the types in use of a source file between the imports it removes.
+     */
+    @Nullable
+    TypesInUse typesInUse;
+
     public RemoveImport(String type) {
         this(type, false);
     }
@@ -73,7 +80,8 @@ public RemoveImport(String type, boolean force) {
                 }
             }
 
-            for (JavaType.Variable variable : cu.getTypesInUse().getVariables()) {
+            TypesInUse typesInUse = this.typesInUse == null ? cu.getTypesInUse() : this.typesInUse;
+            for (JavaType.Variable variable : typesInUse.getVariables()) {
                 JavaType.FullyQualified fq = TypeUtils.asFullyQualified(variable.getOwner());
                 if (fq != null && (TypeUtils.fullyQualifiedNamesAreEqual(fq.getFullyQualifiedName(), type)
                         || TypeUtils.fullyQualifiedNamesAreEqual(fq.getFullyQualifiedName(), owner))) {
@@ -81,7 +89,7 @@ public RemoveImport(String type, boolean force) {
                 }
             }
 
-            for (JavaType.Method method : cu.getTypesInUse().getUsedMethods()) {
+            for (JavaType.Method method : typesInUse.getUsedMethods()) {
                 if (method.hasFlags(Flag.Static)) {
                     String declaringType = method.getDeclaringType().getFullyQualifiedName();
                     if (TypeUtils.fullyQualifiedNamesAreEqual(declaringType, type)) {
@@ -96,7 +104,7 @@ public RemoveImport(String type, boolean force) {
                 }
             }
 
-            for (JavaType javaType : cu.getTypesInUse().getTypesInUse()) {
+            for (JavaType javaType : typesInUse.getTypesInUse()) {
                 if (javaType instanceof JavaType.FullyQualified) {
                     JavaType.FullyQualified fullyQualified = (JavaType.FullyQualified) javaType;
                     if (TypeUtils.fullyQualifiedNamesAreEqual(fullyQualified.getFullyQualifiedName(), type)) {
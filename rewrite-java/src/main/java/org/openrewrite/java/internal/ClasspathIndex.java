@@ -0,0 +1,436 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.Resource;
+import io.github.classgraph.ScanResult;
+import lombok.Getter;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * A persistent index of the class entries contained in classpath jars, shared by the Java parsers,
+ * {@link org.openrewrite.java.marker.JavaSourceSet} and {@link org.openrewrite.java.JavaParser#dependenciesFromResources}
+ * so that worker processes handling many repositories don't have to open and scan the same jars over and over.
+ * <p>
+ * Index files are keyed by a hash of the jar's central directory, which records the name, size and CRC-32 of every
+ * entry and so changes whenever the content of the jar does. They are memory-mapped when read back.
+ */
+public class ClasspathIndex {
+    private static final int MAGIC = 0x52574349; // RWCI
+    private static final int VERSION = 3;
+    private static final String VERSIONED_CLASSES = "META-INF/versions/";
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_MIN_SIZE = 22;
+
+    private static final Map<Path, ClasspathIndex> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final Map<ClassLoader, List<String>> CLASSPATH_RESOURCE_JARS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Nullable
+    private final Path indexDirectory;
+
+    private final Map<Path, Fingerprinted> entries = new ConcurrentHashMap<>();
+
+    ClasspathIndex(@Nullable Path indexDirectory) {
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * @return The index stored under {@code ~/.rewrite/classpath-index}, or an in-memory only index if that
+     * directory can't be created.
+     */
+    public static ClasspathIndex getDefault() {
+        return forDirectory(Paths.get(System.getProperty("user.home"), ".rewrite", "classpath-index"));
+    }
+
+    public static ClasspathIndex forDirectory(Path indexDirectory) {
+        return INSTANCES.computeIfAbsent(indexDirectory.toAbsolutePath().normalize(), dir -> {
+            try {
+                Files.createDirectories(dir);
+                return new ClasspathIndex(dir);
+            } catch (IOException e) {
+                return new ClasspathIndex(null);
+            }
+        });
+    }
+
+    /**
+     * @param classpathEntry An element of a classpath.
+     * @return The index of the jar's class entries, or {@code null} when the classpath entry is not a readable jar.
+     */
+    @Nullable
+    public Entry get(Path classpathEntry) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(classpathEntry, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile() || !classpathEntry.toString().endsWith(".jar")) {
+            return null;
+        }
+
+        Fingerprinted cached = entries.get(classpathEntry);
+        if (cached != null && cached.matches(attributes)) {
+            return cached.entry;
+        }
+
+        try {
+            String key = key(classpathEntry);
+            Entry entry = read(key);
+            if (entry == null) {
+                entry = build(key, classpathEntry);
+                try {
+                    write(entry);
+                } catch (IOException ignored) {
+                    // the index is only an optimization, so the jar will be indexed again next time
+                }
+            }
+            entries.put(classpathEntry, new Fingerprinted(attributes, entry));
+            return entry;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Record the type names that {@link org.openrewrite.java.marker.JavaSourceSet} declares for a jar, so that
+     * later builds of a source set including this jar don't have to scan it.
+     */
+    public void putDeclarableTypeNames(Entry entry, List<String> declarableTypeNames) {
+        entry.declarableTypeNames = unmodifiableList(new ArrayList<>(declarableTypeNames));
+        try {
+            write(entry);
+        } catch (IOException ignored) {
+            // the index is only an optimization, so the names will be recomputed next time
+        }
+    }
+
+    /**
+     * @return The paths of the jars under {@code META-INF/rewrite/classpath} that are visible to a classloader.
+     */
+    public static List<String> classpathResourceJars(ClassLoader classLoader) {
+        List<String> jars = CLASSPATH_RESOURCE_JARS.get(classLoader);
+        if (jars == null) {
+            try (ScanResult result = new ClassGraph().acceptPaths("META-INF/rewrite/classpath")
+                    .addClassLoader(classLoader)
+                    .scan()) {
+                List<String> paths = new ArrayList<>();
+                for (Resource resource : result.getResourcesWithExtension(".jar")) {
+                    paths.add(resource.getPath());
+                }
+                jars = unmodifiableList(paths);
+            }
+            CLASSPATH_RESOURCE_JARS.put(classLoader, jars);
+        }
+        return jars;
+    }
+
+    /**
+     * Matches the names that the "artifact name with version" arguments of
+     * {@link org.openrewrite.java.JavaParser#dependenciesFromResources} refer to, i.e. the artifact name
+     * optionally followed by a version and the jar extension.
+     */
+    public static boolean isJarOf(String fileName, String artifactName) {
+        return fileName.startsWith(artifactName) && fileName.endsWith(".jar");
+    }
+
+    private static String key(Path jar) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            ByteBuffer centralDirectory = centralDirectory(channel);
+            if (centralDirectory != null) {
+                digest.update(centralDirectory);
+            } else {
+                // zip64 or otherwise unusual archives are hashed in their entirety
+                ByteBuffer buffer = ByteBuffer.allocate(8192);
+                channel.position(0);
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+
+        StringBuilder key = new StringBuilder();
+        byte[] hash = digest.digest();
+        for (int i = 0; i < 16; i++) {
+            key.append(String.format("%02x", hash[i]));
+        }
+        return key.toString();
+    }
+
+    @Nullable
+    private static ByteBuffer centralDirectory(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < END_OF_CENTRAL_DIRECTORY_MIN_SIZE) {
+            return null;
+        }
+
+        // the end of central directory record is followed by a comment of at most 64K
+        int tailLength = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_MIN_SIZE + 0xFFFF);
+        ByteBuffer tail = ByteBuffer.allocate(tailLength).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        channel.read(tail, size - tailLength);
+        for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_MIN_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                long cdSize = tail.getInt(i + 12) & 0xFFFFFFFFL;
+                long cdOffset = tail.getInt(i + 16) & 0xFFFFFFFFL;
+                if (cdSize == 0xFFFFFFFFL || cdOffset == 0xFFFFFFFFL || cdOffset + cdSize > size) {
+                    return null;
+                }
+                ByteBuffer cd = ByteBuffer.allocate((int) cdSize);
+                channel.read(cd, cdOffset);
+                cd.flip();
+                return cd;
+            }
+        }
+        return null;
+    }
+
+    private static Entry build(String key, Path jar) throws IOException {
+        Map<String, Set<String>> classNames = new HashMap<>();
+        Set<String> sourcePackages = new HashSet<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+                String name = zipEntries.nextElement().getName();
+                if (name.startsWith(VERSIONED_CLASSES)) {
+                    // a class of a multi-release jar, which may only exist for some Java versions
+                    int versionEnd = name.indexOf('/', VERSIONED_CLASSES.length());
+                    if (versionEnd == -1) {
+                        continue;
+                    }
+                    name = name.substring(versionEnd + 1);
+                }
+                if (name.endsWith(".java") && !name.startsWith("META-INF/")) {
+                    // the compiler also looks for sources on the classpath
+                    int lastSlash = name.lastIndexOf('/');
+                    sourcePackages.add(lastSlash == -1 ? "" : name.substring(0, lastSlash).replace('/', '.'));
+                    continue;
+                }
+                if (!name.endsWith(".class") || name.startsWith("META-INF/") || name.endsWith("module-info.class")) {
+                    continue;
+                }
+                int lastSlash = name.lastIndexOf('/');
+                String pkg = lastSlash == -1 ? "" : name.substring(0, lastSlash).replace('/', '.');
+                classNames.computeIfAbsent(pkg, p -> new LinkedHashSet<>())
+                        .add(name.substring(lastSlash + 1, name.length() - ".class".length()));
+            }
+        }
+        Map<String, List<String>> classNamesByPackage = new HashMap<>(classNames.size() * 2);
+        for (Map.Entry<String, Set<String>> pkg : classNames.entrySet()) {
+            classNamesByPackage.put(pkg.getKey(), new ArrayList<>(pkg.getValue()));
+        }
+        return new Entry(key, classNamesByPackage, sourcePackages, null);
+    }
+
+    @Nullable
+    private Entry read(String key) throws IOException {
+        if (indexDirectory == null) {
+            return null;
+        }
+        Path indexFile = indexDirectory.resolve(key + ".idx");
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DataInputStream in = new DataInputStream(new ByteBufferInputStream(mapped));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+
+            int packageCount = in.readInt();
+            Map<String, List<String>> classNamesByPackage = new HashMap<>(packageCount * 2);
+            for (int i = 0; i < packageCount; i++) {
+                String pkg = in.readUTF();
+                int classCount = in.readInt();
+                List<String> classNames = new ArrayList<>(classCount);
+                for (int j = 0; j < classCount; j++) {
+                    classNames.add(in.readUTF());
+                }
+                classNamesByPackage.put(pkg, classNames);
+            }
+
+            int sourcePackageCount = in.readInt();
+            Set<String> sourcePackages = new HashSet<>(sourcePackageCount * 2);
+            for (int i = 0; i < sourcePackageCount; i++) {
+                sourcePackages.add(in.readUTF());
+            }
+
+            List<String> declarableTypeNames = null;
+            if (in.readBoolean()) {
+                int count = in.readInt();
+                declarableTypeNames = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    declarableTypeNames.add(in.readUTF());
+                }
+            }
+            return new Entry(key, classNamesByPackage, sourcePackages, declarableTypeNames);
+        } catch (EOFException | UTFDataFormatException e) {
+            // a truncated or corrupted index file is rebuilt
+            return null;
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        if (indexDirectory == null) {
+            return;
+        }
+
+        Path temp = Files.createTempFile(indexDirectory, entry.getKey(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entry.getClassNamesByPackage().size());
+                for (Map.Entry<String, List<String>> pkg : entry.getClassNamesByPackage().entrySet()) {
+                    out.writeUTF(pkg.getKey());
+                    out.writeInt(pkg.getValue().size());
+                    for (String className : pkg.getValue()) {
+                        out.writeUTF(className);
+                    }
+                }
+                out.writeInt(entry.sourcePackages.size());
+                for (String sourcePackage : entry.sourcePackages) {
+                    out.writeUTF(sourcePackage);
+                }
+                List<String> declarableTypeNames = entry.getDeclarableTypeNames();
+                out.writeBoolean(declarableTypeNames != null);
+                if (declarableTypeNames != null) {
+                    out.writeInt(declarableTypeNames.size());
+                    for (String typeName : declarableTypeNames) {
+                        out.writeUTF(typeName);
+                    }
+                }
+            }
+
+            Path indexFile = indexDirectory.resolve(entry.getKey() + ".idx");
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static class Entry {
+        @Getter
+        private final String key;
+
+        @Getter
+        private final Map<String, List<String>> classNamesByPackage;
+
+        /**
+         * Packages that the jar has {@code .java} sources in.
+         */
+        private final Set<String> sourcePackages;
+
+        @Nullable
+        private volatile List<String> declarableTypeNames;
+
+        Entry(String key, Map<String, List<String>> classNamesByPackage, Set<String> sourcePackages,
+              @Nullable List<String> declarableTypeNames) {
+            this.key = key;
+            this.classNamesByPackage = unmodifiableMap(classNamesByPackage);
+            this.sourcePackages = sourcePackages;
+            this.declarableTypeNames = declarableTypeNames == null ? null : unmodifiableList(declarableTypeNames);
+        }
+
+        /**
+         * @return Whether the jar has classes or sources in the package.
+         */
+        public boolean containsPackage(String packageName) {
+            return classNamesByPackage.containsKey(packageName) || sourcePackages.contains(packageName);
+        }
+
+        /**
+         * @return The type names this jar contributes to a {@link org.openrewrite.java.marker.JavaSourceSet}, or
+         * {@code null} if they haven't been recorded yet.
+         */
+        @Nullable
+        public List<String> getDeclarableTypeNames() {
+            return declarableTypeNames;
+        }
+    }
+
+    private static class Fingerprinted {
+        private final long size;
+        private final long lastModified;
+        private final Entry entry;
+
+        Fingerprinted(BasicFileAttributes attributes, Entry entry) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.entry = entry;
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.scheduling.SourceStateService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The signatures of the types, methods and variables a Java source file uses, which change when a source file
+ * it depends on changes even though its own text doesn't.
+ */
+public class JavaSourceStateService implements SourceStateService {
+    @Override
+    public void digest(SourceFile sourceFile, MessageDigest digest) {
+        TypesInUse typesInUse = ((JavaSourceFile) sourceFile).getTypesInUse();
+        DefaultJavaTypeSignatureBuilder signatures = new DefaultJavaTypeSignatureBuilder();
+        digest(typesInUse.getTypesInUse(), signatures, digest);
+        digest(typesInUse.getDeclaredMethods(), signatures, digest);
+        digest(typesInUse.getUsedMethods(), signatures, digest);
+        digest(typesInUse.getVariables(), signatures, digest);
+    }
+
+    private static void digest(Collection<? extends JavaType> types, DefaultJavaTypeSignatureBuilder signatures,
+                               MessageDigest digest) {
+        List<String> sorted = new ArrayList<>(types.size());
+        for (JavaType type : types) {
+            sorted.add(signatures.signature(type));
+        }
+        Collections.sort(sorted);
+        for (String signature : sorted) {
+            digest.update(signature.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) 1);
+    }
+}
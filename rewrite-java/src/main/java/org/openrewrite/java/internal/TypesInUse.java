@@ -25,15 +25,27 @@
 import org.openrewrite.java.tree.JavaSourceFile;
 import org.openrewrite.java.tree.JavaType;
 
-import java.util.IdentityHashMap;
-import java.util.Objects;
-import java.util.Set;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Collections.newSetFromMap;
 
+/**
+ * The types, methods and variables a source file uses.
+ * <p>
+ * Since a recipe that edits a source file usually leaves most of its class and method declarations
+ * untouched, and LSTs are immutable, what each class and method declaration uses is remembered for as long as
+ * that exact declaration is reachable. Building the types in use of an edited source file then only visits the
+ * declarations enclosing the edit, and reuses what was found in every other declaration.
+ */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 @Getter
 public class TypesInUse {
+    private static final SubtreeSummaries SUMMARIES = new SubtreeSummaries();
+
     private final JavaSourceFile cu;
     private final Set<JavaType> typesInUse;
     private final Set<JavaType.Method> declaredMethods;
@@ -57,11 +69,61 @@ public static class FindTypesInUse extends JavaIsoVisitor<Integer> {
         private final Set<JavaType.Method> usedMethods = newSetFromMap(new IdentityHashMap<>());
         private final Set<JavaType.Variable> variables = newSetFromMap(new IdentityHashMap<>());
 
+        /**
+         * The summaries of the declarations nested in the one being summarized, or {@code null} if this isn't
+         * summarizing a declaration, in which case what nested declarations use is added to this visitor's sets.
+         */
+        @Getter(AccessLevel.NONE)
+        @Nullable
+        private List<Summary> nested;
+
         @Override
         public J.Import visitImport(J.Import _import, Integer p) {
             return _import;
         }
 
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Integer p) {
+            addSummary(classDecl, p);
+            return classDecl;
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+            addSummary(method, p);
+            return method;
+        }
+
+        private void addSummary(J declaration, Integer p) {
+            Summary summary = SUMMARIES.get(declaration);
+            if (summary == null) {
+                FindTypesInUse findTypesInUse = new FindTypesInUse();
+                findTypesInUse.nested = new ArrayList<>();
+                findTypesInUse.summarize(declaration, p, getCursor().getParentOrThrow());
+                // the summary must not reference the declaration, or it would never be collected
+                summary = new Summary(findTypesInUse);
+                SUMMARIES.put(declaration, summary);
+            }
+            if (nested == null) {
+                summary.addTo(this);
+            } else {
+                nested.add(summary);
+            }
+        }
+
+        /**
+         * Visit a declaration itself rather than looking up its summary, though the summaries
+         * of the declarations nested in it are still used.
+         */
+        private void summarize(J declaration, Integer p, Cursor parent) {
+            setCursor(new Cursor(parent, declaration));
+            if (declaration instanceof J.ClassDeclaration) {
+                super.visitClassDeclaration((J.ClassDeclaration) declaration, p);
+            } else {
+                super.visitMethodDeclaration((J.MethodDeclaration) declaration, p);
+            }
+        }
+
         @Override
         public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
             Object parent = Objects.requireNonNull(getCursor().getParent()).getValue();
@@ -95,4 +157,88 @@ public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
             return javaType;
         }
     }
+
+    /**
+     * What a declaration uses outside the declarations nested in it, whose own summaries it refers to instead
+     * of repeating what they use. Empty arrays are shared, since most declarations use no variables, for example.
+     */
+    private static class Summary {
+        private static final JavaType[] NO_TYPES = new JavaType[0];
+        private static final JavaType.Method[] NO_METHODS = new JavaType.Method[0];
+        private static final JavaType.Variable[] NO_VARIABLES = new JavaType.Variable[0];
+        private static final Summary[] NO_SUMMARIES = new Summary[0];
+
+        private final JavaType[] types;
+        private final JavaType.Method[] declaredMethods;
+        private final JavaType.Method[] usedMethods;
+        private final JavaType.Variable[] variables;
+        private final Summary[] nested;
+
+        Summary(FindTypesInUse found) {
+            this.types = found.types.toArray(NO_TYPES);
+            this.declaredMethods = found.declaredMethods.toArray(NO_METHODS);
+            this.usedMethods = found.usedMethods.toArray(NO_METHODS);
+            this.variables = found.variables.toArray(NO_VARIABLES);
+            //noinspection DataFlowIssue
+            this.nested = found.nested.toArray(NO_SUMMARIES);
+        }
+
+        void addTo(FindTypesInUse target) {
+            Collections.addAll(target.types, types);
+            Collections.addAll(target.declaredMethods, declaredMethods);
+            Collections.addAll(target.usedMethods, usedMethods);
+            Collections.addAll(target.variables, variables);
+            for (Summary summary : nested) {
+                summary.addTo(target);
+            }
+        }
+    }
+
+    /**
+     * Summaries of declarations, held only as long as the declaration itself is reachable. Declarations
+     * are compared by identity, since two versions of a declaration share the same id.
+     */
+    private static class SubtreeSummaries {
+        private final ReferenceQueue<J> queue = new ReferenceQueue<>();
+        private final Map<Key, Summary> summaries = new ConcurrentHashMap<>();
+
+        @Nullable
+        Summary get(J declaration) {
+            return summaries.get(new Key(declaration, null));
+        }
+
+        void put(J declaration, Summary summary) {
+            for (Reference<? extends J> cleared = queue.poll(); cleared != null; cleared = queue.poll()) {
+                //noinspection SuspiciousMethodCalls
+                summaries.remove(cleared);
+            }
+            summaries.put(new Key(declaration, queue), summary);
+        }
+
+        private static class Key extends WeakReference<J> {
+            private final int hash;
+
+            Key(J declaration, @Nullable ReferenceQueue<J> queue) {
+                super(declaration, queue);
+                this.hash = System.identityHashCode(declaration);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj) {
+                    return true;
+                }
+                if (!(obj instanceof Key)) {
+                    return false;
+                }
+                J declaration = get();
+                return declaration != null && declaration == ((Key) obj).get();
+            }
+        }
+    }
 }
@@ -23,15 +23,15 @@
 import lombok.Value;
 import lombok.With;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.internal.ClasspathIndex;
 import org.openrewrite.java.internal.JavaTypeCache;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.marker.SourceSet;
 
+import java.io.File;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.openrewrite.Tree.randomId;
 
@@ -39,6 +39,8 @@
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @With
 public class JavaSourceSet implements SourceSet {
+    private static final Map<String, List<String>> JDK_TYPE_NAMES = new ConcurrentHashMap<>();
+
     @EqualsAndHashCode.Include
     UUID id;
 
@@ -70,15 +72,7 @@ public static JavaSourceSet build(String sourceSetName, Collection<Path> classpa
                 typeNames = packagesToTypeDeclarations(scanResult);
             }
         } else {
-            // Load types from the classpath
-            try (ScanResult scanResult = new ClassGraph()
-                    .overrideClasspath(classpath)
-                    .enableSystemJarsAndModules()
-                    .enableClassInfo()
-                    .ignoreClassVisibility()
-                    .scan()) {
-                typeNames = packagesToTypeDeclarations(scanResult);
-            }
+            typeNames = typeNamesFromClasspath(classpath);
         }
 
         // Peculiarly, Classgraph will not return a ClassInfo for java.lang.Object, although it does for all other java.lang types
@@ -86,6 +80,79 @@ public static JavaSourceSet build(String sourceSetName, Collection<Path> classpa
         return new JavaSourceSet(randomId(), sourceSetName, typesFrom(typeNames));
     }
 
+    /**
+     * Type names contributed by jars are recorded in the {@link ClasspathIndex}, so only the classpath entries that
+     * haven't been indexed yet are scanned. A jar's type names are recorded from a scan of that jar alone, since a
+     * scan of several classpath entries only reports the first of several classes with the same name.
+     */
+    private static List<String> typeNamesFromClasspath(Collection<Path> classpath) {
+        ClasspathIndex index = ClasspathIndex.getDefault();
+        String jdkKey = "jdk:" + System.getProperty("java.home") + ":" + System.getProperty("java.version");
+
+        Set<String> typeNames = new LinkedHashSet<>();
+        List<Path> unindexed = new ArrayList<>();
+        for (Path entry : classpath) {
+            ClasspathIndex.Entry indexed = index.get(entry);
+            if (indexed == null) {
+                // not a jar, so not indexed
+                unindexed.add(entry);
+                continue;
+            }
+            List<String> declarableTypeNames = indexed.getDeclarableTypeNames();
+            if (declarableTypeNames == null) {
+                try (ScanResult scanResult = new ClassGraph()
+                        .overrideClasspath(Collections.singletonList(entry))
+                        .enableClassInfo()
+                        .ignoreClassVisibility()
+                        .scan()) {
+                    declarableTypeNames = packagesToTypeDeclarations(scanResult);
+                }
+                index.putDeclarableTypeNames(indexed, declarableTypeNames);
+            }
+            typeNames.addAll(declarableTypeNames);
+        }
+
+        List<String> jdkTypeNames = JDK_TYPE_NAMES.get(jdkKey);
+        if (!unindexed.isEmpty() || jdkTypeNames == null) {
+            // Load types from the classpath
+            Collection<Path> scanned = unindexed.isEmpty() ? classpath : unindexed;
+            Set<File> scannedFiles = new HashSet<>();
+            for (Path entry : scanned) {
+                scannedFiles.add(entry.toFile().getAbsoluteFile());
+            }
+            ClassGraph classGraph = new ClassGraph()
+                    .overrideClasspath(scanned)
+                    .enableClassInfo()
+                    .ignoreClassVisibility();
+            if (jdkTypeNames == null) {
+                classGraph.enableSystemJarsAndModules();
+            }
+            try (ScanResult scanResult = classGraph.scan()) {
+                List<String> scannedJdkTypeNames = new ArrayList<>();
+                for (ClassInfo classInfo : scanResult.getAllClasses()) {
+                    String typeDeclaration = typeDeclaration(classInfo);
+                    if (typeDeclaration == null) {
+                        continue;
+                    }
+                    File classpathElement = classInfo.getClasspathElementFile();
+                    if (classpathElement == null || !scannedFiles.contains(classpathElement.getAbsoluteFile())) {
+                        // system modules, or the runtime jars of a Java 8 JDK
+                        scannedJdkTypeNames.add(typeDeclaration);
+                    } else {
+                        typeNames.add(typeDeclaration);
+                    }
+                }
+
+                if (jdkTypeNames == null) {
+                    jdkTypeNames = scannedJdkTypeNames;
+                    JDK_TYPE_NAMES.put(jdkKey, jdkTypeNames);
+                }
+            }
+        }
+        typeNames.addAll(jdkTypeNames);
+        return new ArrayList<>(typeNames);
+    }
+
     /*
      * Create a map of package names to types contained within that package. Type names are not fully qualified, except for type parameter bounds.
      * e.g.: "java.util" -> [List, Date]
@@ -93,28 +160,32 @@ public static JavaSourceSet build(String sourceSetName, Collection<Path> classpa
     private static List<String> packagesToTypeDeclarations(ScanResult scanResult) {
         List<String> result = new ArrayList<>();
         for (ClassInfo classInfo : scanResult.getAllClasses()) {
-            // Skip private classes, allowing package-private
-            if (classInfo.isAnonymousInnerClass() || classInfo.isPrivate() || classInfo.isSynthetic() || classInfo.getName().contains(".enum.")) {
-                continue;
-            }
-            if (classInfo.isStandardClass() && !classInfo.getName().startsWith("java.")) {
-                continue;
-            }
-            // Although the classfile says its bytecode version is 50 (within the range Java 8 supports),
-            // the Java 8 compiler says these class files from kotlin-reflect are invalid
-            // The error is severe enough that all subsequent stubs have missing type information, so exclude that package
-            if (classInfo.getPackageName().startsWith("kotlin.reflect.jvm.internal.impl.resolve.jvm")) {
-                continue;
+            String typeDeclaration = typeDeclaration(classInfo);
+            if (typeDeclaration != null) {
+                result.add(typeDeclaration);
             }
-            String typeDeclaration = declarableFullyQualifiedName(classInfo);
-            if (typeDeclaration == null) {
-                continue;
-            }
-            result.add(typeDeclaration);
         }
         return result;
     }
 
+    @Nullable
+    private static String typeDeclaration(ClassInfo classInfo) {
+        // Skip private classes, allowing package-private
+        if (classInfo.isAnonymousInnerClass() || classInfo.isPrivate() || classInfo.isSynthetic() || classInfo.getName().contains(".enum.")) {
+            return null;
+        }
+        if (classInfo.isStandardClass() && !classInfo.getName().startsWith("java.")) {
+            return null;
+        }
+        // Although the classfile says its bytecode version is 50 (within the range Java 8 supports),
+        // the Java 8 compiler says these class files from kotlin-reflect are invalid
+        // The error is severe enough that all subsequent stubs have missing type information, so exclude that package
+        if (classInfo.getPackageName().startsWith("kotlin.reflect.jvm.internal.impl.resolve.jvm")) {
+            return null;
+        }
+        return declarableFullyQualifiedName(classInfo);
+    }
+
     private static List<JavaType.FullyQualified> typesFrom(List<String> typeNames) {
         List<JavaType.FullyQualified> types = new ArrayList<>(typeNames.size());
         for (String typeName : typeNames) {
@@ -19,11 +19,13 @@
 import org.openrewrite.SourceFile;
 import org.openrewrite.internal.WhitespaceValidationService;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.internal.JavaSourceStateService;
 import org.openrewrite.java.internal.JavaWhitespaceValidationService;
 import org.openrewrite.java.internal.TypesInUse;
 import org.openrewrite.java.service.AnnotationService;
 import org.openrewrite.java.service.AutoFormatService;
 import org.openrewrite.java.service.ImportService;
+import org.openrewrite.scheduling.SourceStateService;
 
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Path;
@@ -74,6 +76,8 @@ default <S, T extends S> T service(Class<S> service) {
             } else if (WhitespaceValidationService.class.getName().equals(service.getName())) {
                 // Only unit tests should need to use this service, so no classloading concerns
                 return (T) new JavaWhitespaceValidationService();
+            } else if (SourceStateService.class.getName().equals(service.getName())) {
+                return (T) new JavaSourceStateService();
             } else {
                 throw new UnsupportedOperationException("Service " + service + " not supported");
             }
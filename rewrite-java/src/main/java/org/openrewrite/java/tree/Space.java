@@ -17,6 +17,7 @@
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.EqualsAndHashCode;
+import org.openrewrite.internal.WhitespaceInterner;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Markers;
 
@@ -43,7 +44,7 @@ public class Space {
      * e.g.: a single space between keywords, or the common indentation of every line in a block.
      * So use flyweights to avoid storing many instances of functionally identical spaces
      */
-    private static final Map<String, Space> flyweights = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final WhitespaceInterner<Space> flyweights = new WhitespaceInterner<>(whitespace -> new Space(whitespace, emptyList()));
 
     static {
         flyweights.put(" ", SINGLE_SPACE);
@@ -59,9 +60,10 @@ public static Space build(@Nullable String whitespace, List<Comment> comments) {
         if (comments.isEmpty()) {
             if (whitespace == null || whitespace.isEmpty()) {
                 return Space.EMPTY;
-            } else if (whitespace.length() <= 100) {
-                //noinspection StringOperationCanBeSimplified
-                return flyweights.computeIfAbsent(whitespace, k -> new Space(new String(whitespace), comments));
+            }
+            Space flyweight = flyweights.intern(whitespace);
+            if (flyweight != null) {
+                return flyweight;
             }
         }
         return new Space(whitespace, comments);
@@ -145,6 +147,11 @@ public static Space format(String formatting, int beginIndex, int toIndex) {
             rangeCheck(formatting.length(), beginIndex, toIndex);
         }
 
+        Space flyweight = flyweights.internCommon(formatting, beginIndex, toIndex);
+        if (flyweight != null) {
+            return flyweight;
+        }
+
         StringBuilder prefix = new StringBuilder();
         StringBuilder comment = new StringBuilder();
         List<Comment> comments = new ArrayList<>(1);
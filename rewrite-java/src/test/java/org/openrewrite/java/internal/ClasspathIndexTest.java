@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClasspathIndexTest {
+
+    @Test
+    void indexesPackagesOfJar(@TempDir Path temp) throws IOException {
+        Path jar = jar(temp.resolve("a.jar"), "org/example/A.class", "org/example/A$B.class", "org/other/C.class");
+
+        ClasspathIndex.Entry entry = new ClasspathIndex(Files.createDirectories(temp.resolve("index"))).get(jar);
+        assertThat(entry).isNotNull();
+        assertThat(entry.containsPackage("org.example")).isTrue();
+        assertThat(entry.containsPackage("org")).isFalse();
+        assertThat(entry.getClassNamesByPackage().get("org.example")).containsExactlyInAnyOrder("A", "A$B");
+        assertThat(entry.getDeclarableTypeNames()).isNull();
+    }
+
+    @Test
+    void indexesClassesOfMultiReleaseJar(@TempDir Path temp) throws IOException {
+        Path jar = jar(temp.resolve("a.jar"), "org/example/A.class", "META-INF/versions/9/org/example/A.class",
+          "META-INF/versions/11/org/example/Only11.class", "META-INF/versions/9/module-info.class");
+
+        ClasspathIndex.Entry entry = new ClasspathIndex(Files.createDirectories(temp.resolve("index"))).get(jar);
+        assertThat(entry).isNotNull();
+        assertThat(entry.containsPackage("META-INF.versions.9.org.example")).isFalse();
+        assertThat(entry.getClassNamesByPackage().get("org.example")).containsExactlyInAnyOrder("A", "Only11");
+        assertThat(entry.getClassNamesByPackage()).doesNotContainKey("");
+    }
+
+    @Test
+    void packagesOfSourcesAreContained(@TempDir Path temp) throws IOException {
+        Path jar = jar(temp.resolve("a-sources.jar"), "org/example/A.java");
+        Path index = Files.createDirectories(temp.resolve("index"));
+
+        ClasspathIndex.Entry entry = new ClasspathIndex(index).get(jar);
+        assertThat(entry).isNotNull();
+        assertThat(entry.containsPackage("org.example")).isTrue();
+        assertThat(entry.getClassNamesByPackage()).isEmpty();
+
+        ClasspathIndex.Entry reread = new ClasspathIndex(index).get(jar);
+        assertThat(reread).isNotNull();
+        assertThat(reread.containsPackage("org.example")).isTrue();
+    }
+
+    @Test
+    void readsPersistedIndex(@TempDir Path temp) throws IOException {
+        Path jar = jar(temp.resolve("a.jar"), "org/example/A.class");
+        Path index = Files.createDirectories(temp.resolve("index"));
+
+        ClasspathIndex first = new ClasspathIndex(index);
+        ClasspathIndex.Entry entry = first.get(jar);
+        assertThat(entry).isNotNull();
+        first.putDeclarableTypeNames(entry, List.of("org.example.A"));
+
+        ClasspathIndex.Entry reread = new ClasspathIndex(index).get(jar);
+        assertThat(reread).isNotNull();
+        assertThat(reread.getKey()).isEqualTo(entry.getKey());
+        assertThat(reread.getDeclarableTypeNames()).containsExactly("org.example.A");
+    }
+
+    @Test
+    void keyChangesWithContent(@TempDir Path temp) throws IOException {
+        ClasspathIndex index = new ClasspathIndex(Files.createDirectories(temp.resolve("index")));
+        ClasspathIndex.Entry a = index.get(jar(temp.resolve("a.jar"), "org/example/A.class"));
+        ClasspathIndex.Entry b = index.get(jar(temp.resolve("b.jar"), "org/example/B.class"));
+        ClasspathIndex.Entry aCopy = index.get(jar(temp.resolve("a-copy.jar"), "org/example/A.class"));
+
+        assertThat(a).isNotNull();
+        assertThat(b).isNotNull();
+        assertThat(aCopy).isNotNull();
+        assertThat(a.getKey()).isNotEqualTo(b.getKey());
+        assertThat(a.getKey()).isEqualTo(aCopy.getKey());
+    }
+
+    @Test
+    void directoriesAreNotIndexed(@TempDir Path temp) {
+        assertThat(new ClasspathIndex(null).get(temp)).isNull();
+    }
+
+    @Test
+    void jarOfArtifact() {
+        assertThat(ClasspathIndex.isJarOf("guava-31.0-jre.jar", "guava")).isTrue();
+        assertThat(ClasspathIndex.isJarOf("guava-31.0-jre.jar", "guava-31.0-jre")).isTrue();
+        assertThat(ClasspathIndex.isJarOf("guava-31.0-jre.pom", "guava")).isFalse();
+        assertThat(ClasspathIndex.isJarOf("failureaccess-1.0.jar", "guava")).isFalse();
+    }
+
+    private static Path jar(Path jar, String... entries) throws IOException {
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            for (String entry : entries) {
+                ZipEntry zipEntry = new ZipEntry(entry);
+                // fixed timestamps, so that jars with the same entries have the same central directory
+                zipEntry.setTime(0);
+                out.putNextEntry(zipEntry);
+                out.write(new byte[]{(byte) 0xCA, (byte) 0xFE});
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -19,8 +19,10 @@
 import org.intellij.lang.annotations.Language;
 import org.openrewrite.Parser;
 import org.openrewrite.*;
+import org.openrewrite.internal.EncodingDetectingInputStream;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.json.internal.JsonParserVisitor;
+import org.openrewrite.json.internal.LazyJson;
 import org.openrewrite.json.internal.grammar.JSON5Lexer;
 import org.openrewrite.json.internal.grammar.JSON5Parser;
 import org.openrewrite.json.tree.Json;
@@ -33,11 +35,28 @@
 import java.util.stream.Stream;
 
 public class JsonParser implements Parser {
+    /**
+     * Objects and arrays inside the top-level value that are at least this long are left unparsed,
+     * or 0 to parse everything.
+     */
+    private final int lazySubtreeThreshold;
+
+    public JsonParser() {
+        this(0);
+    }
+
+    private JsonParser(int lazySubtreeThreshold) {
+        this.lazySubtreeThreshold = lazySubtreeThreshold;
+    }
+
     @Override
     public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
         ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
         return acceptedInputs(sourceFiles).map(input -> {
             parsingListener.startedParsing(input);
+            if (lazySubtreeThreshold > 0) {
+                return parseLazily(input, relativeTo, ctx);
+            }
             try (InputStream sourceStream = input.getSource(ctx)) {
                 JSON5Parser parser = new JSON5Parser(new CommonTokenStream(new JSON5Lexer(
                         CharStreams.fromStream(sourceStream))));
@@ -59,6 +78,31 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
         });
     }
 
+    private SourceFile parseLazily(Input input, @Nullable Path relativeTo, ExecutionContext ctx) {
+        ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
+        try (EncodingDetectingInputStream sourceStream = input.getSource(ctx)) {
+            LazyJson lazy = new LazyJson(sourceStream.readFully(), lazySubtreeThreshold);
+            JSON5Parser parser = new JSON5Parser(new CommonTokenStream(new JSON5Lexer(
+                    CharStreams.fromString(lazy.getReducedSource()))));
+
+            parser.removeErrorListeners();
+            parser.addErrorListener(new ForwardingErrorListener(input.getPath(), ctx));
+
+            Json.Document document = lazy.restore(new JsonParserVisitor(
+                    input.getRelativePath(relativeTo),
+                    input.getFileAttributes(),
+                    lazy.getReducedSource(),
+                    sourceStream.getCharset(),
+                    sourceStream.isCharsetBomMarked()
+            ).visitJson5(parser.json5()));
+            parsingListener.parsed(input, document);
+            return requirePrintEqualsInput(document, input, relativeTo, ctx);
+        } catch (Throwable t) {
+            ctx.getOnError().accept(t);
+            return ParseError.build(this, input, relativeTo, ctx, t);
+        }
+    }
+
     @Override
     public Stream<SourceFile> parse(@Language("Json") String... sources) {
         return parse(new InMemoryExecutionContext(), sources);
@@ -96,14 +140,29 @@ public static Builder builder() {
     }
 
     public static class Builder extends org.openrewrite.Parser.Builder {
+        private int lazySubtreeThreshold;
 
         public Builder() {
             super(Json.Document.class);
         }
 
+        /**
+         * Leave objects and arrays that are at least this many characters long unparsed as {@link Json.Unparsed}
+         * until a visitor descends into them. Useful for very large files like lockfiles, where most recipes
+         * only look at a few keys. YAML documents are always parsed in full; leaving YAML mappings unparsed is
+         * tracked as its own change, since anchors and aliases may refer across them.
+         *
+         * @param threshold The minimum length of an object or array to leave unparsed, or 0 to parse everything.
+         * @return This builder.
+         */
+        public Builder lazySubtrees(int threshold) {
+            this.lazySubtreeThreshold = threshold;
+            return this;
+        }
+
         @Override
         public JsonParser build() {
-            return new JsonParser();
+            return new JsonParser(lazySubtreeThreshold);
         }
 
         @Override
@@ -92,6 +92,18 @@ public Json visitObject(Json.JsonObject obj, P p) {
         return o;
     }
 
+    /**
+     * Descend into the parsed object or array. If the visit leaves it unchanged, the value stays unparsed.
+     */
+    public Json visitUnparsed(Json.Unparsed unparsed, P p) {
+        JsonValue parsed = unparsed.parse();
+        Cursor cursor = getCursor();
+        // the parsed value takes the place of the unparsed one, so that cursor paths look like those of a parsed document
+        Json visited = visit(parsed, p, cursor.getParentOrThrow());
+        setCursor(cursor);
+        return visited == parsed ? unparsed : visited;
+    }
+
     public Space visitSpace(Space space, P p) {
         return space;
     }
@@ -58,6 +58,14 @@ public JsonParserVisitor(Path path, @Nullable FileAttributes fileAttributes, Enc
         this.charsetBomMarked = source.isCharsetBomMarked();
     }
 
+    public JsonParserVisitor(Path path, @Nullable FileAttributes fileAttributes, String source, Charset charset, boolean charsetBomMarked) {
+        this.path = path;
+        this.fileAttributes = fileAttributes;
+        this.source = source;
+        this.charset = charset;
+        this.charsetBomMarked = charsetBomMarked;
+    }
+
     @Override
     public Json visitArr(JSON5Parser.ArrContext ctx) {
         return convert(ctx, (arr, prefix) -> {
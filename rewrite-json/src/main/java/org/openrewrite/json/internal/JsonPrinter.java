@@ -92,6 +92,14 @@ public Json visitObject(Json.JsonObject obj, PrintOutputCapture<P> p) {
         return obj;
     }
 
+    @Override
+    public Json visitUnparsed(Json.Unparsed unparsed, PrintOutputCapture<P> p) {
+        beforeSyntax(unparsed, p);
+        p.append(unparsed.getSource());
+        afterSyntax(unparsed, p);
+        return unparsed;
+    }
+
     public Space visitSpace(Space space, PrintOutputCapture<P> p) {
         p.append(space.getWhitespace());
 
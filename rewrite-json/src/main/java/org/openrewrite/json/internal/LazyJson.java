@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.json.internal;
+
+import org.antlr.v4.runtime.*;
+import org.openrewrite.json.JsonVisitor;
+import org.openrewrite.json.internal.grammar.JSON5Lexer;
+import org.openrewrite.json.internal.grammar.JSON5Parser;
+import org.openrewrite.json.tree.Comment;
+import org.openrewrite.json.tree.Json;
+import org.openrewrite.json.tree.JsonValue;
+import org.openrewrite.json.tree.Space;
+import org.openrewrite.marker.Markers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Parses JSON leaving large objects and arrays unparsed as {@link Json.Unparsed}.
+ * <p>
+ * Before parsing, every object or array directly inside the top-level value whose text is at least as long as the
+ * threshold is cut out of the source and replaced with an empty object preceded by a placeholder comment. Only what
+ * remains is parsed, after which the placeholders are replaced with {@link Json.Unparsed} values holding the text
+ * that was cut out. Parsing that text in turn leaves its own large children unparsed.
+ * <p>
+ * Since the text that is cut out isn't parsed until a visitor descends into it, its syntax is checked when it is
+ * cut out of a source file, so that invalid JSON fails to parse rather than failing later in a recipe.
+ */
+public class LazyJson {
+    private final String source;
+    private final int threshold;
+    private final String placeholder = "lazy-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + "-";
+    private final List<String> slices = new ArrayList<>();
+    private final String reduced;
+
+    /**
+     * @throws IllegalStateException if the text of an object or array that is left unparsed isn't valid JSON.
+     */
+    public LazyJson(String source, int threshold) {
+        this(source, threshold, true);
+    }
+
+    private LazyJson(String source, int threshold, boolean checkSyntax) {
+        this.source = source;
+        this.threshold = threshold;
+        this.reduced = reduce(checkSyntax);
+    }
+
+    /**
+     * @return The source with large objects and arrays replaced by placeholders, to be parsed in their place.
+     */
+    public String getReducedSource() {
+        return reduced;
+    }
+
+    /**
+     * @return The document with placeholders replaced by the text they stand for.
+     */
+    public Json.Document restore(Json.Document document) {
+        if (slices.isEmpty()) {
+            return document;
+        }
+        return (Json.Document) new JsonVisitor<Integer>() {
+            @Override
+            public Json visitObject(Json.JsonObject obj, Integer p) {
+                List<Comment> comments = obj.getPrefix().getComments();
+                if (!comments.isEmpty()) {
+                    Comment last = comments.get(comments.size() - 1);
+                    if (last.isMultiline() && last.getText().startsWith(placeholder)) {
+                        int slice = Integer.parseInt(last.getText().substring(placeholder.length()));
+                        Space prefix = obj.getPrefix().withComments(comments.subList(0, comments.size() - 1));
+                        return new Json.Unparsed(randomId(), prefix, Markers.EMPTY, slices.get(slice), threshold);
+                    }
+                }
+                return super.visitObject(obj, p);
+            }
+        }.visitNonNull(document, 0);
+    }
+
+    /**
+     * Parse the text of an unparsed object or array. The ids of the parsed trees are derived from the id of the
+     * unparsed value and their position in it, so parsing the same value again yields the same ids.
+     *
+     * @param id The id of the unparsed value, which the parsed value takes over.
+     * @throws IllegalStateException if the text isn't valid JSON.
+     */
+    public static JsonValue parseValue(String source, int threshold, UUID id) {
+        // the syntax of the whole value was checked when it was cut out of its source file
+        LazyJson lazy = new LazyJson(source, threshold, false);
+        JSON5Parser parser = new JSON5Parser(new CommonTokenStream(new JSON5Lexer(
+                CharStreams.fromString(lazy.getReducedSource()))));
+        parser.removeErrorListeners();
+        parser.addErrorListener(new BaseErrorListener() {
+            @Override
+            public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol,
+                                    int line, int charPositionInLine, String msg, RecognitionException e) {
+                throw new IllegalStateException(String.format("Syntax error in unparsed JSON value at line %d:%d %s.",
+                        line, charPositionInLine, msg), e);
+            }
+        });
+        Json.Document document = new JsonParserVisitor(Paths.get("value.json"), null, lazy.getReducedSource(),
+                StandardCharsets.UTF_8, false).visitJson5(parser.json5());
+        return withDerivedIds(lazy.restore(document).getValue(), id);
+    }
+
+    private static JsonValue withDerivedIds(JsonValue value, UUID id) {
+        return (JsonValue) new JsonVisitor<Integer>() {
+            long position;
+
+            @Override
+            public Json preVisit(Json tree, Integer p) {
+                long n = position++;
+                return n == 0 ? tree.withId(id) : tree.withId(new UUID(id.getMostSignificantBits(),
+                        mix(id.getLeastSignificantBits() + n * 0x9E3779B97F4A7C15L)));
+            }
+
+            @Override
+            public Json visitUnparsed(Json.Unparsed unparsed, Integer p) {
+                // parsed when a visitor descends into it, deriving ids from the one it got here
+                return unparsed;
+            }
+        }.visitNonNull(value, 0);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private String reduce(boolean checkSyntax) {
+        StringBuilder reduced = null;
+        int copiedUntil = 0;
+        int depth = 0;
+        int start = -1;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = endOfString(i, c);
+            } else if (c == '/' && i + 1 < source.length() && source.charAt(i + 1) == '/') {
+                int newline = source.indexOf('\n', i);
+                i = newline < 0 ? source.length() : newline;
+            } else if (c == '/' && i + 1 < source.length() && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? source.length() : end + 1;
+            } else if (c == '{' || c == '[') {
+                if (++depth == 2) {
+                    start = i;
+                }
+            } else if (c == '}' || c == ']') {
+                if (depth-- == 2 && i + 1 - start >= threshold) {
+                    if (reduced == null) {
+                        reduced = new StringBuilder(source.length() / 4);
+                    }
+                    reduced.append(source, copiedUntil, start)
+                            .append("/*").append(placeholder).append(slices.size()).append("*/{}");
+                    String slice = source.substring(start, i + 1);
+                    if (checkSyntax) {
+                        new SyntaxCheck(slice).check();
+                    }
+                    slices.add(slice);
+                    copiedUntil = i + 1;
+                }
+            }
+        }
+        return reduced == null ? source : reduced.append(source, copiedUntil, source.length()).toString();
+    }
+
+    private int endOfString(int start, char quote) {
+        for (int i = start + 1; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i;
+            }
+        }
+        return source.length();
+    }
+
+    /**
+     * A check that text is a single JSON5 value, which is much cheaper than parsing it since it builds nothing.
+     * Numbers, literals and identifiers aren't checked any further than that they are separated by punctuation,
+     * which is enough to keep the structure of the document intact.
+     */
+    private static class SyntaxCheck {
+        private final String text;
+        private int pos;
+
+        private SyntaxCheck(String text) {
+            this.text = text;
+        }
+
+        private void check() {
+            value();
+            skipWhitespaceAndComments();
+            if (pos < text.length()) {
+                throw error("the end of the value");
+            }
+        }
+
+        private void members(char close, boolean keys) {
+            pos++;
+            while (true) {
+                skipWhitespaceAndComments();
+                if (pos < text.length() && text.charAt(pos) == close) {
+                    pos++;
+                    return;
+                }
+                if (keys) {
+                    if (pos < text.length() && (text.charAt(pos) == '"' || text.charAt(pos) == '\'')) {
+                        string(text.charAt(pos));
+                    } else {
+                        word();
+                    }
+                    skipWhitespaceAndComments();
+                    expect(':');
+                }
+                value();
+                skipWhitespaceAndComments();
+                if (pos < text.length() && text.charAt(pos) == ',') {
+                    pos++;
+                } else {
+                    expect(close);
+                    return;
+                }
+            }
+        }
+
+        private void value() {
+            skipWhitespaceAndComments();
+            if (pos == text.length()) {
+                throw error("a value");
+            }
+            char c = text.charAt(pos);
+            if (c == '{') {
+                members('}', true);
+            } else if (c == '[') {
+                members(']', false);
+            } else if (c == '"' || c == '\'') {
+                string(c);
+            } else {
+                word();
+            }
+        }
+
+        private void string(char quote) {
+            for (pos++; pos < text.length(); pos++) {
+                char c = text.charAt(pos);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == quote) {
+                    pos++;
+                    return;
+                }
+            }
+            throw error("the end of a string");
+        }
+
+        private void word() {
+            int start = pos;
+            while (pos < text.length() && "{}[]:,\"'/".indexOf(text.charAt(pos)) < 0 &&
+                   !Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos == start) {
+                throw error("a value");
+            }
+        }
+
+        private void expect(char c) {
+            if (pos == text.length() || text.charAt(pos) != c) {
+                throw error("'" + c + "'");
+            }
+            pos++;
+        }
+
+        private void skipWhitespaceAndComments() {
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                } else if (text.startsWith("//", pos)) {
+                    int newline = text.indexOf('\n', pos);
+                    pos = newline < 0 ? text.length() : newline + 1;
+                } else if (text.startsWith("/*", pos)) {
+                    int end = text.indexOf("*/", pos + 2);
+                    if (end < 0) {
+                        throw error("the end of a comment");
+                    }
+                    pos = end + 2;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private IllegalStateException error(String expected) {
+            return new IllegalStateException(String.format("Syntax error in unparsed JSON value at offset %d: expected %s.",
+                    pos, expected));
+        }
+    }
+}
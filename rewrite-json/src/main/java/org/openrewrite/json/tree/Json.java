@@ -22,8 +22,10 @@
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.json.JsonVisitor;
 import org.openrewrite.json.internal.JsonPrinter;
+import org.openrewrite.json.internal.LazyJson;
 import org.openrewrite.marker.Markers;
 
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -403,4 +405,67 @@ public JsonObject withMembers(List<JsonRightPadded<Json>> members) {
             }
         }
     }
+
+    /**
+     * An object or array that hasn't been parsed yet, in a document parsed with
+     * {@link org.openrewrite.json.JsonParser.Builder#lazySubtrees(int)}. It is parsed when a visitor descends
+     * into it, and printed by copying its text.
+     */
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    @EqualsAndHashCode(callSuper = false, onlyExplicitlyIncluded = true)
+    @RequiredArgsConstructor
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    class Unparsed implements JsonValue {
+        @Nullable
+        @NonFinal
+        transient SoftReference<JsonValue> parsed;
+
+        @Getter
+        @With
+        @EqualsAndHashCode.Include
+        UUID id;
+
+        @Getter
+        @With
+        Space prefix;
+
+        @Getter
+        @With
+        Markers markers;
+
+        /**
+         * The text of the object or array, excluding its prefix.
+         */
+        @Getter
+        String source;
+
+        /**
+         * Objects and arrays inside this one that are at least this long remain unparsed when this one is parsed.
+         */
+        @Getter
+        int threshold;
+
+        /**
+         * @return The parsed object or array, with this id, prefix and markers. The parsed value is only softly
+         * reachable from this one, but parsing it again yields trees with the same ids.
+         */
+        public JsonValue parse() {
+            JsonValue value = parsed == null ? null : parsed.get();
+            if (value == null) {
+                value = LazyJson.parseValue(source, threshold, id);
+                parsed = new SoftReference<>(value);
+            }
+            return value.<JsonValue>withPrefix(prefix).withMarkers(markers);
+        }
+
+        @Override
+        public <P> Json acceptJson(JsonVisitor<P> v, P p) {
+            return v.visitUnparsed(this, p);
+        }
+
+        @Override
+        public String toString() {
+            return "Unparsed{prefix=" + prefix + ",length=" + source.length() + "}";
+        }
+    }
 }
@@ -16,11 +16,25 @@
 package org.openrewrite.json;
 
 import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Issue;
 import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.json.tree.Json;
+import org.openrewrite.json.tree.JsonValue;
+import org.openrewrite.json.tree.Space;
+import org.openrewrite.marker.Markers;
+import org.openrewrite.tree.ParseError;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.json.Assertions.json;
 
 @SuppressWarnings({"JsonStandardCompliance", "JsonDuplicatePropertyKeys"})
@@ -176,4 +190,117 @@ void unicodeEscapes() {
           )
         );
     }
+
+    @Test
+    void lazySubtrees() {
+        rewriteRun(
+          spec -> spec
+            .parser(JsonParser.builder().lazySubtrees(16))
+            .recipe(new ChangeValue("$.packages.b.version", "\"2.0.0\"")),
+          json(
+            """
+              {
+                "name": "lockfile",
+                "packages": {
+                  "a": { "version": "1.0.0", "dependencies": { "b": "^1.0.0" } }, // "{"
+                  "b": { "version": "1.0.0", "resolved": "https://example.com/b-1.0.0.tgz" },
+                  "c": [ "/* not a comment */", { "version": "1.0.0" } ]
+                }
+              }
+              """,
+            """
+              {
+                "name": "lockfile",
+                "packages": {
+                  "a": { "version": "1.0.0", "dependencies": { "b": "^1.0.0" } }, // "{"
+                  "b": { "version": "2.0.0", "resolved": "https://example.com/b-1.0.0.tgz" },
+                  "c": [ "/* not a comment */", { "version": "1.0.0" } ]
+                }
+              }
+              """,
+            spec -> spec.afterRecipe(doc -> {
+                Json.JsonObject packages = (Json.JsonObject) ((Json.Member) ((Json.JsonObject) doc.getValue())
+                  .getMembers().get(1)).getValue();
+                assertThat(((Json.Member) packages.getMembers().get(0)).getValue()).isInstanceOf(Json.Unparsed.class);
+                assertThat(((Json.Member) packages.getMembers().get(1)).getValue()).isInstanceOf(Json.JsonObject.class);
+            })
+          )
+        );
+    }
+
+    @Test
+    void invalidUnparsedValueIsAParseError() {
+        String source = """
+          {
+            "packages": {
+              "a": { "version": "1.0.0", "dependencies": { "b": } }
+            }
+          }
+          """;
+        List<Throwable> errors = new ArrayList<>();
+        SourceFile parsed = JsonParser.builder().lazySubtrees(16).build()
+          .parse(new InMemoryExecutionContext(errors::add), source)
+          .findFirst()
+          .orElseThrow();
+        assertThat(parsed).isInstanceOf(ParseError.class);
+        assertThat(errors).isNotEmpty();
+    }
+
+    @Test
+    void unparsedValuesAreVisitedLikeParsedOnes() {
+        String source = """
+          {
+            "packages": {
+              "a": { "version": "1.0.0", "dependencies": { "b": "^1.0.0" } }
+            }
+          }
+          """;
+        Json.Document lazy = (Json.Document) JsonParser.builder().lazySubtrees(16).build()
+          .parse(source).findFirst().orElseThrow();
+        Json.Document eager = (Json.Document) JsonParser.builder().build()
+          .parse(source).findFirst().orElseThrow();
+        assertThat(preVisitedPaths(lazy)).isEqualTo(preVisitedPaths(eager));
+    }
+
+    private static List<String> preVisitedPaths(Json.Document document) {
+        List<String> paths = new ArrayList<>();
+        new JsonVisitor<List<String>>() {
+            @Override
+            public Json preVisit(Json tree, List<String> p) {
+                if (tree instanceof Json.Unparsed) {
+                    return tree;
+                }
+                p.add(getCursor().getPathAsStream()
+                  .map(v -> v.getClass().getSimpleName())
+                  .collect(Collectors.joining("<")));
+                return tree;
+            }
+        }.visit(document, paths);
+        return paths;
+    }
+
+    @Test
+    void unparsedValueIsParsedWithTheSameIdsEveryTime() {
+        UUID id = Tree.randomId();
+        String source = "{ \"version\": \"1.0.0\", \"dependencies\": { \"b\": \"^1.0.0\" } }";
+
+        // a second unparsed value with the same id stands in for one whose parsed value was garbage collected
+        JsonValue first = new Json.Unparsed(id, Space.EMPTY, Markers.EMPTY, source, Integer.MAX_VALUE).parse();
+        JsonValue second = new Json.Unparsed(id, Space.EMPTY, Markers.EMPTY, source, Integer.MAX_VALUE).parse();
+
+        assertThat(first.getId()).isEqualTo(id);
+        assertThat(ids(first)).hasSizeGreaterThan(1).doesNotHaveDuplicates().isEqualTo(ids(second));
+    }
+
+    private static List<UUID> ids(JsonValue value) {
+        List<UUID> ids = new ArrayList<>();
+        new JsonVisitor<List<UUID>>() {
+            @Override
+            public Json preVisit(Json tree, List<UUID> p) {
+                p.add(tree.getId());
+                return tree;
+            }
+        }.visit(value, ids);
+        return ids;
+    }
 }
@@ -17,6 +17,7 @@
 
 import org.openrewrite.DelegatingExecutionContext;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.maven.cache.InMemoryMavenPomCache;
 import org.openrewrite.maven.cache.MavenPomCache;
@@ -47,6 +48,9 @@ public class MavenExecutionContextView extends DelegatingExecutionContext {
     private static final String MAVEN_POM_CACHE = "org.openrewrite.maven.pomCache";
     private static final String MAVEN_RESOLUTION_LISTENER = "org.openrewrite.maven.resolutionListener";
     private static final String MAVEN_RESOLUTION_TIME = "org.openrewrite.maven.resolutionTime";
+    private static final String MAVEN_PRESENT_ARTIFACT_TTL = "org.openrewrite.maven.presentArtifactTtl";
+    private static final String MAVEN_ABSENT_ARTIFACT_TTL = "org.openrewrite.maven.absentArtifactTtl";
+    private static final String MAVEN_HEDGED_REQUESTS = "org.openrewrite.maven.hedgedRequests";
 
     public MavenExecutionContextView(ExecutionContext delegate) {
         super(delegate);
@@ -135,6 +139,45 @@ public MavenPomCache getPomCache() {
         return getMessage(MAVEN_POM_CACHE, DEFAULT_POM_CACHE);
     }
 
+    /**
+     * @param present How long the pom cache may remember that a repository contains an artifact.
+     * @param absent  How long the pom cache may remember that a repository does not contain an artifact, and so
+     *                not probe that repository for it again.
+     */
+    @Incubating(since = "8.13.0")
+    public MavenExecutionContextView setArtifactPresenceTtl(Duration present, Duration absent) {
+        putMessage(MAVEN_PRESENT_ARTIFACT_TTL, present);
+        putMessage(MAVEN_ABSENT_ARTIFACT_TTL, absent);
+        return this;
+    }
+
+    @Incubating(since = "8.13.0")
+    public Duration getPresentArtifactTtl() {
+        return getMessage(MAVEN_PRESENT_ARTIFACT_TTL, Duration.ofDays(1));
+    }
+
+    @Incubating(since = "8.13.0")
+    public Duration getAbsentArtifactTtl() {
+        return getMessage(MAVEN_ABSENT_ARTIFACT_TTL, Duration.ofHours(1));
+    }
+
+    /**
+     * @param hedgedRequests How many repositories besides the first to request a POM from in parallel, chosen by how
+     *                       often they have had the POMs requested of them before. The repositories' order of precedence
+     *                       still decides which of their responses is used. Zero, the default, requests POMs from one
+     *                       repository at a time.
+     */
+    @Incubating(since = "8.13.0")
+    public MavenExecutionContextView setHedgedRequests(int hedgedRequests) {
+        putMessage(MAVEN_HEDGED_REQUESTS, hedgedRequests);
+        return this;
+    }
+
+    @Incubating(since = "8.13.0")
+    public int getHedgedRequests() {
+        return getMessage(MAVEN_HEDGED_REQUESTS, 0);
+    }
+
     public MavenExecutionContextView setLocalRepository(MavenRepository localRepository) {
         putMessage(MAVEN_LOCAL_REPOSITORY, localRepository);
         return this;
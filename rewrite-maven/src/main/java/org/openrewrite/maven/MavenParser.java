@@ -24,6 +24,7 @@
 import org.openrewrite.maven.tree.MavenResolutionResult;
 import org.openrewrite.maven.tree.Parent;
 import org.openrewrite.maven.tree.Pom;
+import org.openrewrite.maven.tree.ResolvedDependencyInterner;
 import org.openrewrite.maven.tree.ResolvedPom;
 import org.openrewrite.tree.ParseError;
 import org.openrewrite.xml.XmlParser;
@@ -108,12 +109,15 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path re
         MavenSettings sanitizedSettings = mavenCtx.getSettings() == null ? null : mavenCtx.getSettings()
                 .withServers(null);
 
+        // modules share the subtrees their dependency graphs have in common
+        ResolvedDependencyInterner interner = new ResolvedDependencyInterner();
         for (Map.Entry<Xml.Document, Pom> docToPom : projectPoms.entrySet()) {
             try {
                 ResolvedPom resolvedPom = docToPom.getValue().resolve(activeProfiles, downloader, ctx);
                 MavenResolutionResult model = new MavenResolutionResult(randomId(), null, resolvedPom, emptyList(), null, emptyMap(), sanitizedSettings, mavenCtx.getActiveProfiles());
                 if (!skipDependencyResolution) {
                     model = model.resolveDependencies(downloader, ctx);
+                    model = model.withDependencies(interner.intern(model.getDependencies()));
                 }
                 parsed.add(docToPom.getKey().withMarkers(docToPom.getKey().getMarkers().compute(model, (old, n) -> n)));
             } catch (MavenDownloadingExceptions e) {
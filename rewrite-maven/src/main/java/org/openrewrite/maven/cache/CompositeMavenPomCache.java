@@ -18,9 +18,11 @@
 import lombok.RequiredArgsConstructor;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.maven.MavenDownloadingException;
+import org.openrewrite.maven.internal.ResolutionMeters;
 import org.openrewrite.maven.tree.*;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Optional;
 
 @SuppressWarnings("OptionalAssignedToNull")
@@ -33,10 +35,12 @@ public class CompositeMavenPomCache implements MavenPomCache {
     @Override
     public ResolvedPom getResolvedDependencyPom(ResolvedGroupArtifactVersion dependency) {
         ResolvedPom l1r = l1.getResolvedDependencyPom(dependency);
+        recordLookup("dependency", l1, l1r != null);
         if(l1r != null) {
             return l1r;
         }
         ResolvedPom l2r = l2.getResolvedDependencyPom(dependency);
+        recordLookup("dependency", l2, l2r != null);
         if(l2r != null) {
             l1.putResolvedDependencyPom(dependency, l2r);
         }
@@ -53,10 +57,12 @@ public void putResolvedDependencyPom(ResolvedGroupArtifactVersion dependency, Re
     @Override
     public Optional<MavenMetadata> getMavenMetadata(URI repo, GroupArtifactVersion gav) {
         Optional<MavenMetadata> l1m = l1.getMavenMetadata(repo, gav);
+        recordLookup("metadata", l1, l1m != null);
         if(l1m != null) {
             return l1m;
         }
         Optional<MavenMetadata> l2m = l2.getMavenMetadata(repo, gav);
+        recordLookup("metadata", l2, l2m != null);
         if(l2m != null && l2m.isPresent()) {
             l1.putMavenMetadata(repo, gav, l2m.get());
         }
@@ -73,10 +79,12 @@ public void putMavenMetadata(URI repo, GroupArtifactVersion gav, MavenMetadata m
     @Override
     public Optional<Pom> getPom(ResolvedGroupArtifactVersion gav) throws MavenDownloadingException {
         Optional<Pom> l1p = l1.getPom(gav);
+        recordLookup("pom", l1, l1p != null);
         if(l1p != null) {
             return l1p;
         }
         Optional<Pom> l2p = l2.getPom(gav);
+        recordLookup("pom", l2, l2p != null);
         if(l2p != null && l2p.isPresent()) {
             l1.putPom(gav, l2p.get());
         }
@@ -108,4 +116,22 @@ public void putNormalizedRepository(MavenRepository repository, MavenRepository
         l1.putNormalizedRepository(repository, normalized);
         l2.putNormalizedRepository(repository, normalized);
     }
+
+    @Nullable
+    @Override
+    public Boolean getArtifactPresence(URI repository, GroupArtifactVersion gav) {
+        // not promoted to l1, because the time the answer has left to live in l2 is unknown
+        Boolean l1p = l1.getArtifactPresence(repository, gav);
+        return l1p != null ? l1p : l2.getArtifactPresence(repository, gav);
+    }
+
+    @Override
+    public void putArtifactPresence(URI repository, GroupArtifactVersion gav, boolean present, Duration ttl) {
+        l1.putArtifactPresence(repository, gav, present, ttl);
+        l2.putArtifactPresence(repository, gav, present, ttl);
+    }
+
+    private static void recordLookup(String cache, MavenPomCache tier, boolean hit) {
+        ResolutionMeters.cacheLookup(cache, tier.getClass().getSimpleName(), hit);
+    }
 }
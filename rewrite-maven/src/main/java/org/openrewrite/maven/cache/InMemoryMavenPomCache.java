@@ -17,6 +17,7 @@
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.Value;
@@ -24,6 +25,7 @@
 import org.openrewrite.maven.tree.*;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Optional;
 
 public class InMemoryMavenPomCache implements MavenPomCache {
@@ -37,6 +39,7 @@ public static class MetadataKey {
     private final Cache<MetadataKey, Optional<MavenMetadata>> mavenMetadataCache;
     private final Cache<MavenRepository, Optional<MavenRepository>> repositoryCache;
     private final Cache<ResolvedGroupArtifactVersion, ResolvedPom> dependencyCache;
+    private final Cache<MetadataKey, ArtifactPresence> presenceCache;
 
     public InMemoryMavenPomCache() {
         this(
@@ -69,6 +72,26 @@ public InMemoryMavenPomCache(String cacheNickname,
         this.mavenMetadataCache = CaffeineCacheMetrics.monitor(Metrics.globalRegistry, mavenMetadataCache, "Maven metadata - " + cacheNickname);
         this.repositoryCache = CaffeineCacheMetrics.monitor(Metrics.globalRegistry, repositoryCache, "Maven repositories - " + cacheNickname);
         this.dependencyCache = CaffeineCacheMetrics.monitor(Metrics.globalRegistry, dependencyCache, "Resolved dependency POMs - " + cacheNickname);
+        this.presenceCache = CaffeineCacheMetrics.monitor(Metrics.globalRegistry, Caffeine.newBuilder()
+                .recordStats()
+                .maximumSize(100_000)
+                .expireAfter(new Expiry<MetadataKey, ArtifactPresence>() {
+                    @Override
+                    public long expireAfterCreate(MetadataKey key, ArtifactPresence value, long currentTime) {
+                        return value.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(MetadataKey key, ArtifactPresence value, long currentTime, long currentDuration) {
+                        return value.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(MetadataKey key, ArtifactPresence value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build(), "Maven artifact presence - " + cacheNickname);
     }
 
     public InMemoryMavenPomCache(Cache<ResolvedGroupArtifactVersion, Optional<Pom>> pomCache,
@@ -121,4 +144,22 @@ public Optional<MavenRepository> getNormalizedRepository(MavenRepository reposit
     public void putNormalizedRepository(MavenRepository repository, MavenRepository normalized) {
         repositoryCache.put(repository, Optional.ofNullable(normalized));
     }
+
+    @Nullable
+    @Override
+    public Boolean getArtifactPresence(URI repository, GroupArtifactVersion gav) {
+        ArtifactPresence presence = presenceCache.getIfPresent(new MetadataKey(repository, gav));
+        return presence == null ? null : presence.isPresent();
+    }
+
+    @Override
+    public void putArtifactPresence(URI repository, GroupArtifactVersion gav, boolean present, Duration ttl) {
+        presenceCache.put(new MetadataKey(repository, gav), new ArtifactPresence(present, ttl.toNanos()));
+    }
+
+    @Value
+    private static class ArtifactPresence {
+        boolean present;
+        long ttlNanos;
+    }
 }
@@ -24,21 +24,34 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.UUID;
 import java.util.function.Consumer;
 
 @EqualsAndHashCode
 @ToString
 public class LocalMavenArtifactCache implements MavenArtifactCache {
     private final Path cache;
+    private final boolean contentAddressed;
 
     public LocalMavenArtifactCache(Path cache) {
+        this(cache, false);
+    }
+
+    /**
+     * @param cache            The root directory of the cache.
+     * @param contentAddressed When true, artifacts are stored once per distinct content under {@code .content}
+     *                         and hardlinked into their repository layout location, so that identical jars
+     *                         published under several coordinates only occupy disk space once.
+     */
+    public LocalMavenArtifactCache(Path cache, boolean contentAddressed) {
         if (!cache.toFile().exists() && !cache.toFile().mkdirs()) {
             throw new IllegalStateException("Unable to find or create maven artifact cache at " + cache);
         }
         this.cache = cache;
+        this.contentAddressed = contentAddressed;
     }
 
     @Override
@@ -48,6 +61,11 @@ public Path getArtifact(ResolvedDependency dependency) {
         return path.toFile().exists() ? path : null;
     }
 
+    /**
+     * The artifact is first written to a temporary file alongside its final location and then atomically
+     * moved into place, so that a crash or a concurrent writer never leaves a truncated artifact
+     * behind for {@link #getArtifact(ResolvedDependency)} to return.
+     */
     @Override
     @Nullable
     public Path putArtifact(ResolvedDependency dependency, InputStream artifactInputStream, Consumer<Throwable> onError) {
@@ -55,21 +73,76 @@ public Path putArtifact(ResolvedDependency dependency, InputStream artifactInput
             return null;
         }
         Path path = dependencyPath(dependency);
-        try (InputStream is = artifactInputStream;
-             OutputStream out = Files.newOutputStream(path)) {
-            byte[] buffer = new byte[1024];
-            int read;
-            while ((read = is.read(buffer, 0, 1024)) >= 0) {
-                out.write(buffer, 0, read);
+        Path temp = null;
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (InputStream is = new DigestInputStream(artifactInputStream, sha1);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = is.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            if (contentAddressed) {
+                Path content = contentPath(sha1.digest());
+                if (!Files.exists(content)) {
+                    moveAtomically(temp, content);
+                }
+                linkOrCopy(content, path);
+            } else {
+                moveAtomically(temp, path);
             }
         } catch (Throwable t) {
             onError.accept(t);
             return null;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
         }
 
         return path;
     }
 
+    private Path contentPath(byte[] sha1) throws IOException {
+        StringBuilder hex = new StringBuilder(sha1.length * 2);
+        for (byte b : sha1) {
+            hex.append(String.format("%02x", b));
+        }
+        Path dir = cache.resolve(".content").resolve(hex.substring(0, 2));
+        Files.createDirectories(dir);
+        return dir.resolve(hex + ".jar");
+    }
+
+    private static void linkOrCopy(Path content, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try {
+                Files.createLink(temp, content);
+            } catch (IOException | UnsupportedOperationException e) {
+                // e.g. the file system doesn't support hardlinks
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moveAtomically(temp, path);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     private Path dependencyPath(ResolvedDependency dependency) {
         Path resolvedPath = cache.resolve(Paths.get(dependency.getGroupId().replace('.', '/'),
                 dependency.getArtifactId(),
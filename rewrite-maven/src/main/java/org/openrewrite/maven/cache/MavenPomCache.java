@@ -15,11 +15,13 @@
  */
 package org.openrewrite.maven.cache;
 
+import org.openrewrite.Incubating;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.maven.MavenDownloadingException;
 import org.openrewrite.maven.tree.*;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Optional;
 
 public interface MavenPomCache {
@@ -43,4 +45,29 @@ public interface MavenPomCache {
     Optional<MavenRepository> getNormalizedRepository(MavenRepository repository);
 
     void putNormalizedRepository(MavenRepository repository, MavenRepository normalized);
+
+    /**
+     * @param repository The URI of the repository that was probed.
+     * @param gav        The artifact that was probed for.
+     * @return Whether the repository was last found to contain the artifact, or {@code null} if it has not been probed
+     * or the answer has outlived the time to live it was recorded with.
+     */
+    @Incubating(since = "8.13.0")
+    @Nullable
+    default Boolean getArtifactPresence(URI repository, GroupArtifactVersion gav) {
+        return null;
+    }
+
+    /**
+     * Record whether a repository contains an artifact, so that repositories that are known not to contain an
+     * artifact need not be probed for it again until the answer expires.
+     *
+     * @param repository The URI of the repository that was probed.
+     * @param gav        The artifact that was probed for.
+     * @param present    Whether the repository contains the artifact.
+     * @param ttl        How long the answer may be relied upon.
+     */
+    @Incubating(since = "8.13.0")
+    default void putArtifactPresence(URI repository, GroupArtifactVersion gav, boolean present, Duration ttl) {
+    }
 }
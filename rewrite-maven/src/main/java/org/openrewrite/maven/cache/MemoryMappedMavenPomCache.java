@@ -0,0 +1,550 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.maven.MavenDownloadingException;
+import org.openrewrite.maven.tree.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * A persistent POM cache in an append-only file that is memory mapped, written in pure Java. Things to know
+ * about this cache implementation:
+ * <p>
+ * <li> It will create its files in a {@code .rewrite-pom-cache} directory of the workspace directory passed to it.</li>
+ * <li> Any number of threads and processes can share the same cache file. Writes are appended under an exclusive
+ * file lock, and reads take no lock at all.</li>
+ * <li> Each process keeps an index of where the latest entry for each key is in the file, so looking an entry up
+ * never scans the file. A POM is deserialized every time it is looked up.</li>
+ * <li> Entries are written straight to the file, so there is nothing to flush or close when the process exits.</li>
+ * <li> Entries are only ever appended, so {@link #compact()} should be called from time to time to drop entries
+ * that have been overwritten or have expired. The cache is compacted automatically when the file would otherwise
+ * grow past 2GB. Compaction writes the next generation of the cache to a new file and publishes it, and processes
+ * that still read the previous generation notice and move on to the new one. A file that is still mapped is never
+ * renamed or replaced, and a previous generation is only deleted once no process reads it any more.</li>
+ * <li> Like {@link RocksdbMavenPomCache}, only POMs and artifact presence are persisted.</li>
+ */
+@Incubating(since = "8.13.0")
+@SuppressWarnings("OptionalAssignedToNull")
+public class MemoryMappedMavenPomCache implements MavenPomCache {
+    private static final ObjectMapper mapper = SmileMapper.create();
+
+    private static final Map<Path, Store> stores = new HashMap<>();
+
+    static synchronized Store getStore(Path pomCacheDir) {
+        return stores.computeIfAbsent(pomCacheDir, Store::new);
+    }
+
+    static synchronized void closeStore(Path pomCacheDir) {
+        Store store = stores.remove(pomCacheDir);
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private final Store store;
+
+    public MemoryMappedMavenPomCache(Path workspace) {
+        Path pomCacheDir = workspace.resolve(".rewrite-pom-cache").toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(pomCacheDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to find or create maven pom cache at " + pomCacheDir, e);
+        }
+        store = getStore(pomCacheDir);
+    }
+
+    /**
+     * Rewrite the cache file with only the latest unexpired entry for each key.
+     */
+    public void compact() {
+        store.compact();
+    }
+
+    @Nullable
+    @Override
+    public ResolvedPom getResolvedDependencyPom(ResolvedGroupArtifactVersion dependency) {
+        return null;
+    }
+
+    @Override
+    public void putResolvedDependencyPom(ResolvedGroupArtifactVersion dependency, ResolvedPom resolved) {
+    }
+
+    @Nullable
+    @Override
+    public Optional<MavenMetadata> getMavenMetadata(URI repo, GroupArtifactVersion gav) {
+        //The Maven metadata is not something that should be stored long term, as it will change over time.
+        return null;
+    }
+
+    @Override
+    public void putMavenMetadata(URI repo, GroupArtifactVersion gav, @Nullable MavenMetadata metadata) {
+        //The Maven metadata is not something that should be stored long term, as it will change over time.
+    }
+
+    @Nullable
+    @Override
+    public Optional<Pom> getPom(ResolvedGroupArtifactVersion gav) throws MavenDownloadingException {
+        ByteBuffer value = store.get(pomKey(gav));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Optional.of(mapper.readValue(new ByteBufferBackedInputStream(value), Pom.class));
+        } catch (IOException e) {
+            throw new MavenDownloadingException("Failed to deserialize POM from memory mapped cache", e,
+                    new GroupArtifactVersion(gav.getGroupId(), gav.getArtifactId(), gav.getVersion()));
+        }
+    }
+
+    @Override
+    public void putPom(ResolvedGroupArtifactVersion gav, @Nullable Pom pom) {
+        if (pom == null) {
+            return;
+        }
+        try {
+            store.put(pomKey(gav), mapper.writeValueAsBytes(pom));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to serialize POM " + gav, e);
+        }
+    }
+
+    @Override
+    @Nullable
+    public Optional<MavenRepository> getNormalizedRepository(MavenRepository repository) {
+        return null;
+    }
+
+    @Override
+    public void putNormalizedRepository(MavenRepository repository, MavenRepository normalized) {
+    }
+
+    @Nullable
+    @Override
+    public Boolean getArtifactPresence(URI repository, GroupArtifactVersion gav) {
+        ByteBuffer value = store.get(presenceKey(repository, gav));
+        return value == null || isExpired(value) ? null : value.get(0) == 1;
+    }
+
+    @Override
+    public void putArtifactPresence(URI repository, GroupArtifactVersion gav, boolean present, Duration ttl) {
+        ByteBuffer value = ByteBuffer.allocate(1 + Long.BYTES)
+                .put((byte) (present ? 1 : 0))
+                .putLong(System.currentTimeMillis() + ttl.toMillis());
+        store.put(presenceKey(repository, gav), value.array());
+    }
+
+    private static String pomKey(ResolvedGroupArtifactVersion gav) {
+        return "pom:" + gav;
+    }
+
+    private static String presenceKey(URI repository, GroupArtifactVersion gav) {
+        return "presence:" + repository + ":" + gav;
+    }
+
+    private static boolean isExpired(ByteBuffer presence) {
+        return presence.getLong(1) < System.currentTimeMillis();
+    }
+
+    /**
+     * The cache files, shared by every cache pointed at the same workspace in this process.
+     * <p>
+     * Each generation of the cache is a file named {@code poms.<generation>.dat}, and {@code poms.current} holds the
+     * number of the current generation. Both are only read and written while holding the lock on {@code poms.lock}.
+     * A generation file starts with a header of the magic number, the POM model version, the length of the file that
+     * has been written, and whether the file has been superseded by a newer generation. Each entry that follows is the
+     * length of the rest of the entry, the length of the key, the key and the value.
+     * <p>
+     * Every process that has a generation open holds a shared lock on a byte past the end of it, which is never
+     * written, so that a generation is only deleted once no process holds that lock any more.
+     */
+    static class Store {
+        private static final int MAGIC = 0x52574d50;
+        private static final int MODEL_VERSION_OFFSET = 4;
+        private static final int COMMITTED_OFFSET = 8;
+        private static final int SUPERSEDED_OFFSET = 16;
+        private static final int HEADER_SIZE = 32;
+
+        private static final long READERS_LOCK_POSITION = Long.MAX_VALUE - 1;
+        private static final Pattern GENERATION_FILE = Pattern.compile("poms\\.(\\d+)\\.dat");
+
+        /**
+         * A {@link MappedByteBuffer} is indexed by int.
+         */
+        private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+        private static final long MIN_GROWTH = 1 << 20;
+
+        private final Path pomCacheDir;
+        private final Path pointerFile;
+        private final FileChannel lockChannel;
+
+        private volatile Segment segment;
+
+        Store(Path pomCacheDir) {
+            this.pomCacheDir = pomCacheDir;
+            this.pointerFile = pomCacheDir.resolve("poms.current");
+            try {
+                this.lockChannel = FileChannel.open(pomCacheDir.resolve("poms.lock"), CREATE, WRITE);
+                try (FileLock ignored = lockChannel.lock()) {
+                    this.segment = open();
+                    deleteUnusedGenerations();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to open maven pom cache at " + pomCacheDir, e);
+            }
+        }
+
+        @Nullable
+        ByteBuffer get(String key) {
+            return current().get(key);
+        }
+
+        synchronized void put(String key, byte[] value) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int length = Integer.BYTES + keyBytes.length + value.length;
+            ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + length)
+                    .putInt(length)
+                    .putInt(keyBytes.length)
+                    .put(keyBytes)
+                    .put(value);
+            entry.flip();
+
+            try (FileLock ignored = lockChannel.lock()) {
+                Segment s = reopenIfSuperseded();
+                if (s.committed() + entry.remaining() > MAX_SIZE) {
+                    s = supersede(s, Store::unexpired);
+                    if (s.committed() + entry.remaining() > MAX_SIZE) {
+                        // the cache is full of live entries
+                        return;
+                    }
+                }
+                s.append(entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void compact() {
+            try (FileLock ignored = lockChannel.lock()) {
+                supersede(reopenIfSuperseded(), Store::unexpired);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void close() {
+            try {
+                segment.channel.close();
+                lockChannel.close();
+            } catch (IOException e) {
+                // nothing was left unwritten
+            }
+        }
+
+        private static boolean unexpired(String key, ByteBuffer value) {
+            return !key.startsWith("presence:") || !isExpired(value);
+        }
+
+        private Segment current() {
+            Segment s = segment;
+            if (s.isSuperseded()) {
+                synchronized (this) {
+                    try (FileLock ignored = lockChannel.lock()) {
+                        s = reopenIfSuperseded();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            return s;
+        }
+
+        /**
+         * Must be called while holding the file lock.
+         */
+        private Segment reopenIfSuperseded() throws IOException {
+            Segment s = segment;
+            if (s.isSuperseded()) {
+                s.channel.close();
+                s = segment = open();
+                // this process may have been the last one reading the previous generation
+                deleteUnusedGenerations();
+            }
+            return s;
+        }
+
+        /**
+         * Must be called while holding the file lock.
+         */
+        private Segment open() throws IOException {
+            byte[] pointer = Files.exists(pointerFile) ? Files.readAllBytes(pointerFile) : new byte[0];
+            // without a pointer, e.g. because it was never published, the cache starts over at the first generation
+            long generation = pointer.length == Long.BYTES ? ByteBuffer.wrap(pointer).getLong() : 0;
+
+            FileChannel channel = FileChannel.open(generationFile(generation), CREATE, READ, WRITE);
+            if (channel.size() < HEADER_SIZE) {
+                // a new file, or one whose creation was interrupted
+                ByteBuffer header = header(HEADER_SIZE);
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+            Segment s = new Segment(generation, channel);
+            if (s.header.getInt(0) != MAGIC || s.header.getInt(MODEL_VERSION_OFFSET) != Pom.getModelVersion()) {
+                // written by an incompatible version of this cache
+                return supersede(s, (key, value) -> false);
+            }
+            return s;
+        }
+
+        /**
+         * Write the latest of the entries of the current generation that should be kept to the next generation,
+         * and publish it. Must be called while holding the file lock.
+         */
+        private Segment supersede(Segment current, BiPredicate<String, ByteBuffer> keep) throws IOException {
+            long generation = current.generation + 1;
+            Path file = generationFile(generation);
+            // a file left behind by a compaction that was interrupted was never published, so nothing reads it
+            try (FileChannel out = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                long position = HEADER_SIZE;
+                if (current.header.getInt(0) == MAGIC &&
+                    current.header.getInt(MODEL_VERSION_OFFSET) == Pom.getModelVersion()) {
+                    current.catchUp();
+                    for (Map.Entry<String, Integer> entry : current.index.entrySet()) {
+                        if (keep.test(entry.getKey(), current.value(entry.getValue()))) {
+                            ByteBuffer e = current.entry(entry.getValue());
+                            while (e.hasRemaining()) {
+                                position += out.write(e, position);
+                            }
+                        }
+                    }
+                }
+                ByteBuffer header = header(position);
+                while (header.hasRemaining()) {
+                    out.write(header, header.position());
+                }
+                out.force(true);
+            }
+            try (FileChannel pointer = FileChannel.open(pointerFile, CREATE, WRITE)) {
+                ByteBuffer g = (ByteBuffer) ByteBuffer.allocate(Long.BYTES).putLong(generation).flip();
+                while (g.hasRemaining()) {
+                    pointer.write(g, g.position());
+                }
+                pointer.force(true);
+            }
+
+            // tell every process still reading the previous generation to move on to the new one
+            current.channel.write((ByteBuffer) ByteBuffer.allocate(Integer.BYTES).putInt(1).flip(), SUPERSEDED_OFFSET);
+            current.channel.close();
+
+            segment = new Segment(generation, FileChannel.open(file, READ, WRITE));
+            deleteUnusedGenerations();
+            return segment;
+        }
+
+        private Path generationFile(long generation) {
+            return pomCacheDir.resolve("poms." + generation + ".dat");
+        }
+
+        /**
+         * Delete the generations that no process reads any more, including the single file of earlier versions of
+         * this cache. A file that can't be deleted yet, e.g. because this process still maps it on Windows, is left
+         * for a later attempt. Must be called while holding the file lock, so that no process opens a generation
+         * while it is being deleted.
+         */
+        private void deleteUnusedGenerations() {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(pomCacheDir, "poms.*")) {
+                for (Path f : files) {
+                    String name = f.getFileName().toString();
+                    Matcher generation = GENERATION_FILE.matcher(name);
+                    if (generation.matches() ? Long.parseLong(generation.group(1)) != segment.generation :
+                            "poms.dat".equals(name) || "poms.dat.compacting".equals(name)) {
+                        deleteIfUnused(f);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // the unused generations are deleted the next time
+            }
+        }
+
+        private static void deleteIfUnused(Path generation) throws IOException {
+            try (FileChannel channel = FileChannel.open(generation, READ, WRITE)) {
+                FileLock readers;
+                try {
+                    readers = channel.tryLock(READERS_LOCK_POSITION, 1, false);
+                } catch (OverlappingFileLockException e) {
+                    // another store in this process still reads it
+                    return;
+                }
+                if (readers == null) {
+                    return;
+                }
+                readers.release();
+            }
+            try {
+                Files.deleteIfExists(generation);
+            } catch (IOException e) {
+                // still mapped by this process
+            }
+        }
+
+        private static ByteBuffer header(long committed) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(Pom.getModelVersion())
+                    .putLong(committed)
+                    .putInt(0);
+            header.clear();
+            return header;
+        }
+
+        /**
+         * One generation of the cache, which is replaced as a whole by compaction.
+         */
+        private static class Segment {
+            final long generation;
+            final FileChannel channel;
+            final MappedByteBuffer header;
+
+            /**
+             * The offset of the latest entry for each key, up to {@link #indexed}.
+             */
+            final Map<String, Integer> index = new ConcurrentHashMap<>();
+
+            volatile int indexed = HEADER_SIZE;
+            volatile MappedByteBuffer data;
+
+            Segment(long generation, FileChannel channel) throws IOException {
+                this.generation = generation;
+                this.channel = channel;
+                try {
+                    // released when the channel is closed
+                    channel.lock(READERS_LOCK_POSITION, 1, true);
+                } catch (OverlappingFileLockException e) {
+                    // another store in this process reads the same generation
+                }
+                this.header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                this.data = header;
+            }
+
+            boolean isSuperseded() {
+                return header.getInt(SUPERSEDED_OFFSET) != 0;
+            }
+
+            long committed() {
+                return header.getLong(COMMITTED_OFFSET);
+            }
+
+            @Nullable
+            ByteBuffer get(String key) {
+                if (committed() > indexed) {
+                    catchUp();
+                }
+                Integer offset = index.get(key);
+                return offset == null ? null : value(offset);
+            }
+
+            /**
+             * Index the entries that have been appended since the last time the index was caught up.
+             */
+            synchronized void catchUp() {
+                int committed = (int) committed();
+                if (committed <= indexed) {
+                    return;
+                }
+                MappedByteBuffer d = data;
+                if (committed > d.capacity()) {
+                    try {
+                        d = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    data = d;
+                }
+                int offset = indexed;
+                while (offset < committed) {
+                    int keyLength = d.getInt(offset + Integer.BYTES);
+                    byte[] key = new byte[keyLength];
+                    ByteBuffer keyBuffer = d.duplicate();
+                    keyBuffer.position(offset + 2 * Integer.BYTES);
+                    keyBuffer.get(key);
+                    index.put(new String(key, StandardCharsets.UTF_8), offset);
+                    offset += Integer.BYTES + d.getInt(offset);
+                }
+                indexed = offset;
+            }
+
+            ByteBuffer value(int offset) {
+                ByteBuffer value = data.duplicate();
+                value.limit(offset + Integer.BYTES + value.getInt(offset));
+                value.position(offset + 2 * Integer.BYTES + value.getInt(offset + Integer.BYTES));
+                return value.slice();
+            }
+
+            ByteBuffer entry(int offset) {
+                ByteBuffer entry = data.duplicate();
+                entry.limit(offset + Integer.BYTES + entry.getInt(offset));
+                entry.position(offset);
+                return entry.slice();
+            }
+
+            /**
+             * Must be called while holding the file lock.
+             */
+            void append(ByteBuffer entry) throws IOException {
+                long position = committed();
+                long end = position + entry.remaining();
+                if (channel.size() < end) {
+                    // grow the file ahead of what is written to it, so that it is remapped less often
+                    long size = Math.min(MAX_SIZE, Math.max(end, Math.max(2 * channel.size(), MIN_GROWTH)));
+                    channel.write(ByteBuffer.allocate(1), size - 1);
+                }
+                while (entry.hasRemaining()) {
+                    position += channel.write(entry, position);
+                }
+                // readers only look at the entry once the committed length says it is there
+                channel.write((ByteBuffer) ByteBuffer.allocate(Long.BYTES).putLong(end).flip(), COMMITTED_OFFSET);
+            }
+        }
+    }
+}
@@ -15,18 +15,8 @@
  */
 package org.openrewrite.maven.cache;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.cfg.ConstructorDetector;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.dataformat.smile.SmileFactory;
-import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.maven.MavenDownloadingException;
 import org.openrewrite.maven.tree.*;
@@ -40,6 +30,7 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -73,21 +64,7 @@ public class RocksdbMavenPomCache implements MavenPomCache {
     private static final Map<String, RocksCache> cacheMap = new HashMap<>();
 
     static {
-        SmileFactory f = new SmileFactory();
-        f.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
-        ObjectMapper m = JsonMapper.builder(f)
-                .constructorDetector(ConstructorDetector.USE_PROPERTIES_BASED)
-                .build()
-                .registerModule(new ParameterNamesModule())
-                .registerModule(new Jdk8Module())
-                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        mapper = m.setVisibility(m.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.PUBLIC_ONLY));
+        mapper = SmileMapper.create();
 
         //Init the rockdb native jni library
         RocksDB.loadLibrary();
@@ -177,6 +154,37 @@ public Optional<MavenRepository> getNormalizedRepository(MavenRepository reposit
     public void putNormalizedRepository(MavenRepository repository, MavenRepository normalized) {
     }
 
+    @Nullable
+    @Override
+    public Boolean getArtifactPresence(URI repository, GroupArtifactVersion gav) {
+        try {
+            byte[] bytes = cache.get(serialize(presenceKey(repository, gav)));
+            if (bytes == null) {
+                return null;
+            }
+            // the presence and the epoch millisecond it expires at
+            long[] presence = mapper.readValue(bytes, long[].class);
+            return presence[1] < System.currentTimeMillis() ? null : presence[0] == 1;
+        } catch (RocksDBException | IOException e) {
+            // an unreadable answer is an unknown one
+            return null;
+        }
+    }
+
+    @Override
+    public void putArtifactPresence(URI repository, GroupArtifactVersion gav, boolean present, Duration ttl) {
+        try {
+            cache.put(serialize(presenceKey(repository, gav)),
+                    serialize(new long[]{present ? 1 : 0, System.currentTimeMillis() + ttl.toMillis()}));
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("Failed to save artifact presence into RocksDB cache", e);
+        }
+    }
+
+    private static byte[] presenceKey(URI repository, GroupArtifactVersion gav) {
+        return ("presence:" + repository + ":" + gav).getBytes(StandardCharsets.UTF_8);
+    }
+
     static <T> byte[] serialize(T object) {
         if (object == null) {
             return null;
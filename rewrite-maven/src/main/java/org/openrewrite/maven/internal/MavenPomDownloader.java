@@ -43,7 +43,10 @@
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -67,6 +70,27 @@ public class MavenPomDownloader {
 
     private static final String SNAPSHOT = "SNAPSHOT";
 
+    private static final String REPOSITORY_HIT_RATES = "org.openrewrite.maven.repositoryHitRates";
+
+    private static final int MAX_HEDGED_REQUEST_THREADS = 8;
+
+    /**
+     * Runs the requests sent to repositories speculatively, ahead of the repositories that precede them
+     * being probed. Bounded, since every POM resolved by every thread may send hedged requests, and requests
+     * beyond the bound wait in line rather than opening more connections.
+     */
+    private static final ExecutorService HEDGED_REQUESTS;
+
+    static {
+        ThreadPoolExecutor hedgedRequests = new ThreadPoolExecutor(MAX_HEDGED_REQUEST_THREADS, MAX_HEDGED_REQUEST_THREADS,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "rewrite-maven-hedged-request");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        hedgedRequests.allowCoreThreadTimeOut(true);
+        HEDGED_REQUESTS = hedgedRequests;
+    }
 
     private final MavenPomCache mavenCache;
     private final Map<Path, Pom> projectPoms;
@@ -140,15 +164,31 @@ public MavenPomDownloader(Map<Path, Pom> projectPoms, HttpSender httpSender, Exe
     }
 
     byte[] sendRequest(HttpSender.Request request) throws IOException, HttpSenderResponseException {
+        return sendRequest(request.getUrl().getProtocol() + "://" + request.getUrl().getAuthority(), request);
+    }
+
+    private byte[] sendRequest(String repositoryUri, HttpSender.Request request) throws IOException, HttpSenderResponseException {
+        return sendRequest(repositoryUri, request, exchange -> recordExchange(exchange, true));
+    }
+
+    /**
+     * @param exchanges Told about the request once it is done, on the thread that sent it.
+     */
+    private byte[] sendRequest(String repositoryUri, HttpSender.Request request, Consumer<Exchange> exchanges) throws IOException, HttpSenderResponseException {
         long start = System.nanoTime();
+        // the status of the last response and the size of every response, accumulated across retries
+        int[] status = new int[1];
+        long[] bytes = new long[1];
         try {
             return Failsafe.with(retryPolicy).get(() -> {
                 try (HttpSender.Response response = httpSender.send(request)) {
+                    byte[] body = response.getBodyAsBytes();
+                    status[0] = response.getCode();
+                    bytes[0] += body.length;
                     if (!response.isSuccessful()) {
-                        throw new HttpSenderResponseException(null, response.getCode(),
-                                new String(response.getBodyAsBytes()));
+                        throw new HttpSenderResponseException(null, response.getCode(), new String(body));
                     }
-                    return response.getBodyAsBytes();
+                    return body;
                 }
             });
         } catch (FailsafeException failsafeException) {
@@ -159,8 +199,21 @@ byte[] sendRequest(HttpSender.Request request) throws IOException, HttpSenderRes
         } catch (UncheckedIOException e) {
             throw e.getCause();
         } finally {
-            this.ctx.recordResolutionTime(Duration.ofNanos(System.nanoTime() - start));
+            exchanges.accept(new Exchange(repositoryUri, status[0] == 0 ? null : status[0], bytes[0],
+                    Duration.ofNanos(System.nanoTime() - start)));
+        }
+    }
+
+    /**
+     * @param resolutionTime Whether the latency of the request is time the calling thread spent resolving, which
+     *                       isn't the case for a hedged request that ran while the calling thread did something else.
+     */
+    private void recordExchange(Exchange exchange, boolean resolutionTime) {
+        if (resolutionTime) {
+            ctx.recordResolutionTime(exchange.latency);
         }
+        ResolutionMeters.request(exchange.repositoryUri, exchange.status, exchange.bytes, exchange.latency);
+        ctx.getResolutionListener().repositoryRequest(exchange.repositoryUri, exchange.status, exchange.bytes, exchange.latency);
     }
 
     private Map<GroupArtifactVersion, Pom> projectPomsByGav(Map<Path, Pom> projectPoms) {
@@ -247,6 +300,7 @@ public MavenMetadata downloadMetadata(GroupArtifactVersion gav, @Nullable Resolv
             }
             attemptedUris.add(repo.getUri());
             Optional<MavenMetadata> result = mavenCache.getMavenMetadata(URI.create(repo.getUri()), gav);
+            recordCacheLookup("metadata", result != null);
             if (result == null) {
                 // Not in the cache, attempt to download it.
                 boolean cacheEmptyResult = false;
@@ -518,97 +572,107 @@ public Pom download(GroupArtifactVersion gav,
         GroupArtifactVersion originalGav = gav;
         gav = handleSnapshotTimestampVersion(gav);
         List<String> uris = new ArrayList<>();
-        for (MavenRepository repo : normalizedRepos) {
-            ctx.getResolutionListener().repository(repo, containingPom);
-            //noinspection DataFlowIssue
-            if (!repositoryAcceptsVersion(repo, gav.getVersion(), containingPom)) {
-                continue;
-            }
+        Map<MavenRepository, HedgedRequest> hedgedRequests = sendHedgedRequests(normalizedRepos, gav,
+                versionMaybeDatedSnapshot, containingPom);
+        try {
+            for (MavenRepository repo : normalizedRepos) {
+                ctx.getResolutionListener().repository(repo, containingPom);
+                //noinspection DataFlowIssue
+                if (!repositoryAcceptsVersion(repo, gav.getVersion(), containingPom)) {
+                    continue;
+                }
 
-            ResolvedGroupArtifactVersion resolvedGav = new ResolvedGroupArtifactVersion(
-                    repo.getUri(), gav.getGroupId(), gav.getArtifactId(), gav.getVersion(), versionMaybeDatedSnapshot);
-            Optional<Pom> result = mavenCache.getPom(resolvedGav);
+                ResolvedGroupArtifactVersion resolvedGav = new ResolvedGroupArtifactVersion(
+                        repo.getUri(), gav.getGroupId(), gav.getArtifactId(), gav.getVersion(), versionMaybeDatedSnapshot);
+                Optional<Pom> result = mavenCache.getPom(resolvedGav);
+                recordCacheLookup("pom", result != null);
 
-            if (result == null) {
-                URI uri = URI.create(repo.getUri() + (repo.getUri().endsWith("/") ? "" : "/") +
-                                     requireNonNull(gav.getGroupId()).replace('.', '/') + '/' +
-                                     gav.getArtifactId() + '/' +
-                                     gav.getVersion() + '/' +
-                                     gav.getArtifactId() + '-' + versionMaybeDatedSnapshot + ".pom");
-                uris.add(uri.toString());
-                if ("file".equals(uri.getScheme())) {
-                    Path inputPath = Paths.get(gav.getGroupId(), gav.getArtifactId(), gav.getVersion());
+                if (result == null) {
+                    URI uri = pomUri(repo, gav, versionMaybeDatedSnapshot);
+                    if (!"file".equals(uri.getScheme()) &&
+                        Boolean.FALSE.equals(mavenCache.getArtifactPresence(URI.create(repo.getUri()), gav))) {
+                        repositoryResponses.put(repo, "Did not attempt to download because of a previous failure to retrieve from this repository.");
+                        continue;
+                    }
+                    uris.add(uri.toString());
+                    if ("file".equals(uri.getScheme())) {
+                        Path inputPath = Paths.get(gav.getGroupId(), gav.getArtifactId(), gav.getVersion());
 
-                    try {
-                        File f = new File(uri);
+                        try {
+                            File f = new File(uri);
 
-                        //NOTE: The pom may exist without a .jar artifact if the pom packaging is "pom"
-                        if (!f.exists()) {
-                            continue;
-                        }
+                            //NOTE: The pom may exist without a .jar artifact if the pom packaging is "pom"
+                            if (!f.exists()) {
+                                continue;
+                            }
 
-                        try (FileInputStream fis = new FileInputStream(f)) {
-                            RawPom rawPom = RawPom.parse(fis, Objects.equals(versionMaybeDatedSnapshot, gav.getVersion()) ? null : versionMaybeDatedSnapshot);
-                            Pom pom = rawPom.toPom(inputPath, repo).withGav(resolvedGav);
+                            try (FileInputStream fis = new FileInputStream(f)) {
+                                RawPom rawPom = RawPom.parse(fis, Objects.equals(versionMaybeDatedSnapshot, gav.getVersion()) ? null : versionMaybeDatedSnapshot);
+                                Pom pom = rawPom.toPom(inputPath, repo).withGav(resolvedGav);
 
-                            if (pom.getPackaging() == null || "jar".equals(pom.getPackaging())) {
-                                File jar = f.toPath().resolveSibling(gav.getArtifactId() + '-' + versionMaybeDatedSnapshot + ".jar").toFile();
-                                if (!jar.exists() || jar.length() == 0) {
-                                    // The jar has not been downloaded, making this dependency unusable.
-                                    continue;
+                                if (pom.getPackaging() == null || "jar".equals(pom.getPackaging())) {
+                                    File jar = f.toPath().resolveSibling(gav.getArtifactId() + '-' + versionMaybeDatedSnapshot + ".jar").toFile();
+                                    if (!jar.exists() || jar.length() == 0) {
+                                        // The jar has not been downloaded, making this dependency unusable.
+                                        continue;
+                                    }
                                 }
-                            }
 
-                            if (repo.getUri().equals(MavenRepository.MAVEN_LOCAL_DEFAULT.getUri())) {
-                                // so that the repository path is the same regardless of username
-                                pom = pom.withRepository(MavenRepository.MAVEN_LOCAL_USER_NEUTRAL);
-                            }
+                                if (repo.getUri().equals(MavenRepository.MAVEN_LOCAL_DEFAULT.getUri())) {
+                                    // so that the repository path is the same regardless of username
+                                    pom = pom.withRepository(MavenRepository.MAVEN_LOCAL_USER_NEUTRAL);
+                                }
 
+                                if (!Objects.equals(versionMaybeDatedSnapshot, pom.getVersion())) {
+                                    pom = pom.withGav(pom.getGav().withDatedSnapshotVersion(versionMaybeDatedSnapshot));
+                                }
+                                mavenCache.putPom(resolvedGav, pom);
+                                ctx.getResolutionListener().downloadSuccess(resolvedGav, containingPom);
+                                sample.stop(timer.tags("outcome", "from maven local").register(Metrics.globalRegistry));
+                                return pom;
+                            }
+                        } catch (IOException e) {
+                            // unable to read the pom from a file-based repository.
+                            repositoryResponses.put(repo, e.getMessage());
+                        }
+                    } else {
+                        try {
+                            byte[] responseBody = awaitOrRequest(hedgedRequests.remove(repo), repo, uri.toString());
+
+                            Path inputPath = Paths.get(gav.getGroupId(), gav.getArtifactId(), gav.getVersion());
+                            RawPom rawPom = RawPom.parse(
+                                    new ByteArrayInputStream(responseBody),
+                                    Objects.equals(versionMaybeDatedSnapshot, gav.getVersion()) ? null : versionMaybeDatedSnapshot
+                            );
+                            Pom pom = rawPom.toPom(inputPath, repo).withGav(resolvedGav);
                             if (!Objects.equals(versionMaybeDatedSnapshot, pom.getVersion())) {
                                 pom = pom.withGav(pom.getGav().withDatedSnapshotVersion(versionMaybeDatedSnapshot));
                             }
                             mavenCache.putPom(resolvedGav, pom);
+                            recordPresence(repo, gav, true);
                             ctx.getResolutionListener().downloadSuccess(resolvedGav, containingPom);
-                            sample.stop(timer.tags("outcome", "from maven local").register(Metrics.globalRegistry));
+                            sample.stop(timer.tags("outcome", "downloaded").register(Metrics.globalRegistry));
                             return pom;
+                        } catch (HttpSenderResponseException e) {
+                            repositoryResponses.put(repo, e.getMessage());
+                            if (e.isClientSideException()) {
+                                //If the exception is a common, client-side exception, cache an empty result.
+                                mavenCache.putPom(resolvedGav, null);
+                                recordPresence(repo, gav, false);
+                            }
+                        } catch (IOException e) {
+                            repositoryResponses.put(repo, e.getMessage());
                         }
-                    } catch (IOException e) {
-                        // unable to read the pom from a file-based repository.
-                        repositoryResponses.put(repo, e.getMessage());
                     }
+                } else if (result.isPresent()) {
+                    sample.stop(timer.tags("outcome", "cached").register(Metrics.globalRegistry));
+                    return result.get();
                 } else {
-                    try {
-                        byte[] responseBody = requestAsAuthenticatedOrAnonymous(repo, uri.toString());
-
-                        Path inputPath = Paths.get(gav.getGroupId(), gav.getArtifactId(), gav.getVersion());
-                        RawPom rawPom = RawPom.parse(
-                                new ByteArrayInputStream(responseBody),
-                                Objects.equals(versionMaybeDatedSnapshot, gav.getVersion()) ? null : versionMaybeDatedSnapshot
-                        );
-                        Pom pom = rawPom.toPom(inputPath, repo).withGav(resolvedGav);
-                        if (!Objects.equals(versionMaybeDatedSnapshot, pom.getVersion())) {
-                            pom = pom.withGav(pom.getGav().withDatedSnapshotVersion(versionMaybeDatedSnapshot));
-                        }
-                        mavenCache.putPom(resolvedGav, pom);
-                        ctx.getResolutionListener().downloadSuccess(resolvedGav, containingPom);
-                        sample.stop(timer.tags("outcome", "downloaded").register(Metrics.globalRegistry));
-                        return pom;
-                    } catch (HttpSenderResponseException e) {
-                        repositoryResponses.put(repo, e.getMessage());
-                        if (e.isClientSideException()) {
-                            //If the exception is a common, client-side exception, cache an empty result.
-                            mavenCache.putPom(resolvedGav, null);
-                        }
-                    } catch (IOException e) {
-                        repositoryResponses.put(repo, e.getMessage());
-                    }
+                    repositoryResponses.put(repo, "Did not attempt to download because of a previous failure to retrieve from this repository.");
                 }
-            } else if (result.isPresent()) {
-                sample.stop(timer.tags("outcome", "cached").register(Metrics.globalRegistry));
-                return result.get();
-            } else {
-                repositoryResponses.put(repo, "Did not attempt to download because of a previous failure to retrieve from this repository.");
             }
+        } finally {
+            settleHedgedRequests(hedgedRequests, gav);
         }
         ctx.getResolutionListener().downloadError(gav, uris, (containingPom == null) ? null : containingPom.getRequested());
         sample.stop(timer.tags("outcome", "unavailable").register(Metrics.globalRegistry));
@@ -616,6 +680,160 @@ public Pom download(GroupArtifactVersion gav,
                 .setRepositoryResponses(repositoryResponses);
     }
 
+    private static URI pomUri(MavenRepository repo, GroupArtifactVersion gav, @Nullable String versionMaybeDatedSnapshot) {
+        return URI.create(repo.getUri() + (repo.getUri().endsWith("/") ? "" : "/") +
+                          requireNonNull(gav.getGroupId()).replace('.', '/') + '/' +
+                          gav.getArtifactId() + '/' +
+                          gav.getVersion() + '/' +
+                          gav.getArtifactId() + '-' + versionMaybeDatedSnapshot + ".pom");
+    }
+
+    /**
+     * Request the POM in parallel from the remote repositories after the first that it is likely to be found in,
+     * ranked by how often they have had the POMs requested of them before, so that a POM that is not in the
+     * repositories of highest precedence is already downloaded by the time they have been probed.
+     *
+     * @return The requests that were sent, keyed by repository.
+     */
+    private Map<MavenRepository, HedgedRequest> sendHedgedRequests(Collection<MavenRepository> normalizedRepos,
+                                                                    GroupArtifactVersion gav,
+                                                                    @Nullable String versionMaybeDatedSnapshot,
+                                                                    @Nullable ResolvedPom containingPom) throws MavenDownloadingException {
+        int hedgedRequests = ctx.getHedgedRequests();
+        if (hedgedRequests <= 0) {
+            return emptyMap();
+        }
+
+        List<MavenRepository> candidates = new ArrayList<>(normalizedRepos.size());
+        boolean first = true;
+        for (MavenRepository repo : normalizedRepos) {
+            //noinspection DataFlowIssue
+            if (!repositoryAcceptsVersion(repo, gav.getVersion(), containingPom)) {
+                continue;
+            }
+            Optional<Pom> cached = mavenCache.getPom(new ResolvedGroupArtifactVersion(
+                    repo.getUri(), gav.getGroupId(), gav.getArtifactId(), gav.getVersion(), versionMaybeDatedSnapshot));
+            if (cached != null && cached.isPresent()) {
+                // the POM will be found without sending any request
+                return emptyMap();
+            }
+            if (cached != null || "file".equals(URI.create(repo.getUri()).getScheme()) ||
+                Boolean.FALSE.equals(mavenCache.getArtifactPresence(URI.create(repo.getUri()), gav))) {
+                continue;
+            }
+            if (first) {
+                // the first repository is requested right away anyway
+                first = false;
+                continue;
+            }
+            candidates.add(repo);
+        }
+        if (candidates.isEmpty()) {
+            return emptyMap();
+        }
+
+        Map<String, AtomicLongArray> hitRates = repositoryHitRates();
+        candidates.sort(Comparator.comparingDouble(repo -> -hitRate(hitRates.get(repo.getUri()))));
+        Map<MavenRepository, HedgedRequest> requests = new HashMap<>();
+        for (MavenRepository repo : candidates.subList(0, Math.min(hedgedRequests, candidates.size()))) {
+            String uri = pomUri(repo, gav, versionMaybeDatedSnapshot).toString();
+            Queue<Exchange> exchanges = new ConcurrentLinkedQueue<>();
+            HedgedRequest request = new HedgedRequest(() -> requestAsAuthenticatedOrAnonymous(repo, uri, exchanges::add), exchanges);
+            HEDGED_REQUESTS.execute(request);
+            requests.put(repo, request);
+        }
+        return requests;
+    }
+
+    private byte[] awaitOrRequest(@Nullable HedgedRequest hedgedRequest, MavenRepository repo, String uri) throws HttpSenderResponseException, IOException {
+        if (hedgedRequest == null || hedgedRequest.claim()) {
+            // rather than waiting for a pool thread to get to a request that is still queued, send it from here
+            return requestAsAuthenticatedOrAnonymous(repo, uri);
+        }
+        long start = System.nanoTime();
+        try {
+            return hedgedRequest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + uri);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpSenderResponseException) {
+                throw (HttpSenderResponseException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            // this thread only spent the time it waited for the response resolving
+            ctx.recordResolutionTime(Duration.ofNanos(System.nanoTime() - start));
+            recordExchanges(hedgedRequest);
+        }
+    }
+
+    /**
+     * Cancel the hedged requests whose responses were not needed, since a repository that precedes them
+     * had the POM, and remember whether the POM was present in the repositories of those that already completed.
+     */
+    private void settleHedgedRequests(Map<MavenRepository, HedgedRequest> hedgedRequests, GroupArtifactVersion gav) {
+        for (Map.Entry<MavenRepository, HedgedRequest> hedgedRequest : hedgedRequests.entrySet()) {
+            HedgedRequest request = hedgedRequest.getValue();
+            if (!request.isDone()) {
+                if (!request.claim()) {
+                    request.cancel(true);
+                }
+                continue;
+            }
+            recordExchanges(request);
+            try {
+                request.get();
+                recordPresence(hedgedRequest.getKey(), gav, true);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof HttpSenderResponseException &&
+                    ((HttpSenderResponseException) e.getCause()).isClientSideException()) {
+                    recordPresence(hedgedRequest.getKey(), gav, false);
+                }
+            } catch (InterruptedException | CancellationException ignored) {
+                // a completed request doesn't block
+            }
+        }
+    }
+
+    private void recordExchanges(HedgedRequest request) {
+        for (Exchange exchange; (exchange = request.exchanges.poll()) != null; ) {
+            recordExchange(exchange, false);
+        }
+    }
+
+    private void recordCacheLookup(String cache, boolean hit) {
+        ResolutionMeters.cacheLookup(cache, mavenCache.getClass().getSimpleName(), hit);
+        ctx.getResolutionListener().cacheLookup(cache, hit);
+    }
+
+    private void recordPresence(MavenRepository repo, GroupArtifactVersion gav, boolean present) {
+        mavenCache.putArtifactPresence(URI.create(repo.getUri()), gav, present,
+                present ? ctx.getPresentArtifactTtl() : ctx.getAbsentArtifactTtl());
+        AtomicLongArray hitRate = repositoryHitRates().computeIfAbsent(repo.getUri(), uri -> new AtomicLongArray(2));
+        if (present) {
+            hitRate.incrementAndGet(0);
+        }
+        hitRate.incrementAndGet(1);
+    }
+
+    /**
+     * @return The number of POMs found in and the number of POMs requested of each repository, keyed by repository URI.
+     */
+    private Map<String, AtomicLongArray> repositoryHitRates() {
+        return ctx.computeMessageIfAbsent(REPOSITORY_HIT_RATES, key -> new ConcurrentHashMap<>());
+    }
+
+    private static double hitRate(@Nullable AtomicLongArray hitRate) {
+        // repositories that have not been requested from yet are given even odds
+        return hitRate == null ? 0.5 : (hitRate.get(0) + 1.0) / (hitRate.get(1) + 2.0);
+    }
+
     /**
      * Gets the base version from snapshot timestamp version.
      */
@@ -749,7 +967,7 @@ public MavenRepository normalizeRepository(MavenRepository originalRepository, M
                 HttpSender.Request.Builder request = applyAuthenticationToRequest(repository, httpSender.get(httpsUri));
                 MavenRepository normalized = null;
                 try {
-                    sendRequest(request.build());
+                    sendRequest(repository.getUri(), request.build());
                     normalized = repository.withUri(httpsUri).withKnownToExist(true);
                 } catch (Throwable t) {
                     if (t instanceof HttpSenderResponseException) {
@@ -762,7 +980,7 @@ public MavenRepository normalizeRepository(MavenRepository originalRepository, M
                     if (normalized == null) {
                         if (!httpsUri.equals(originalUrl)) {
                             try {
-                                sendRequest(request.url(originalUrl).build());
+                                sendRequest(repository.getUri(), request.url(originalUrl).build());
                                 normalized = new MavenRepository(
                                         repository.getId(),
                                         originalUrl,
@@ -807,20 +1025,24 @@ public MavenRepository normalizeRepository(MavenRepository originalRepository, M
      * Replicates Apache Maven's behavior to attempt anonymous download if repository credentials prove invalid
      */
     private byte[] requestAsAuthenticatedOrAnonymous(MavenRepository repo, String uriString) throws HttpSenderResponseException, IOException {
+        return requestAsAuthenticatedOrAnonymous(repo, uriString, exchange -> recordExchange(exchange, true));
+    }
+
+    private byte[] requestAsAuthenticatedOrAnonymous(MavenRepository repo, String uriString, Consumer<Exchange> exchanges) throws HttpSenderResponseException, IOException {
         try {
-            return sendRequest(applyAuthenticationToRequest(repo, httpSender.get(uriString)).build());
+            return sendRequest(repo.getUri(), applyAuthenticationToRequest(repo, httpSender.get(uriString)).build(), exchanges);
         } catch (HttpSenderResponseException e) {
             if (hasCredentials(repo) && e.isClientSideException()) {
-                return retryRequestAnonymously(uriString, e);
+                return retryRequestAnonymously(repo, uriString, e, exchanges);
             } else {
                 throw e;
             }
         }
     }
 
-    private byte[] retryRequestAnonymously(String uriString, HttpSenderResponseException originalException) throws HttpSenderResponseException, IOException {
+    private byte[] retryRequestAnonymously(MavenRepository repo, String uriString, HttpSenderResponseException originalException, Consumer<Exchange> exchanges) throws HttpSenderResponseException, IOException {
         try {
-            return sendRequest(httpSender.get(uriString).build());
+            return sendRequest(repo.getUri(), httpSender.get(uriString).build(), exchanges);
         } catch (HttpSenderResponseException retryException) {
             if (retryException.isAccessDenied()) {
                 throw originalException;
@@ -935,4 +1157,56 @@ private static boolean hasPomFile(Path dir, Path versionPath, GroupArtifactVersi
         String artifactPomFile = gav.getArtifactId() + "-" + versionPath.getFileName() + ".pom";
         return Files.exists(dir.resolve(versionPath.resolve(artifactPomFile)));
     }
+
+    /**
+     * A request sent to a repository, which is recorded by the thread that needs its response.
+     */
+    private static class Exchange {
+        private final String repositoryUri;
+
+        @Nullable
+        private final Integer status;
+
+        private final long bytes;
+        private final Duration latency;
+
+        private Exchange(String repositoryUri, @Nullable Integer status, long bytes, Duration latency) {
+            this.repositoryUri = repositoryUri;
+            this.status = status;
+            this.bytes = bytes;
+            this.latency = latency;
+        }
+    }
+
+    /**
+     * A request sent ahead of time on a pool thread, which only fetches the response. The requests it sent are
+     * recorded by the thread that resolves the POM, which may also claim the request while it still waits in line.
+     */
+    private static class HedgedRequest extends FutureTask<byte[]> {
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final Queue<Exchange> exchanges;
+
+        private HedgedRequest(Callable<byte[]> request, Queue<Exchange> exchanges) {
+            super(request);
+            this.exchanges = exchanges;
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+            }
+        }
+
+        /**
+         * @return {@code true} if the request hadn't started, in which case it never will.
+         */
+        boolean claim() {
+            if (started.compareAndSet(false, true)) {
+                cancel(false);
+                return true;
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.internal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Micrometer meters describing dependency resolution, registered with the global registry like the
+ * {@code rewrite.maven.download} timer. The same events are reported to the
+ * {@link org.openrewrite.maven.tree.ResolutionEventListener} of an execution context.
+ * <p>
+ * Each meter is registered the first time its tags are seen and kept, since these are recorded for every
+ * request and every cache lookup made while resolving.
+ */
+public final class ResolutionMeters {
+    private static final Map<String, Map<Integer, Timer>> REQUESTS = new ConcurrentHashMap<>();
+    private static final Map<String, DistributionSummary> REQUEST_SIZES = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Counter[]>> CACHE_LOOKUPS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> RESOLUTIONS = new ConcurrentHashMap<>();
+
+    private static final Counter RESTARTS = Counter.builder("rewrite.maven.resolve.restarts")
+            .description("Dependency resolutions that started over because a version requirement changed.")
+            .register(Metrics.globalRegistry);
+
+    private static final int NO_STATUS = -1;
+    private static final int HIT = 0;
+    private static final int MISS = 1;
+
+    private ResolutionMeters() {
+    }
+
+    public static void request(String repositoryUri, @Nullable Integer httpStatus, long bytes, Duration latency) {
+        REQUESTS.computeIfAbsent(repositoryUri, r -> new ConcurrentHashMap<>())
+                .computeIfAbsent(httpStatus == null ? NO_STATUS : httpStatus, status -> Timer.builder("rewrite.maven.request")
+                        .description("The latency of requests to Maven repositories, including retries.")
+                        .tag("repository", repositoryUri)
+                        .tag("status", status == NO_STATUS ? "none" : Integer.toString(status))
+                        .publishPercentileHistogram()
+                        .register(Metrics.globalRegistry))
+                .record(latency);
+        REQUEST_SIZES.computeIfAbsent(repositoryUri, r -> DistributionSummary.builder("rewrite.maven.request.size")
+                        .description("The size of responses from Maven repositories.")
+                        .baseUnit("bytes")
+                        .tag("repository", r)
+                        .register(Metrics.globalRegistry))
+                .record(bytes);
+    }
+
+    /**
+     * @param cache The kind of entry that was looked up, one of "pom", "metadata" or "dependency".
+     * @param tier  The cache that was consulted, which for a composite cache is each of its tiers in turn.
+     * @param hit   Whether the cache had an answer.
+     */
+    public static void cacheLookup(String cache, String tier, boolean hit) {
+        CACHE_LOOKUPS.computeIfAbsent(cache, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(tier, t -> new Counter[]{
+                        cacheLookupCounter(cache, t, "hit"),
+                        cacheLookupCounter(cache, t, "miss")
+                })[hit ? HIT : MISS]
+                .increment();
+    }
+
+    private static Counter cacheLookupCounter(String cache, String tier, String outcome) {
+        return Counter.builder("rewrite.maven.cache.lookups")
+                .description("Lookups of Maven POM cache entries.")
+                .tag("cache", cache)
+                .tag("tier", tier)
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * @param phase Either "parents" or "dependencies".
+     */
+    public static void resolution(String phase, Duration time) {
+        RESOLUTIONS.computeIfAbsent(phase, p -> Timer.builder("rewrite.maven.resolve")
+                        .description("The time taken to resolve the parents or dependencies of a POM.")
+                        .tag("phase", p)
+                        .register(Metrics.globalRegistry))
+                .record(time);
+    }
+
+    public static void restart() {
+        RESTARTS.increment();
+    }
+}
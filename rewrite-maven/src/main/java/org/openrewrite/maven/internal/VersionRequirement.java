@@ -15,6 +15,8 @@
  */
 package org.openrewrite.maven.internal;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
@@ -33,8 +35,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
@@ -43,6 +44,14 @@
 public class VersionRequirement {
     private static final Logger logger = LoggerFactory.getLogger(VersionRequirement.class);
 
+    /**
+     * Version ranges are requested over and over again while resolving the dependencies of every module of a
+     * project, so they are parsed once.
+     */
+    private static final Cache<String, VersionSpec> RANGE_SETS = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
     @Nullable
     private final VersionRequirement nearer;
 
@@ -90,54 +99,64 @@ static VersionSpec build(String requested, boolean direct) {
             } else if ("RELEASE".equals(requested)) {
                 return DynamicVersion.RELEASE;
             } else if (requested.contains("[") || requested.contains("(")) {
-                // for things like the profile activation block of where the range is unclosed but maven still handles it, e.g.
-                // https://repo1.maven.org/maven2/com/fasterxml/jackson/core/jackson-databind/2.12.0-rc2/jackson-databind-2.12.0-rc2.pom
-                if (!(requested.contains("]") || requested.contains(")"))) {
-                    requested = requested + "]";
-                }
-
-                VersionRangeParser parser = new VersionRangeParser(new CommonTokenStream(new VersionRangeLexer(
-                        CharStreams.fromString(requested))));
-
-                parser.removeErrorListeners();
-                parser.addErrorListener(new LoggingErrorListener());
-
-                return new VersionRangeParserBaseVisitor<VersionSpec>() {
-                    @Override
-                    public VersionSpec visitVersionRequirement(VersionRangeParser.VersionRequirementContext ctx) {
-                        return new RangeSet(ctx.range().stream()
-                                .map(range -> {
-                                    Version lower, upper;
-                                    if (range.bounds().boundedLower() != null) {
-                                        Iterator<TerminalNode> versionIter = range.bounds().boundedLower().Version().iterator();
-                                        lower = versionIter.hasNext() ? toVersion(versionIter.next()) : null;
-                                        upper = versionIter.hasNext() ? toVersion(versionIter.next()) : null;
-                                    } else if (range.bounds().unboundedLower() != null) {
-                                        TerminalNode upperVersionNode = range.bounds().unboundedLower().Version();
-                                        lower = null;
-                                        upper = upperVersionNode != null ? toVersion(upperVersionNode) : null;
-                                    } else {
-                                        lower = toVersion(range.bounds().exactly().Version());
-                                        upper = toVersion(range.bounds().exactly().Version());
-                                    }
-                                    return new Range(
-                                            range.CLOSED_RANGE_OPEN() != null, lower,
-                                            range.CLOSED_RANGE_CLOSE() != null, upper
-                                    );
-                                })
-                                .collect(toList())
-                        );
-                    }
-
-                    private Version toVersion(TerminalNode version) {
-                        return new Version(version.getText());
-                    }
-                }.visit(parser.versionRequirement());
+                return RANGE_SETS.get(requested, VersionSpec::parseRangeSet);
             }
             return direct ?
                     new DirectRequirement(requested) :
                     new SoftRequirement(requested);
         }
+
+        @Nullable
+        static VersionSpec parseRangeSet(String requested) {
+            // for things like the profile activation block of where the range is unclosed but maven still handles it, e.g.
+            // https://repo1.maven.org/maven2/com/fasterxml/jackson/core/jackson-databind/2.12.0-rc2/jackson-databind-2.12.0-rc2.pom
+            if (!(requested.contains("]") || requested.contains(")"))) {
+                requested = requested + "]";
+            }
+
+            RangeSet rangeSet = RangeSet.parse(requested);
+            if (rangeSet != null) {
+                return rangeSet;
+            }
+
+            VersionRangeParser parser = new VersionRangeParser(new CommonTokenStream(new VersionRangeLexer(
+                    CharStreams.fromString(requested))));
+
+            parser.removeErrorListeners();
+            parser.addErrorListener(new LoggingErrorListener());
+
+            return new VersionRangeParserBaseVisitor<VersionSpec>() {
+                @Override
+                public VersionSpec visitVersionRequirement(VersionRangeParser.VersionRequirementContext ctx) {
+                    return new RangeSet(ctx.range().stream()
+                            .map(range -> {
+                                Version lower, upper;
+                                if (range.bounds().boundedLower() != null) {
+                                    Iterator<TerminalNode> versionIter = range.bounds().boundedLower().Version().iterator();
+                                    lower = versionIter.hasNext() ? toVersion(versionIter.next()) : null;
+                                    upper = versionIter.hasNext() ? toVersion(versionIter.next()) : null;
+                                } else if (range.bounds().unboundedLower() != null) {
+                                    TerminalNode upperVersionNode = range.bounds().unboundedLower().Version();
+                                    lower = null;
+                                    upper = upperVersionNode != null ? toVersion(upperVersionNode) : null;
+                                } else {
+                                    lower = toVersion(range.bounds().exactly().Version());
+                                    upper = toVersion(range.bounds().exactly().Version());
+                                }
+                                return new Range(
+                                        range.CLOSED_RANGE_OPEN() != null, lower,
+                                        range.CLOSED_RANGE_CLOSE() != null, upper
+                                );
+                            })
+                            .collect(toList())
+                    );
+                }
+
+                private Version toVersion(TerminalNode version) {
+                    return new Version(version.getText());
+                }
+            }.visit(parser.versionRequirement());
+        }
     }
 
     @Value
@@ -182,27 +201,136 @@ public String toString() {
     private static class RangeSet implements VersionSpec {
         List<Range> ranges;
 
+        /**
+         * The ranges ordered by their lower bounds, so that the ranges whose lower bounds admit a version are a prefix.
+         */
+        @EqualsAndHashCode.Exclude
+        Range[] byLower;
+
+        /**
+         * For each prefix of {@link #byLower}, the range with the highest upper bound in it.
+         */
+        @EqualsAndHashCode.Exclude
+        Range[] highestUpper;
+
+        RangeSet(List<Range> ranges) {
+            this.ranges = ranges;
+            this.byLower = ranges.toArray(new Range[0]);
+            Arrays.sort(byLower, RangeSet::compareLower);
+            this.highestUpper = new Range[byLower.length];
+            for (int i = 0; i < byLower.length; i++) {
+                highestUpper[i] = i == 0 || compareUpper(byLower[i], highestUpper[i - 1]) > 0 ?
+                        byLower[i] : highestUpper[i - 1];
+            }
+        }
+
         public boolean matches(Version version) {
-            for (Range range : ranges) {
-                boolean lowerMatches = true;
-                if (range.lower != null) {
-                    int lowComp = range.lower.compareTo(version);
-                    lowerMatches = lowComp == 0 ? range.lowerClosed : lowComp < 0;
+            // binary search for the number of ranges whose lower bounds admit the version
+            int low = 0, high = byLower.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (byLower[mid].lowerAdmits(version)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low > 0 && highestUpper[low - 1].upperAdmits(version);
+        }
+
+        /**
+         * A hand-written parser for range sets like {@code [1.0,2.0),[3.0,)}, which are all that is requested
+         * in practice.
+         *
+         * @return The range set, or {@code null} if the requested version is anything other than a
+         * comma-separated list of well-formed ranges.
+         */
+        @Nullable
+        static RangeSet parse(String requested) {
+            List<Range> ranges = new ArrayList<>(1);
+            int i = 0;
+            while (true) {
+                i = skipWhitespace(requested, i);
+                if (i == requested.length() || (requested.charAt(i) != '[' && requested.charAt(i) != '(')) {
+                    return null;
+                }
+                int close = i + 1;
+                while (close < requested.length() && requested.charAt(close) != ']' && requested.charAt(close) != ')') {
+                    close++;
                 }
-                if (!lowerMatches) {
-                    return false;
+                if (close == requested.length()) {
+                    return null;
                 }
 
-                boolean upperMatches = true;
-                if (range.upper != null) {
-                    int upperComp = range.upper.compareTo(version);
-                    upperMatches = upperComp == 0 ? range.upperClosed : upperComp > 0;
+                String bounds = requested.substring(i + 1, close);
+                int comma = bounds.indexOf(',');
+                Version lower, upper;
+                if (comma < 0) {
+                    lower = upper = parseVersion(bounds);
+                    if (lower == null) {
+                        return null;
+                    }
+                } else {
+                    String lowerText = bounds.substring(0, comma).trim();
+                    String upperText = bounds.substring(comma + 1).trim();
+                    lower = parseVersion(lowerText);
+                    upper = parseVersion(upperText);
+                    if ((lower == null && !lowerText.isEmpty()) || (upper == null && !upperText.isEmpty())) {
+                        return null;
+                    }
+                }
+                ranges.add(new Range(requested.charAt(i) == '[', lower, requested.charAt(close) == ']', upper));
+
+                i = skipWhitespace(requested, close + 1);
+                if (i == requested.length()) {
+                    return new RangeSet(ranges);
+                } else if (requested.charAt(i) != ',') {
+                    return null;
                 }
-                if (upperMatches) {
-                    return true;
+                i++;
+            }
+        }
+
+        private static int skipWhitespace(String s, int i) {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * @return The version, or {@code null} if the text is not a single version token of the version range grammar.
+         */
+        @Nullable
+        private static Version parseVersion(String text) {
+            text = text.trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+                      c == '+' || c == '-' || c == '_' || c == '.')) {
+                    return null;
                 }
             }
-            return false;
+            return new Version(text);
+        }
+
+        private static int compareLower(Range r1, Range r2) {
+            if (r1.lower == null || r2.lower == null) {
+                return r1.lower == null ? (r2.lower == null ? 0 : -1) : 1;
+            }
+            int comp = r1.lower.compareTo(r2.lower);
+            return comp != 0 ? comp : Boolean.compare(r2.lowerClosed, r1.lowerClosed);
+        }
+
+        private static int compareUpper(Range r1, Range r2) {
+            if (r1.upper == null || r2.upper == null) {
+                return r1.upper == null ? (r2.upper == null ? 0 : 1) : -1;
+            }
+            int comp = r1.upper.compareTo(r2.upper);
+            return comp != 0 ? comp : Boolean.compare(r1.upperClosed, r2.upperClosed);
         }
 
         @Override
@@ -222,6 +350,22 @@ private static class Range {
         @Nullable
         Version upper;
 
+        boolean lowerAdmits(Version version) {
+            if (lower == null) {
+                return true;
+            }
+            int lowComp = lower.compareTo(version);
+            return lowComp == 0 ? lowerClosed : lowComp < 0;
+        }
+
+        boolean upperAdmits(Version version) {
+            if (upper == null) {
+                return true;
+            }
+            int upperComp = upper.compareTo(version);
+            return upperComp == 0 ? upperClosed : upperComp > 0;
+        }
+
         @Override
         public String toString() {
             return (lowerClosed ? "[" : "(") + lower + "," + upper +
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.table;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.maven.tree.MetricsResolutionEventListener;
+
+@JsonIgnoreType
+@Incubating(since = "8.13.0")
+public class MavenResolutionMetrics extends DataTable<MavenResolutionMetrics.Row> {
+
+    public MavenResolutionMetrics(Recipe recipe) {
+        super(recipe, Row.class, MavenResolutionMetrics.class.getName(),
+                "Maven resolution metrics",
+                "Requests to each repository, cache lookups, time spent resolving parents and dependencies, " +
+                "and restarts of dependency resolution.");
+    }
+
+    public void insertRows(ExecutionContext ctx, MetricsResolutionEventListener metrics) {
+        for (MetricsResolutionEventListener.Statistic statistic : metrics.getStatistics()) {
+            insertRow(ctx, new Row(
+                    statistic.getCategory(),
+                    statistic.getName(),
+                    statistic.getCount(),
+                    statistic.getFailures(),
+                    statistic.getBytes(),
+                    statistic.getTotalTime().toMillis(),
+                    statistic.getMaxTime().toMillis()
+            ));
+        }
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Category",
+                description = "One of `request`, `cache`, `resolution` or `restart`.")
+        String category;
+
+        @Column(displayName = "Name",
+                description = "The repository URI of a request, the kind of cache entry looked up, " +
+                              "`parents` or `dependencies` for time spent resolving, or the artifact whose " +
+                              "changed version restarted dependency resolution.")
+        String name;
+
+        @Column(displayName = "Count",
+                description = "The number of requests, lookups, resolutions or restarts.")
+        Long count;
+
+        @Column(displayName = "Failures",
+                description = "Requests without a successful response, or cache lookups that missed.")
+        Long failures;
+
+        @Column(displayName = "Bytes",
+                description = "The size of every response received from a repository.")
+        Long bytes;
+
+        @Column(displayName = "Total time (ms)",
+                description = "The total time taken by requests or resolutions.")
+        Long totalTimeMillis;
+
+        @Column(displayName = "Max time (ms)",
+                description = "The time taken by the slowest request or resolution.")
+        Long maxTimeMillis;
+    }
+}
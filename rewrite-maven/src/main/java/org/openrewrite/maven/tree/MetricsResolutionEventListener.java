@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.tree;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals the requests made to each repository, the lookups of each kind of cache entry, the time spent
+ * resolving parents and dependencies, and the restarts of dependency resolution caused by each artifact.
+ * The totals are kept across {@link #clear()}, and are safe to update from hedged requests on other threads.
+ * They can be written to the {@link org.openrewrite.maven.table.MavenResolutionMetrics} data table.
+ */
+@Incubating(since = "8.13.0")
+public class MetricsResolutionEventListener implements ResolutionEventListener {
+    public static final String REQUEST = "request";
+    public static final String CACHE = "cache";
+    public static final String RESOLUTION = "resolution";
+    public static final String RESTART = "restart";
+
+    private final Map<String, Map<String, Statistic>> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void repositoryRequest(String repositoryUri, @Nullable Integer httpStatus, long bytes, Duration latency) {
+        statistic(REQUEST, repositoryUri).record(httpStatus == null || httpStatus >= 300, bytes, latency);
+    }
+
+    @Override
+    public void cacheLookup(String cache, boolean hit) {
+        statistic(CACHE, cache).record(!hit, 0, Duration.ZERO);
+    }
+
+    @Override
+    public void resolutionRestarted(GroupArtifact ga, @Nullable String previousVersion, String newVersion, ResolvedPom containing) {
+        statistic(RESTART, ga.getGroupId() + ":" + ga.getArtifactId()).record(false, 0, Duration.ZERO);
+    }
+
+    @Override
+    public void parentsResolved(Pom pom, Duration time) {
+        statistic(RESOLUTION, "parents").record(false, 0, time);
+    }
+
+    @Override
+    public void dependenciesResolved(Scope scope, ResolvedPom containing, Duration time) {
+        statistic(RESOLUTION, "dependencies").record(false, 0, time);
+    }
+
+    public Collection<Statistic> getStatistics() {
+        Collection<Statistic> all = new ArrayList<>();
+        for (Map<String, Statistic> byName : statistics.values()) {
+            all.addAll(byName.values());
+        }
+        return all;
+    }
+
+    public Collection<Statistic> getStatistics(String category) {
+        Map<String, Statistic> byName = statistics.get(category);
+        return byName == null ? new ArrayList<>() : new ArrayList<>(byName.values());
+    }
+
+    private Statistic statistic(String category, String name) {
+        return statistics.computeIfAbsent(category, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> new Statistic(category, n));
+    }
+
+    @RequiredArgsConstructor
+    public static class Statistic {
+        @Getter
+        private final String category;
+
+        /**
+         * The repository URI of a request, the kind of cache entry, the resolution phase, or the
+         * artifact that caused a restart.
+         */
+        @Getter
+        private final String name;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(boolean failure, long bytes, Duration time) {
+            count.increment();
+            if (failure) {
+                failures.increment();
+            }
+            this.bytes.add(bytes);
+            long nanos = time.toNanos();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return Requests that did not receive a successful response, or cache lookups that missed.
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public Duration getTotalTime() {
+            return Duration.ofNanos(totalNanos.sum());
+        }
+
+        public Duration getMaxTime() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+    }
+}
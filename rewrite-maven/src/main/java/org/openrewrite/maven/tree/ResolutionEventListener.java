@@ -15,8 +15,10 @@
  */
 package org.openrewrite.maven.tree;
 
+import org.openrewrite.Incubating;
 import org.openrewrite.internal.lang.Nullable;
 
+import java.time.Duration;
 import java.util.List;
 
 @SuppressWarnings("unused")
@@ -64,4 +66,59 @@ default void repository(MavenRepository mavenRepository, @Nullable ResolvedPom c
 
     default void repositoryAccessFailed(String uri, Throwable e) {
     }
+
+    /**
+     * Called for every HTTP request made to a repository, which may be from a thread other than the one
+     * resolving dependencies when requests are hedged.
+     *
+     * @param repositoryUri - The URI of the repository the request was made to
+     * @param httpStatus    - The HTTP status of the last response, or null if no response was received
+     * @param bytes         - The size of every response body received, including those of retried requests
+     * @param latency       - The time taken to complete the request, including retries
+     */
+    @Incubating(since = "8.13.0")
+    default void repositoryRequest(String repositoryUri, @Nullable Integer httpStatus, long bytes, Duration latency) {
+    }
+
+    /**
+     * @param cache - The kind of entry that was looked up, one of "pom", "metadata" or "dependency"
+     * @param hit   - Whether the cache had an answer, including a cached failure to download
+     */
+    @Incubating(since = "8.13.0")
+    default void cacheLookup(String cache, boolean hit) {
+    }
+
+    /**
+     * Called when dependency resolution starts over because a newly seen version requirement changed the
+     * version an artifact resolves to. Unlike {@link #clear()}, this should not discard what has been observed.
+     *
+     * @param ga              - The artifact whose resolved version changed
+     * @param previousVersion - The version the artifact resolved to before
+     * @param newVersion      - The version the artifact resolves to with the new requirement
+     * @param containing      - The pom whose dependencies are being resolved
+     */
+    @Incubating(since = "8.13.0")
+    default void resolutionRestarted(GroupArtifact ga, @Nullable String previousVersion, String newVersion, ResolvedPom containing) {
+    }
+
+    /**
+     * Called once per resolved pom. Parents of dependency poms are resolved as part of, and timed with,
+     * {@link #dependenciesResolved}.
+     *
+     * @param pom  - The pom whose ancestry was resolved
+     * @param time - The time taken to resolve properties, repositories, dependency management and plugins
+     *             from the pom's parents, including downloading them
+     */
+    @Incubating(since = "8.13.0")
+    default void parentsResolved(Pom pom, Duration time) {
+    }
+
+    /**
+     * @param scope      - The scope whose dependencies were resolved
+     * @param containing - The pom whose dependencies were resolved
+     * @param time       - The time taken, including resolving the parents of every dependency and any restarts
+     */
+    @Incubating(since = "8.13.0")
+    default void dependenciesResolved(Scope scope, ResolvedPom containing, Duration time) {
+    }
 }
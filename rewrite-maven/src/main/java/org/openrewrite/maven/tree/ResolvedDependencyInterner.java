@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.tree;
+
+import org.openrewrite.Incubating;
+
+import java.util.*;
+
+/**
+ * Makes the dependency graphs of the modules of a multi-module build, and of the scopes of each module, share
+ * every subtree they have in common, so that a dependency that many modules use, along with all of its transitive
+ * dependencies, is held in memory and serialized with each module's LST only once.
+ * <p>
+ * Two resolved dependencies are the same node of the shared graph if they are equal and their dependencies are the
+ * same nodes. Graphs are interned bottom up once they are fully resolved, and are never modified after that.
+ */
+@Incubating(since = "8.13.0")
+public class ResolvedDependencyInterner {
+    private final Map<Node, ResolvedDependency> nodes = new HashMap<>();
+
+    public synchronized Map<Scope, List<ResolvedDependency>> intern(Map<Scope, List<ResolvedDependency>> dependencies) {
+        Map<ResolvedDependency, ResolvedDependency> interned = new IdentityHashMap<>();
+        Map<Scope, List<ResolvedDependency>> result = new HashMap<>(dependencies.size());
+        for (Map.Entry<Scope, List<ResolvedDependency>> scope : dependencies.entrySet()) {
+            List<ResolvedDependency> scopeDependencies = new ArrayList<>(scope.getValue().size());
+            for (ResolvedDependency dependency : scope.getValue()) {
+                scopeDependencies.add(intern(dependency, interned));
+            }
+            result.put(scope.getKey(), scopeDependencies);
+        }
+        return result;
+    }
+
+    private ResolvedDependency intern(ResolvedDependency dependency, Map<ResolvedDependency, ResolvedDependency> interned) {
+        ResolvedDependency canonical = interned.get(dependency);
+        if (canonical != null) {
+            return canonical;
+        }
+        // guards against a cycle, which resolution doesn't produce
+        interned.put(dependency, dependency);
+
+        List<ResolvedDependency> children = dependency.getDependencies();
+        List<ResolvedDependency> internedChildren = children;
+        for (int i = 0; i < children.size(); i++) {
+            ResolvedDependency child = intern(children.get(i), interned);
+            if (child != children.get(i)) {
+                if (internedChildren == children) {
+                    internedChildren = new ArrayList<>(children);
+                }
+                internedChildren.set(i, child);
+            }
+        }
+        if (internedChildren != children) {
+            // the dependency is not yet shared, since it's only interned below
+            dependency.unsafeSetDependencies(internedChildren);
+        }
+
+        canonical = nodes.computeIfAbsent(new Node(dependency), n -> dependency);
+        interned.put(dependency, canonical);
+        return canonical;
+    }
+
+    private static class Node {
+        private final ResolvedDependency dependency;
+        private final int hash;
+
+        Node(ResolvedDependency dependency) {
+            this.dependency = dependency;
+            int h = dependency.hashCode();
+            for (ResolvedDependency child : dependency.getDependencies()) {
+                h = 31 * h + System.identityHashCode(child);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Node)) {
+                return false;
+            }
+            ResolvedDependency other = ((Node) obj).dependency;
+            if (!dependency.equals(other)) {
+                return false;
+            }
+            // children are already interned, so they are the same nodes only if they are the same instances
+            List<ResolvedDependency> children = dependency.getDependencies();
+            List<ResolvedDependency> otherChildren = other.getDependencies();
+            if (children.size() != otherChildren.size()) {
+                return false;
+            }
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i) != otherChildren.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -37,11 +37,13 @@
 import org.openrewrite.maven.cache.MavenPomCache;
 import org.openrewrite.maven.internal.MavenParsingException;
 import org.openrewrite.maven.internal.MavenPomDownloader;
+import org.openrewrite.maven.internal.ResolutionMeters;
 import org.openrewrite.maven.internal.VersionRequirement;
 import org.openrewrite.maven.tree.ManagedDependency.Defined;
 import org.openrewrite.maven.tree.ManagedDependency.Imported;
 import org.openrewrite.maven.tree.Plugin.Execution;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
@@ -348,7 +350,18 @@ class Resolver {
         MavenPomDownloader downloader;
 
         public ResolvedPom resolve() throws MavenDownloadingException {
-            resolveParentsRecursively(requested);
+            // only the parents of the requested pom are timed, because resolving dependencies
+            // resolves the parents of each dependency's pom as part of its own phase
+            long start = System.nanoTime();
+            try {
+                resolveParentsRecursively(requested);
+            } finally {
+                Duration time = Duration.ofNanos(System.nanoTime() - start);
+                ResolutionMeters.resolution("parents", time);
+                MavenExecutionContextView.view(ctx)
+                        .getResolutionListener()
+                        .parentsResolved(requested, time);
+            }
             return ResolvedPom.this;
         }
 
@@ -807,6 +820,29 @@ public List<ResolvedDependency> resolveDependencies(Scope scope, MavenPomDownloa
 
     public List<ResolvedDependency> resolveDependencies(Scope scope, Map<GroupArtifact, VersionRequirement> requirements,
                                                         MavenPomDownloader downloader, ExecutionContext ctx) throws MavenDownloadingExceptions {
+        long start = System.nanoTime();
+        try {
+            List<ResolvedDependency> dependencies;
+            do {
+                dependencies = resolveDependenciesOrRestart(scope, requirements, downloader, ctx);
+            } while (dependencies == null);
+            return dependencies;
+        } finally {
+            Duration time = Duration.ofNanos(System.nanoTime() - start);
+            ResolutionMeters.resolution("dependencies", time);
+            MavenExecutionContextView.view(ctx)
+                    .getResolutionListener()
+                    .dependenciesResolved(scope, this, time);
+        }
+    }
+
+    /**
+     * @return The resolved dependencies, or null when resolution has to start over because a new version
+     * requirement changed the version of an artifact that may already have been resolved.
+     */
+    @Nullable
+    private List<ResolvedDependency> resolveDependenciesOrRestart(Scope scope, Map<GroupArtifact, VersionRequirement> requirements,
+                                                                  MavenPomDownloader downloader, ExecutionContext ctx) throws MavenDownloadingExceptions {
         List<ResolvedDependency> dependencies = new ArrayList<>();
 
         List<DependencyAndDependent> dependenciesAtDepth = new ArrayList<>();
@@ -862,10 +898,11 @@ public List<ResolvedDependency> resolveDependencies(Scope scope, Map<GroupArtifa
                             // start over from the top with the knowledge of this new requirement and throwing
                             // away any in progress resolution because this requirement could cause a change
                             // to just about anything we've seen to this point
-                            MavenExecutionContextView.view(ctx)
-                                    .getResolutionListener()
-                                    .clear();
-                            return resolveDependencies(scope, requirements, downloader, ctx);
+                            ResolutionEventListener listener = MavenExecutionContextView.view(ctx).getResolutionListener();
+                            listener.clear();
+                            listener.resolutionRestarted(ga, existingRequiredVersion, newRequiredVersion, this);
+                            ResolutionMeters.restart();
+                            return null;
                         } else if (contains(dependencies, ga, d.getClassifier())) {
                             // we've already resolved this previously and the requirement didn't change,
                             // so just skip and continue on
@@ -883,6 +920,10 @@ public List<ResolvedDependency> resolveDependencies(Scope scope, Map<GroupArtifa
 
                     MavenPomCache cache = MavenExecutionContextView.view(ctx).getPomCache();
                     ResolvedPom resolvedPom = cache.getResolvedDependencyPom(dPom.getGav());
+                    ResolutionMeters.cacheLookup("dependency", cache.getClass().getSimpleName(), resolvedPom != null);
+                    MavenExecutionContextView.view(ctx)
+                            .getResolutionListener()
+                            .cacheLookup("dependency", resolvedPom != null);
                     if (resolvedPom == null) {
                         resolvedPom = new ResolvedPom(dPom, getActiveProfiles(), emptyMap(),
                                 emptyList(), initialRepositories, emptyList(), emptyList(), emptyList(), emptyList());
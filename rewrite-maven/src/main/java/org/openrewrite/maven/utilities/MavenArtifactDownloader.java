@@ -26,19 +26,23 @@
 import org.openrewrite.maven.cache.MavenArtifactCache;
 import org.openrewrite.maven.tree.MavenRepository;
 import org.openrewrite.maven.tree.ResolvedDependency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeoutException;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -47,6 +51,8 @@
 import static org.openrewrite.internal.StreamUtils.readAllBytes;
 
 public class MavenArtifactDownloader {
+    private static final Logger logger = LoggerFactory.getLogger(MavenArtifactDownloader.class);
+
     private static final RetryPolicy<Object> retryPolicy = RetryPolicy.builder()
             .handle(SocketTimeoutException.class, TimeoutException.class)
             .handleIf(throwable -> throwable instanceof UncheckedIOException && throwable.getCause() instanceof SocketTimeoutException)
@@ -55,11 +61,20 @@ public class MavenArtifactDownloader {
             .withMaxRetries(5)
             .build();
 
+    private static final int DEFAULT_DOWNLOAD_PARALLELISM = 8;
+
     private final MavenArtifactCache mavenArtifactCache;
     private final Map<String, MavenSettings.Server> serverIdToServer;
     private final Consumer<Throwable> onError;
     private final HttpSender httpSender;
 
+    /**
+     * Downloads currently in progress, so that threads requesting the same artifact concurrently
+     * share one download rather than racing to write it to the cache.
+     */
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    private boolean verifyChecksums;
 
     public MavenArtifactDownloader(MavenArtifactCache mavenArtifactCache,
                                    @Nullable MavenSettings settings,
@@ -80,6 +95,63 @@ public MavenArtifactDownloader(MavenArtifactCache mavenArtifactCache,
                         .collect(toMap(MavenSettings.Server::getId, Function.identity()));
     }
 
+    /**
+     * @param verifyChecksums Whether to verify artifacts downloaded from remote repositories against the SHA-1
+     *                        checksum published alongside them, at the cost of a second request per artifact.
+     * @return This downloader.
+     */
+    public MavenArtifactDownloader setVerifyChecksums(boolean verifyChecksums) {
+        this.verifyChecksums = verifyChecksums;
+        return this;
+    }
+
+    /**
+     * Fetch the jar files indicated by the dependencies in parallel.
+     *
+     * @param dependencies The dependencies to download.
+     * @return The paths on disk of the downloaded artifacts, keyed by dependency, in the iteration order of
+     * the dependencies. Dependencies that could not be downloaded are reported to the error consumer and omitted.
+     */
+    public Map<ResolvedDependency, Path> downloadArtifacts(Collection<ResolvedDependency> dependencies) {
+        if (dependencies.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(dependencies.size(), DEFAULT_DOWNLOAD_PARALLELISM));
+        try {
+            return downloadArtifacts(dependencies, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Fetch the jar files indicated by the dependencies in parallel on the supplied executor.
+     *
+     * @param dependencies The dependencies to download.
+     * @param executor     The executor to perform downloads on.
+     * @return The paths on disk of the downloaded artifacts, keyed by dependency, in the iteration order of
+     * the dependencies. Dependencies that could not be downloaded are reported to the error consumer and omitted.
+     */
+    public Map<ResolvedDependency, Path> downloadArtifacts(Collection<ResolvedDependency> dependencies, Executor executor) {
+        Map<ResolvedDependency, CompletableFuture<Path>> downloads = new LinkedHashMap<>();
+        for (ResolvedDependency dependency : dependencies) {
+            downloads.computeIfAbsent(dependency, d -> CompletableFuture.supplyAsync(() -> downloadArtifact(d), executor));
+        }
+
+        Map<ResolvedDependency, Path> artifacts = new LinkedHashMap<>();
+        for (Map.Entry<ResolvedDependency, CompletableFuture<Path>> download : downloads.entrySet()) {
+            try {
+                Path artifact = download.getValue().join();
+                if (artifact != null) {
+                    artifacts.put(download.getKey(), artifact);
+                }
+            } catch (CompletionException e) {
+                onError.accept(e.getCause() == null ? e : e.getCause());
+            }
+        }
+        return artifacts;
+    }
+
     /**
      * Fetch the jar file indicated by the dependency.
      *
@@ -91,6 +163,29 @@ public Path downloadArtifact(ResolvedDependency dependency) {
         if (dependency.getRequested().getType() != null && !"jar".equals(dependency.getRequested().getType())) {
             return null;
         }
+
+        String key = dependency.getGav() + (dependency.getRequested().getClassifier() == null ? "" :
+                ":" + dependency.getRequested().getClassifier());
+        CompletableFuture<Path> download = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, download);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            Path artifact = computeArtifact(dependency);
+            download.complete(artifact);
+            return artifact;
+        } catch (Throwable t) {
+            download.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, download);
+        }
+    }
+
+    @Nullable
+    private Path computeArtifact(ResolvedDependency dependency) {
         return mavenArtifactCache.computeArtifact(dependency, () -> {
             String baseUri = requireNonNull(dependency.getRepository(),
                     String.format("Repository for dependency '%s' was null.", dependency)).getUri();
@@ -118,7 +213,14 @@ public Path downloadArtifact(ResolvedDependency dependency) {
                                 dependency.getRequested().getGav()));
                         return null;
                     }
-                    bodyStream = new ByteArrayInputStream(readAllBytes(body));
+                    byte[] artifact = readAllBytes(body);
+                    if (verifyChecksums && !checksumMatches(dependency, uri, artifact)) {
+                        onError.accept(new MavenDownloadingException(String.format("Checksum of dependency %s:%s:%s downloaded from %s does not match its published SHA-1",
+                                dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), uri), null,
+                                dependency.getRequested().getGav()));
+                        return null;
+                    }
+                    bodyStream = new ByteArrayInputStream(artifact);
                 } catch (Throwable t) {
                     Throwable cause = t instanceof FailsafeException && t.getCause() != null ? t.getCause() : t;
                     throw new MavenDownloadingException("Unable to download dependency", cause,
@@ -129,6 +231,40 @@ public Path downloadArtifact(ResolvedDependency dependency) {
         }, onError);
     }
 
+    /**
+     * Verify the artifact against the {@code .sha1} checksum published alongside it. When no checksum can be
+     * retrieved the artifact is used unverified, which is logged.
+     */
+    private boolean checksumMatches(ResolvedDependency dependency, String uri, byte[] artifact) {
+        HttpSender.Request.Builder request = applyAuthentication(dependency.getRepository(), httpSender.get(uri + ".sha1"));
+        String expected;
+        try (HttpSender.Response response = Failsafe.with(retryPolicy).get(() -> httpSender.send(request.build()))) {
+            byte[] body = response.getBodyAsBytes();
+            if (!response.isSuccessful() || body.length == 0) {
+                logger.warn("Using {} without verifying it, since no SHA-1 checksum is published for it. Response was {}",
+                        uri, response.getCode());
+                return true;
+            }
+            // some repositories publish the checksum followed by the file name
+            expected = new String(body, StandardCharsets.UTF_8).trim().split("\\s+")[0].toLowerCase();
+        } catch (Throwable t) {
+            logger.warn("Using {} without verifying it, since its SHA-1 checksum could not be downloaded", uri, t);
+            return true;
+        }
+
+        try {
+            byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(artifact);
+            StringBuilder actual = new StringBuilder(sha1.length * 2);
+            for (byte b : sha1) {
+                actual.append(String.format("%02x", b));
+            }
+            return expected.equals(actual.toString());
+        } catch (NoSuchAlgorithmException e) {
+            logger.warn("Using {} without verifying it, since SHA-1 is not available", uri, e);
+            return true;
+        }
+    }
+
     private HttpSender.Request.Builder applyAuthentication(MavenRepository repository, HttpSender.Request.Builder request) {
         MavenSettings.Server authInfo = serverIdToServer.get(repository.getId());
         if (authInfo != null) {
@@ -28,7 +28,12 @@
 import org.openrewrite.maven.tree.Scope;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,6 +62,37 @@ void dontCreateFileWhenInputStringNull(@TempDir Path tempDir) {
         assertThat(tempDir).isEmptyDirectory();
     }
 
+    @Test
+    void leaveNoPartialFileWhenStreamFails(@TempDir Path tempDir) {
+        cache = new LocalMavenArtifactCache(tempDir);
+        ResolvedDependency dependency = findDependency();
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream("partial".getBytes()), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+
+        List<Throwable> errors = new ArrayList<>();
+        assertThat(cache.putArtifact(dependency, failing, errors::add)).isNull();
+        assertThat(errors).hasSize(1);
+        assertThat(cache.getArtifact(dependency)).isNull();
+    }
+
+    @Test
+    void hardlinkIdenticalArtifactsWhenContentAddressed(@TempDir Path tempDir) throws IOException {
+        cache = new LocalMavenArtifactCache(tempDir, true);
+        ResolvedDependency dependency = findDependency();
+        ResolvedDependency relocated = dependency.withGav(dependency.getGav().withArtifactId("relocated"));
+
+        Path first = cache.putArtifact(dependency, new ByteArrayInputStream("hi".getBytes()), Throwable::printStackTrace);
+        Path second = cache.putArtifact(relocated, new ByteArrayInputStream("hi".getBytes()), Throwable::printStackTrace);
+
+        assertThat(first).hasContent("hi");
+        assertThat(second).hasContent("hi");
+        assertThat(Files.isSameFile(first, second)).isTrue();
+    }
+
     private static ResolvedDependency findDependency() {
         ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
         ResolvedGroupArtifactVersion recipeGav = new ResolvedGroupArtifactVersion(
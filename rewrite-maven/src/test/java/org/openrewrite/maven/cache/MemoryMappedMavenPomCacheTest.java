@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.maven.internal.RawPom;
+import org.openrewrite.maven.tree.GroupArtifactVersion;
+import org.openrewrite.maven.tree.Pom;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryMappedMavenPomCacheTest {
+
+    @Test
+    void entryPersistedInExistingCache(@TempDir Path tempDir) throws Exception {
+        Path pomCacheDir = tempDir.resolve(".rewrite-pom-cache").toAbsolutePath().normalize();
+        try {
+            MemoryMappedMavenPomCache mavenCache = new MemoryMappedMavenPomCache(tempDir);
+            Pom pom = parsePomXml(
+              """
+                <project>
+                    <modelVersion>4.0.0</modelVersion>
+                    <groupId>com.foo</groupId>
+                    <artifactId>test</artifactId>
+                    <version>1.0.1</version>
+                    <name>test</name>
+                </project>
+                """);
+            mavenCache.putPom(pom.getGav(), pom);
+            MemoryMappedMavenPomCache.closeStore(pomCacheDir);
+
+            //Re-open and ensure cached value is correct.
+            mavenCache = new MemoryMappedMavenPomCache(tempDir);
+            Optional<Pom> cached = mavenCache.getPom(pom.getGav());
+            assertThat(cached).isPresent();
+            assertThat(cached.get().getGav()).isEqualTo(pom.getGav());
+        } finally {
+            MemoryMappedMavenPomCache.closeStore(pomCacheDir);
+        }
+    }
+
+    @Test
+    void artifactPresenceExpires(@TempDir Path tempDir) {
+        Path pomCacheDir = tempDir.resolve(".rewrite-pom-cache").toAbsolutePath().normalize();
+        try {
+            MemoryMappedMavenPomCache mavenCache = new MemoryMappedMavenPomCache(tempDir);
+            URI repository = URI.create("https://repo.example.com/maven2");
+            GroupArtifactVersion present = new GroupArtifactVersion("com.foo", "present", "1.0.0");
+            GroupArtifactVersion expired = new GroupArtifactVersion("com.foo", "expired", "1.0.0");
+
+            mavenCache.putArtifactPresence(repository, present, true, Duration.ofHours(1));
+            mavenCache.putArtifactPresence(repository, expired, false, Duration.ofHours(-1));
+
+            assertThat(mavenCache.getArtifactPresence(repository, present)).isTrue();
+            assertThat(mavenCache.getArtifactPresence(repository, expired)).isNull();
+        } finally {
+            MemoryMappedMavenPomCache.closeStore(pomCacheDir);
+        }
+    }
+
+    @Test
+    void processesShareEntriesAcrossCompaction(@TempDir Path tempDir) {
+        // two stores on the same directory stand in for two processes sharing the cache file
+        MemoryMappedMavenPomCache.Store first = new MemoryMappedMavenPomCache.Store(tempDir);
+        MemoryMappedMavenPomCache.Store second = new MemoryMappedMavenPomCache.Store(tempDir);
+        try {
+            first.put("a", bytes("1"));
+            first.put("b", bytes("2"));
+            first.put("a", bytes("3"));
+            assertThat(string(second.get("a"))).isEqualTo("3");
+
+            first.compact();
+            // the compacted entries are published as the next generation, rather than moved over a mapped file
+            assertThat(tempDir.resolve("poms.1.dat")).exists();
+            second.put("c", bytes("4"));
+
+            assertThat(string(first.get("a"))).isEqualTo("3");
+            assertThat(string(first.get("b"))).isEqualTo("2");
+            assertThat(string(first.get("c"))).isEqualTo("4");
+            assertThat(first.get("d")).isNull();
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer value) {
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Pom parsePomXml(String pom) {
+        return RawPom.parse(new ByteArrayInputStream(pom.getBytes()), null).toPom(null, null);
+    }
+}
@@ -32,16 +32,19 @@
 import org.openrewrite.maven.MavenExecutionContextView;
 import org.openrewrite.maven.MavenParser;
 import org.openrewrite.maven.MavenSettings;
+import org.openrewrite.maven.cache.InMemoryMavenPomCache;
 import org.openrewrite.maven.tree.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.URI;
 import java.net.UnknownHostException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -363,6 +366,138 @@ public MockResponse dispatch(RecordedRequest recordedRequest) {
         }
     }
 
+    @Test
+    void hedgedRequestsDoNotOverrideRepositoryPrecedence() throws Exception {
+        var pomCache = new InMemoryMavenPomCache();
+        var requestedFrom = new ArrayList<String>();
+        var hedgedCtx = MavenExecutionContextView.view(ctx)
+          .setPomCache(pomCache)
+          .setHedgedRequests(1)
+          .setResolutionListener(new ResolutionEventListener() {
+              @Override
+              public void repositoryRequest(String repositoryUri, @Nullable Integer httpStatus, long bytes, Duration latency) {
+                  requestedFrom.add(Thread.currentThread().getName() + " " + repositoryUri);
+              }
+          });
+        var downloader = new MavenPomDownloader(emptyMap(), hedgedCtx);
+        var gav = new GroupArtifactVersion("fred", "fred", "1.0.0");
+        try (MockWebServer first = new MockWebServer(); MockWebServer second = new MockWebServer()) {
+            Dispatcher pom200 = pomDispatcher(200);
+            first.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+                    // answer after the hedged request to the second repository has completed
+                    return pom200.dispatch(recordedRequest).setHeadersDelay(1, TimeUnit.SECONDS);
+                }
+            });
+            second.setDispatcher(pom200);
+            first.start();
+            second.start();
+
+            Pom pom = downloader.download(gav, null, null, List.of(repository(first), repository(second)));
+
+            assertThat(pom.getRepository().getUri()).isEqualTo(repository(first).getUri());
+            RecordedRequest hedged = second.takeRequest(5, TimeUnit.SECONDS);
+            assertThat(hedged).isNotNull();
+            assertThat(hedged.getPath()).isEqualTo("/maven/fred/fred/1.0.0/fred-1.0.0.pom");
+            assertThat(pomCache.getArtifactPresence(URI.create(repository(second).getUri()), gav)).isTrue();
+            // the hedged request is reported by the thread that resolved the POM, not the one that sent it
+            String thread = Thread.currentThread().getName();
+            assertThat(requestedFrom)
+              .allMatch(request -> request.startsWith(thread + " "))
+              .contains(thread + " " + repository(second).getUri());
+        }
+    }
+
+    @Test
+    void rememberWhichRepositoriesContainAnArtifact() throws Exception {
+        var pomCache = new InMemoryMavenPomCache();
+        var downloader = new MavenPomDownloader(emptyMap(), MavenExecutionContextView.view(ctx).setPomCache(pomCache));
+        var gav = new GroupArtifactVersion("fred", "fred", "1.0.0");
+        try (MockWebServer first = new MockWebServer(); MockWebServer second = new MockWebServer()) {
+            first.setDispatcher(pomDispatcher(404));
+            second.setDispatcher(pomDispatcher(200));
+            first.start();
+            second.start();
+            URI firstUri = URI.create(repository(first).getUri());
+            URI secondUri = URI.create(repository(second).getUri());
+
+            Pom pom = downloader.download(gav, null, null, List.of(repository(first), repository(second)));
+
+            assertThat(pom.getRepository().getUri()).isEqualTo(secondUri.toString());
+            assertThat(pomCache.getArtifactPresence(firstUri, gav)).isFalse();
+            assertThat(pomCache.getArtifactPresence(secondUri, gav)).isTrue();
+
+            pomCache.putArtifactPresence(firstUri, gav, false, Duration.ZERO);
+            assertThat(pomCache.getArtifactPresence(firstUri, gav)).isNull();
+        }
+    }
+
+    @Test
+    void reportRequestsAndCacheLookupsToResolutionListener() throws Exception {
+        var metrics = new MetricsResolutionEventListener();
+        var downloader = new MavenPomDownloader(emptyMap(), MavenExecutionContextView.view(ctx)
+          .setPomCache(new InMemoryMavenPomCache())
+          .setAddLocalRepository(false)
+          .setResolutionListener(metrics));
+        var gav = new GroupArtifactVersion("fred", "fred", "1.0.0");
+        try (MockWebServer first = new MockWebServer(); MockWebServer second = new MockWebServer()) {
+            first.setDispatcher(pomDispatcher(404));
+            second.setDispatcher(pomDispatcher(200));
+            first.start();
+            second.start();
+
+            downloader.download(gav, null, null, List.of(repository(first), repository(second)));
+            downloader.download(gav, null, null, List.of(repository(first), repository(second)));
+
+            assertThat(metrics.getStatistics(MetricsResolutionEventListener.REQUEST))
+              .allSatisfy(request -> assertThat(request.getCount()).isEqualTo(1))
+              .anySatisfy(request -> {
+                  assertThat(request.getName()).isEqualTo(repository(first).getUri());
+                  assertThat(request.getFailures()).isEqualTo(1);
+              })
+              .anySatisfy(request -> {
+                  assertThat(request.getName()).isEqualTo(repository(second).getUri());
+                  assertThat(request.getFailures()).isZero();
+                  assertThat(request.getBytes()).isPositive();
+              });
+            assertThat(metrics.getStatistics(MetricsResolutionEventListener.CACHE))
+              .singleElement()
+              .satisfies(pomLookups -> {
+                  assertThat(pomLookups.getName()).isEqualTo("pom");
+                  assertThat(pomLookups.getCount()).isEqualTo(4);
+                  assertThat(pomLookups.getFailures()).isEqualTo(2);
+              });
+        }
+    }
+
+    private static MavenRepository repository(MockWebServer mockRepo) {
+        return MavenRepository.builder()
+          .id("mock-" + mockRepo.getPort())
+          .uri("http://%s:%d/maven".formatted(mockRepo.getHostName(), mockRepo.getPort()))
+          .knownToExist(true)
+          .build();
+    }
+
+    private static Dispatcher pomDispatcher(int responseCode) {
+        return new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest recordedRequest) {
+                return responseCode != 200 ?
+                  new MockResponse().setResponseCode(responseCode).setBody("") :
+                  new MockResponse().setResponseCode(200).setBody(
+                    //language=xml
+                    """
+                      <project>
+                          <groupId>fred</groupId>
+                          <artifactId>fred</artifactId>
+                          <version>1.0.0</version>
+                      </project>
+                      """);
+            }
+        };
+    }
+
     @Test
     void usesAnonymousRequestIfRepositoryRejectsCredentials() {
         var downloader = new MavenPomDownloader(emptyMap(), ctx);
@@ -65,4 +65,22 @@ void emptyUnboundedRange() throws MavenDownloadingException {
         assertThat(VersionRequirement.fromVersion("(,)", 0).resolve(this::available))
                 .isEqualTo("10");
     }
+
+    @Test
+    void rangesOutOfOrder() throws MavenDownloadingException {
+        assertThat(VersionRequirement.fromVersion("[11,12],[1,3]", 0).resolve(this::available))
+          .isEqualTo("3");
+    }
+
+    @Test
+    void overlappingRanges() throws MavenDownloadingException {
+        assertThat(VersionRequirement.fromVersion("[2,3),[1,8],(5,6)", 0).resolve(this::available))
+          .isEqualTo("8");
+    }
+
+    @Test
+    void exactVersionAndWhitespaceInRangeSet() throws MavenDownloadingException {
+        assertThat(VersionRequirement.fromVersion(" [ 2 , 4 ) , [7] ", 0).resolve(this::available))
+          .isEqualTo("7");
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResolvedDependencyInternerTest {
+
+    @Test
+    void modulesShareCommonSubtrees() {
+        ResolvedDependencyInterner interner = new ResolvedDependencyInterner();
+        Map<Scope, List<ResolvedDependency>> module1 = interner.intern(Map.of(Scope.Compile, graph("1.0")));
+        Map<Scope, List<ResolvedDependency>> module2 = interner.intern(Map.of(Scope.Compile, graph("1.0")));
+        Map<Scope, List<ResolvedDependency>> module3 = interner.intern(Map.of(Scope.Compile, graph("2.0")));
+
+        ResolvedDependency root1 = module1.get(Scope.Compile).get(0);
+        ResolvedDependency root2 = module2.get(Scope.Compile).get(0);
+        assertThat(root2).isSameAs(root1);
+        assertThat(module2.get(Scope.Compile).get(1)).isSameAs(root1.getDependencies().get(0));
+
+        ResolvedDependency root3 = module3.get(Scope.Compile).get(0);
+        assertThat(root3).isNotSameAs(root1);
+        assertThat(root3.getDependencies().get(0)).isNotSameAs(root1.getDependencies().get(0));
+    }
+
+    /**
+     * A dependency on "a", which depends on "b" at the given version, listed the way resolution lists them.
+     */
+    private static List<ResolvedDependency> graph(String bVersion) {
+        ResolvedDependency b = dependency("b", bVersion, 1);
+        ResolvedDependency a = dependency("a", "1.0", 0);
+        a.unsafeSetDependencies(new ArrayList<>(List.of(b)));
+        return List.of(a, b);
+    }
+
+    private static ResolvedDependency dependency(String artifactId, String version, int depth) {
+        GroupArtifactVersion gav = new GroupArtifactVersion("org.example", artifactId, version);
+        return ResolvedDependency.builder()
+          .gav(new ResolvedGroupArtifactVersion(null, gav.getGroupId(), artifactId, version, null))
+          .requested(Dependency.builder().gav(gav).build())
+          .dependencies(List.of())
+          .licenses(List.of())
+          .depth(depth)
+          .build();
+    }
+}
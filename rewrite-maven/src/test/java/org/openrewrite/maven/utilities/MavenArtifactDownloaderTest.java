@@ -15,6 +15,11 @@
  */
 package org.openrewrite.maven.utilities;
 
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.openrewrite.ExecutionContext;
@@ -23,13 +28,15 @@
 import org.openrewrite.maven.MavenParser;
 import org.openrewrite.maven.cache.LocalMavenArtifactCache;
 import org.openrewrite.maven.cache.MavenArtifactCache;
-import org.openrewrite.maven.tree.MavenResolutionResult;
-import org.openrewrite.maven.tree.ResolvedDependency;
-import org.openrewrite.maven.tree.ResolvedGroupArtifactVersion;
-import org.openrewrite.maven.tree.Scope;
+import org.openrewrite.maven.tree.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -83,4 +90,82 @@ void downloadDependencies(@TempDir Path tempDir) {
               runtimeDependency.getType()));
     }
   }
+
+    @Test
+    void downloadArtifactsInParallelAndVerifyChecksums(@TempDir Path tempDir) throws IOException {
+        byte[] jar = "jar".getBytes(StandardCharsets.UTF_8);
+        try (MockWebServer mockRepo = new MockWebServer()) {
+            mockRepo.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest recordedRequest) {
+                    String path = Objects.requireNonNull(recordedRequest.getPath());
+                    if (path.endsWith(".jar")) {
+                        return new MockResponse().setResponseCode(200).setBody(new Buffer().write(jar));
+                    } else if (path.endsWith("good-1.0.jar.sha1")) {
+                        // SHA-1 of "jar", followed by a file name as some repositories publish it
+                        return new MockResponse().setResponseCode(200).setBody("f92e777f4341930bad9b2422283c4680d00dbc06  good-1.0.jar");
+                    } else if (path.endsWith("corrupt-1.0.jar.sha1")) {
+                        return new MockResponse().setResponseCode(200).setBody("0000000000000000000000000000000000000000");
+                    }
+                    return new MockResponse().setResponseCode(404);
+                }
+            });
+            mockRepo.start();
+
+            MavenRepository repository = MavenRepository.builder()
+              .id("mock")
+              .uri("http://%s:%d/maven".formatted(mockRepo.getHostName(), mockRepo.getPort()))
+              .build();
+            ResolvedDependency good = dependency(repository, "good");
+            ResolvedDependency unchecked = dependency(repository, "unchecked");
+            ResolvedDependency corrupt = dependency(repository, "corrupt");
+
+            List<Throwable> errors = new CopyOnWriteArrayList<>();
+            MavenArtifactDownloader downloader = new MavenArtifactDownloader(
+              new LocalMavenArtifactCache(tempDir), null, errors::add)
+              .setVerifyChecksums(true);
+
+            Map<ResolvedDependency, Path> artifacts = downloader.downloadArtifacts(List.of(good, unchecked, corrupt, good));
+            assertThat(artifacts).containsOnlyKeys(good, unchecked);
+            assertThat(artifacts.get(good)).hasBinaryContent(jar);
+            assertThat(errors).singleElement().satisfies(e -> assertThat(e).hasMessageContaining("corrupt"));
+        }
+    }
+
+    @Test
+    void checksumsAreOnlyDownloadedWhenVerifying(@TempDir Path tempDir) throws Exception {
+        try (MockWebServer mockRepo = new MockWebServer()) {
+            mockRepo.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest recordedRequest) {
+                    return Objects.requireNonNull(recordedRequest.getPath()).endsWith(".jar") ?
+                      new MockResponse().setResponseCode(200).setBody("jar") :
+                      new MockResponse().setResponseCode(200).setBody("0000000000000000000000000000000000000000");
+                }
+            });
+            mockRepo.start();
+
+            MavenRepository repository = MavenRepository.builder()
+              .id("mock")
+              .uri("http://%s:%d/maven".formatted(mockRepo.getHostName(), mockRepo.getPort()))
+              .build();
+            MavenArtifactDownloader downloader = new MavenArtifactDownloader(
+              new LocalMavenArtifactCache(tempDir), null, Throwable::printStackTrace);
+
+            assertThat(downloader.downloadArtifact(dependency(repository, "unverified"))).isNotNull();
+            assertThat(mockRepo.getRequestCount()).isEqualTo(1);
+            assertThat(mockRepo.takeRequest().getPath()).endsWith("unverified-1.0.jar");
+        }
+    }
+
+    private static ResolvedDependency dependency(MavenRepository repository, String artifactId) {
+        GroupArtifactVersion gav = new GroupArtifactVersion("org.example", artifactId, "1.0");
+        return ResolvedDependency.builder()
+          .repository(repository)
+          .gav(new ResolvedGroupArtifactVersion(repository.getUri(), gav.getGroupId(), artifactId, "1.0", null))
+          .requested(Dependency.builder().gav(gav).build())
+          .dependencies(List.of())
+          .licenses(List.of())
+          .build();
+    }
 }
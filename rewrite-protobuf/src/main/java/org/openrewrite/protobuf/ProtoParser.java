@@ -16,6 +16,8 @@
 package org.openrewrite.protobuf;
 
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.intellij.lang.annotations.Language;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.InMemoryExecutionContext;
@@ -49,12 +51,6 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
                     try {
                         EncodingDetectingInputStream is = input.getSource(ctx);
                         String sourceStr = is.readFully();
-                        Protobuf2Parser parser = new Protobuf2Parser(new CommonTokenStream(new Protobuf2Lexer(
-                                CharStreams.fromString(sourceStr))));
-
-                        parser.removeErrorListeners();
-                        parser.addErrorListener(new ForwardingErrorListener(input.getPath(), ctx));
-
                         if (sourceStr.contains("proto3")) {
                             // Pending Proto3 support, the best we can do is plain text & not skip files
                             return new PlainText(
@@ -76,7 +72,8 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
                                 sourceStr,
                                 is.getCharset(),
                                 is.isCharsetBomMarked()
-                        ).visitProto(parser.proto());
+                        ).visitProto(parseProto(new CommonTokenStream(new Protobuf2Lexer(CharStreams.fromString(sourceStr))),
+                                new ForwardingErrorListener(input.getPath(), ctx)));
                         parsingListener.parsed(input, document);
                         return requirePrintEqualsInput(document, input, relativeTo, ctx);
                     } catch (Throwable t) {
@@ -86,6 +83,26 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
                 });
     }
 
+    /**
+     * Parse with SLL prediction, falling back to full LL prediction only when SLL fails.
+     */
+    private static Protobuf2Parser.ProtoContext parseProto(CommonTokenStream tokens, ANTLRErrorListener errorListener) {
+        Protobuf2Parser parser = new Protobuf2Parser(tokens);
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return parser.proto();
+        } catch (ParseCancellationException e) {
+            tokens.seek(0);
+            parser.reset();
+            parser.addErrorListener(errorListener);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            return parser.proto();
+        }
+    }
+
     @Override
     public Stream<SourceFile> parse(@Language("protobuf") String... sources) {
         return parse(new InMemoryExecutionContext(), sources);
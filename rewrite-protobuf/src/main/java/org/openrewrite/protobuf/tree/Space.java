@@ -19,6 +19,7 @@
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import lombok.EqualsAndHashCode;
+import org.openrewrite.internal.WhitespaceInterner;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Markers;
 
@@ -45,7 +46,7 @@ public class Space {
      * e.g.: a single space between keywords, or the common indentation of every line in a block.
      * So use flyweights to avoid storing many instances of functionally identical spaces
      */
-    private static final Map<String, Space> flyweights = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final WhitespaceInterner<Space> flyweights = new WhitespaceInterner<>(whitespace -> new Space(whitespace, emptyList()));
 
     private Space(@Nullable String whitespace, List<Comment> comments) {
         this.comments = comments;
@@ -57,9 +58,10 @@ public static Space build(@Nullable String whitespace, List<Comment> comments) {
         if (comments.isEmpty()) {
             if (whitespace == null || whitespace.isEmpty()) {
                 return Space.EMPTY;
-            } else if (whitespace.length() <= 100) {
-                //noinspection StringOperationCanBeSimplified
-                return flyweights.computeIfAbsent(whitespace, k -> new Space(new String(whitespace), comments));
+            }
+            Space flyweight = flyweights.intern(whitespace);
+            if (flyweight != null) {
+                return flyweight;
             }
         }
         return new Space(whitespace, comments);
@@ -138,6 +140,11 @@ public static Space firstPrefix(@Nullable List<? extends Proto> trees) {
     }
 
     public static Space format(String formatting) {
+        Space flyweight = flyweights.internCommon(formatting, 0, formatting.length());
+        if (flyweight != null) {
+            return flyweight;
+        }
+
         StringBuilder prefix = new StringBuilder();
         StringBuilder comment = new StringBuilder();
         List<Comment> comments = new ArrayList<>();
@@ -32,6 +32,7 @@
 import org.openrewrite.marker.Markers;
 import org.openrewrite.quark.Quark;
 import org.openrewrite.remote.Remote;
+import org.openrewrite.test.internal.ParserPool;
 import org.openrewrite.tree.ParseError;
 
 import java.io.ByteArrayInputStream;
@@ -248,92 +249,97 @@ default void rewriteRun(Consumer<RecipeSpec> spec, SourceSpec<?>... sourceSpecs)
         Map<SourceFile, SourceSpec<?>> specBySourceFile = new LinkedHashMap<>(sourceSpecs.length);
         for (Map.Entry<Parser.Builder, List<SourceSpec<?>>> sourceSpecsForParser : sourceSpecsByParser.entrySet()) {
             Map<SourceSpec<?>, Parser.Input> inputs = new LinkedHashMap<>(sourceSpecsForParser.getValue().size());
-            Parser parser = sourceSpecsForParser.getKey().build();
-            for (SourceSpec<?> sourceSpec : sourceSpecsForParser.getValue()) {
-                if (sourceSpec.before == null) {
-                    continue;
-                }
-                String beforeTrimmed = sourceSpec.noTrim ?
-                        sourceSpec.before :
-                        trimIndentPreserveCRLF(sourceSpec.before);
-                Path sourcePath;
-                if (sourceSpec.sourcePath != null) {
-                    sourcePath = sourceSpec.dir.resolve(sourceSpec.sourcePath);
-                } else {
-                    sourcePath = parser.sourcePathFromSourceText(sourceSpec.dir, beforeTrimmed);
-                }
-                for (UncheckedConsumer<SourceSpec<?>> consumer : testMethodSpec.allSources) {
-                    consumer.accept(sourceSpec);
-                }
-                for (UncheckedConsumer<SourceSpec<?>> consumer : testClassSpec.allSources) {
-                    consumer.accept(sourceSpec);
+            ParserPool.Lease lease = ParserPool.getInstance().borrow(sourceSpecsForParser.getKey());
+            try {
+                Parser parser = lease.getParser();
+                for (SourceSpec<?> sourceSpec : sourceSpecsForParser.getValue()) {
+                    if (sourceSpec.before == null) {
+                        continue;
+                    }
+                    String beforeTrimmed = sourceSpec.noTrim ?
+                            sourceSpec.before :
+                            trimIndentPreserveCRLF(sourceSpec.before);
+                    Path sourcePath;
+                    if (sourceSpec.sourcePath != null) {
+                        sourcePath = sourceSpec.dir.resolve(sourceSpec.sourcePath);
+                    } else {
+                        sourcePath = parser.sourcePathFromSourceText(sourceSpec.dir, beforeTrimmed);
+                    }
+                    for (UncheckedConsumer<SourceSpec<?>> consumer : testMethodSpec.allSources) {
+                        consumer.accept(sourceSpec);
+                    }
+                    for (UncheckedConsumer<SourceSpec<?>> consumer : testClassSpec.allSources) {
+                        consumer.accept(sourceSpec);
+                    }
+                    inputs.put(sourceSpec, new Parser.Input(sourcePath, () -> new ByteArrayInputStream(beforeTrimmed.getBytes(parser.getCharset(ctx)))));
                 }
-                inputs.put(sourceSpec, new Parser.Input(sourcePath, () -> new ByteArrayInputStream(beforeTrimmed.getBytes(parser.getCharset(ctx)))));
-            }
 
-            Path relativeTo = testMethodSpec.relativeTo == null ? testClassSpec.relativeTo : testMethodSpec.relativeTo;
+                Path relativeTo = testMethodSpec.relativeTo == null ? testClassSpec.relativeTo : testMethodSpec.relativeTo;
 
-            Iterator<SourceSpec<?>> sourceSpecIter = inputs.keySet().iterator();
+                Iterator<SourceSpec<?>> sourceSpecIter = inputs.keySet().iterator();
 
-            boolean requirePrintEqualsInput = ctx.getMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, true);
-            if (requirePrintEqualsInput) {
-                // this gets checked by the test framework itself a few statements further down
-                ctx.putMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, false);
-            }
+                boolean requirePrintEqualsInput = ctx.getMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, true);
+                if (requirePrintEqualsInput) {
+                    // this gets checked by the test framework itself a few statements further down
+                    ctx.putMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, false);
+                }
 
-            List<SourceFile> sourceFiles = parser.parseInputs(inputs.values(), relativeTo, ctx)
-                    .collect(Collectors.toList());
-            assertThat(sourceFiles.size())
-                    .as("Every input should be parsed into a SourceFile.")
-                    .isEqualTo(inputs.size());
+                List<SourceFile> sourceFiles = lease.parse(inputs.values(), relativeTo, ctx);
+                assertThat(sourceFiles.size())
+                        .as("Every input should be parsed into a SourceFile.")
+                        .isEqualTo(inputs.size());
 
-            if (requirePrintEqualsInput) {
-                ctx.putMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, true);
-            }
+                if (requirePrintEqualsInput) {
+                    ctx.putMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, true);
+                }
 
-            for (int i = 0; i < sourceFiles.size(); i++) {
-                SourceFile sourceFile = sourceFiles.get(i);
-                Markers markers = sourceFile.getMarkers();
+                for (int i = 0; i < sourceFiles.size(); i++) {
+                    SourceFile sourceFile = sourceFiles.get(i);
+                    Markers markers = sourceFile.getMarkers();
 
-                SourceSpec<?> nextSpec = sourceSpecIter.next();
-                for (Marker marker : nextSpec.getMarkers()) {
-                    markers = markers.setByType(marker);
-                }
-                sourceFile = sourceFile.withMarkers(markers);
-
-                // Validate before source
-                nextSpec.validateSource.accept(sourceFile, TypeValidation.before(testMethodSpec, testClassSpec));
-
-                // Validate that printing the LST yields the same source text
-                // Validate that the LST whitespace do not contain any non-whitespace characters
-                int j = 0;
-                for (Parser.Input input : inputs.values()) {
-                    if (j++ == i && !(sourceFile instanceof Quark)) {
-                        assertContentEquals(
-                                sourceFile,
-                                StringUtils.readFully(input.getSource(ctx), parser.getCharset(ctx)),
-                                sourceFile.printAll(out.clone()),
-                                "When parsing and printing the source code back to text without modifications, " +
-                                "the printed source didn't match the original source code. This means there is a bug in the " +
-                                "parser implementation itself. Please open an issue to report this, providing a sample of the " +
-                                "code that generated this error for"
-                        );
-                        try {
-                            WhitespaceValidationService service = sourceFile.service(WhitespaceValidationService.class);
-                            SourceFile whitespaceValidated = (SourceFile) service.getVisitor().visit(sourceFile, ctx);
-                            if(whitespaceValidated != null && whitespaceValidated != sourceFile) {
-                                fail("Source file was parsed into an LST that contains non-whitespace characters in its whitespace. " +
-                                     "This is indicative of a bug in the parser. \n" + whitespaceValidated.printAll());
+                    SourceSpec<?> nextSpec = sourceSpecIter.next();
+                    for (Marker marker : nextSpec.getMarkers()) {
+                        markers = markers.setByType(marker);
+                    }
+                    sourceFile = sourceFile.withMarkers(markers);
+
+                    // Validate before source
+                    nextSpec.validateSource.accept(sourceFile, TypeValidation.before(testMethodSpec, testClassSpec));
+
+                    // Validate that printing the LST yields the same source text
+                    // Validate that the LST whitespace do not contain any non-whitespace characters
+                    int j = 0;
+                    for (Parser.Input input : inputs.values()) {
+                        if (j++ == i && !(sourceFile instanceof Quark)) {
+                            assertContentEquals(
+                                    sourceFile,
+                                    StringUtils.readFully(input.getSource(ctx), parser.getCharset(ctx)),
+                                    sourceFile.printAll(out.clone()),
+                                    "When parsing and printing the source code back to text without modifications, " +
+                                    "the printed source didn't match the original source code. This means there is a bug in the " +
+                                    "parser implementation itself. Please open an issue to report this, providing a sample of the " +
+                                    "code that generated this error for"
+                            );
+                            try {
+                                WhitespaceValidationService service = sourceFile.service(WhitespaceValidationService.class);
+                                SourceFile whitespaceValidated = (SourceFile) service.getVisitor().visit(sourceFile, ctx);
+                                if(whitespaceValidated != null && whitespaceValidated != sourceFile) {
+                                    fail("Source file was parsed into an LST that contains non-whitespace characters in its whitespace. " +
+                                         "This is indicative of a bug in the parser. \n" + whitespaceValidated.printAll());
+                                }
+                            } catch (UnsupportedOperationException e) {
+                                // Language/parser does not provide whitespace validation and that's OK for now
                             }
-                        } catch (UnsupportedOperationException e) {
-                            // Language/parser does not provide whitespace validation and that's OK for now
                         }
                     }
-                }
 
-                //noinspection unchecked
-                SourceFile mapped = ((UnaryOperator<SourceFile>) nextSpec.beforeRecipe).apply(sourceFile);
-                specBySourceFile.put(mapped, nextSpec);
+                    //noinspection unchecked
+                    SourceFile mapped = ((UnaryOperator<SourceFile>) nextSpec.beforeRecipe).apply(sourceFile);
+                    specBySourceFile.put(mapped, nextSpec);
+                }
+            } finally {
+                // return the parser to the pool, reset for the next test
+                lease.close();
             }
         }
 
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.test.internal;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps warm parsers between tests, so that each test doesn't pay the cost of building a parser from scratch,
+ * which for Java means creating a new compiler context and reloading the classpath.
+ * <p>
+ * Parsers are pooled by the configuration of the builder that produced them, i.e. the builder's class and
+ * the values of its fields (classpath, dependencies, charset, styles, ...). A builder whose configuration
+ * can't be compared by value, e.g. because it holds a lambda, is never pooled and always builds a fresh parser.
+ * Likewise, only parsers that override {@link Parser#reset()} are pooled, since that is what isolates one test
+ * from the next.
+ * <p>
+ * Any number of tests may borrow from the pool concurrently. When more tests run in parallel than there are idle
+ * parsers for a configuration, additional parsers are built and later returned to the pool.
+ * <p>
+ * Pooling is off unless the system property {@value #ENABLED_PROPERTY} is {@code true}. Set
+ * {@value #DETECT_LEAKS_PROPERTY} to {@code true} as well to check that reset parsers produce the same LSTs as fresh ones.
+ */
+public class ParserPool {
+    public static final String ENABLED_PROPERTY = "org.openrewrite.test.parserPool";
+    public static final String DETECT_LEAKS_PROPERTY = "org.openrewrite.test.parserPool.detectLeaks";
+
+    private static final int MAX_CONFIGURATIONS = 64;
+    private static final int MAX_IDLE_PER_CONFIGURATION = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Builder fields holding state that {@link Parser#reset()} clears, which therefore don't distinguish
+     * one configuration from another.
+     */
+    private static final Set<String> RESET_STATE_TYPES = Collections.singleton("org.openrewrite.java.internal.JavaTypeCache");
+
+    private static final ParserPool INSTANCE = new ParserPool(
+            Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "false")),
+            Boolean.parseBoolean(System.getProperty(DETECT_LEAKS_PROPERTY, "false"))
+    );
+
+    private static final ClassValue<List<Field>> CONFIGURATION_FIELDS = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) &&
+                        !field.isSynthetic() && !RESET_STATE_TYPES.contains(field.getType().getName())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        }
+    };
+
+    private static final ClassValue<Boolean> VALUE_EQUALITY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private static final ClassValue<Boolean> RESETTABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("reset").getDeclaringClass() != Parser.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private static final ClassValue<Optional<Method>> GET_TYPE = new ClassValue<Optional<Method>>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            try {
+                Method getType = type.getMethod("getType");
+                getType.setAccessible(true);
+                return Optional.of(getType);
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private final boolean enabled;
+    private final boolean detectLeaks;
+
+    private final Map<Object, Deque<Parser>> idle = Collections.synchronizedMap(
+            new LinkedHashMap<Object, Deque<Parser>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Deque<Parser>> eldest) {
+                    return size() > MAX_CONFIGURATIONS;
+                }
+            });
+
+    public ParserPool(boolean enabled, boolean detectLeaks) {
+        this.enabled = enabled;
+        this.detectLeaks = detectLeaks;
+    }
+
+    public static ParserPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param builder The builder to pool parsers for. Its configuration must not change while the lease is held.
+     * @return A lease on a parser for the builder's configuration, either taken from the pool or freshly built.
+     */
+    public Lease borrow(Parser.Builder builder) {
+        Object key = enabled ? configurationKey(builder) : null;
+        if (key != null) {
+            Deque<Parser> parsers = idle.get(key);
+            Parser parser = parsers == null ? null : parsers.pollFirst();
+            if (parser != null) {
+                return new Lease(builder, key, parser, true);
+            }
+        }
+        return new Lease(builder, key, builder.build(), false);
+    }
+
+    public class Lease implements AutoCloseable {
+        private final Parser.Builder builder;
+
+        @Nullable
+        private final Object key;
+
+        private final Parser parser;
+        private final boolean reused;
+        private boolean released;
+
+        private Lease(Parser.Builder builder, @Nullable Object key, Parser parser, boolean reused) {
+            this.builder = builder;
+            this.key = key;
+            this.parser = parser;
+            this.reused = reused;
+        }
+
+        public Parser getParser() {
+            return parser;
+        }
+
+        /**
+         * @return {@code true} if the parser has been used by an earlier test.
+         */
+        public boolean isReused() {
+            return reused;
+        }
+
+        /**
+         * Parse inputs with the leased parser and, if leak detection is on and the parser has been used before,
+         * verify that a freshly built parser produces the same source files. The fresh parse gets its own execution
+         * context, which only shares whether print idempotence is required, so that it neither sees nor adds to the
+         * messages, errors and data tables of the test's context.
+         *
+         * @throws AssertionError If state from an earlier test leaked into the parse.
+         */
+        public List<SourceFile> parse(Collection<Parser.Input> inputs, @Nullable Path relativeTo, ExecutionContext ctx) {
+            List<SourceFile> sourceFiles = parser.parseInputs(inputs, relativeTo, ctx).collect(Collectors.toList());
+            if (detectLeaks && reused) {
+                ExecutionContext freshCtx = new InMemoryExecutionContext();
+                freshCtx.putMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT,
+                        ctx.getMessage(ExecutionContext.REQUIRE_PRINT_EQUALS_INPUT, true));
+                List<SourceFile> expected = builder.build().parseInputs(inputs, relativeTo, freshCtx).collect(Collectors.toList());
+                for (int i = 0; i < Math.min(sourceFiles.size(), expected.size()); i++) {
+                    List<String> actualFingerprint = fingerprint(sourceFiles.get(i));
+                    List<String> expectedFingerprint = fingerprint(expected.get(i));
+                    if (!actualFingerprint.equals(expectedFingerprint)) {
+                        throw new AssertionError(leakMessage(sourceFiles.get(i), actualFingerprint, expectedFingerprint));
+                    }
+                }
+                if (sourceFiles.size() != expected.size()) {
+                    throw new AssertionError("A reused " + parser.getClass().getName() + " produced " + sourceFiles.size() +
+                                             " source files where a fresh parser produced " + expected.size() +
+                                             ". State from an earlier test has leaked into the parser.");
+                }
+            }
+            return sourceFiles;
+        }
+
+        /**
+         * Reset the parser and return it to the pool, or discard it if it can't be pooled.
+         */
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (key == null || !RESETTABLE.get(parser.getClass())) {
+                return;
+            }
+            try {
+                parser.reset();
+            } catch (RuntimeException e) {
+                // a parser that can't be reset can't be safely reused
+                return;
+            }
+            Deque<Parser> parsers = idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+            if (parsers.size() < MAX_IDLE_PER_CONFIGURATION) {
+                parsers.offerFirst(parser);
+            }
+        }
+    }
+
+    /**
+     * @return A value that is equal for two builders that build equivalent parsers, or {@code null}
+     * if the builder's configuration can't be compared by value.
+     */
+    @Nullable
+    static Object configurationKey(Parser.Builder builder) {
+        try {
+            List<Object> key = new ArrayList<>();
+            key.add(builder.getClass());
+            for (Field field : CONFIGURATION_FIELDS.get(builder.getClass())) {
+                key.add(field.getName());
+                key.add(normalize(field.get(builder)));
+            }
+            return key;
+        } catch (NotComparableException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static @Nullable Object normalize(@Nullable Object value) throws NotComparableException {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean ||
+            value instanceof Character || value instanceof Enum || value instanceof Class ||
+            value instanceof Path || value instanceof Charset || value instanceof URI) {
+            return value;
+        } else if (value instanceof byte[]) {
+            return ByteBuffer.wrap(((byte[]) value).clone());
+        } else if (value.getClass().isArray()) {
+            List<Object> elements = new ArrayList<>(Array.getLength(value));
+            for (int i = 0; i < Array.getLength(value); i++) {
+                elements.add(normalize(Array.get(value, i)));
+            }
+            return elements;
+        } else if (value instanceof Set) {
+            Set<Object> elements = new HashSet<>();
+            for (Object element : (Set<?>) value) {
+                elements.add(normalize(element));
+            }
+            return elements;
+        } else if (value instanceof Collection) {
+            List<Object> elements = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                elements.add(normalize(element));
+            }
+            return elements;
+        } else if (value instanceof Map) {
+            Map<Object, Object> entries = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                entries.put(normalize(entry.getKey()), normalize(entry.getValue()));
+            }
+            return entries;
+        } else if (value instanceof Parser.Input) {
+            Parser.Input input = (Parser.Input) value;
+            // synthetic inputs get a generated path, so only their content is significant
+            return Arrays.asList(input.isSynthetic() ? null : input.getPath(),
+                    StringUtils.readFully(input.getSource(new InMemoryExecutionContext()), StandardCharsets.ISO_8859_1));
+        } else if (VALUE_EQUALITY.get(value.getClass())) {
+            return value;
+        }
+        throw new NotComparableException();
+    }
+
+    /**
+     * The printed source plus the type of every tree element that has one, which catches both
+     * formatting differences and types that only resolve because of sources parsed by an earlier test.
+     */
+    static List<String> fingerprint(SourceFile sourceFile) {
+        List<String> fingerprint = new ArrayList<>();
+        fingerprint.add(sourceFile.printAll());
+        new TreeVisitor<Tree, List<String>>() {
+            @Override
+            public @Nullable Tree preVisit(Tree tree, List<String> p) {
+                Optional<Method> getType = GET_TYPE.get(tree.getClass());
+                if (getType.isPresent()) {
+                    try {
+                        p.add(tree.getClass().getSimpleName() + " " + getType.get().invoke(tree));
+                    } catch (ReflectiveOperationException | RuntimeException ignored) {
+                        // not every getType() is safe to call on every tree
+                    }
+                }
+                return tree;
+            }
+        }.visit(sourceFile, fingerprint);
+        return fingerprint;
+    }
+
+    private static String leakMessage(SourceFile sourceFile, List<String> actual, List<String> expected) {
+        StringBuilder message = new StringBuilder("A reused parser produced a different LST for ")
+                .append(sourceFile.getSourcePath())
+                .append(" than a freshly built parser. State from an earlier test has leaked into the parser; ")
+                .append("run without -D").append(ENABLED_PROPERTY).append("=true to confirm.");
+        for (int i = 0; i < Math.max(actual.size(), expected.size()); i++) {
+            String a = i < actual.size() ? actual.get(i) : "<missing>";
+            String e = i < expected.size() ? expected.get(i) : "<missing>";
+            if (!a.equals(e)) {
+                message.append("\nFirst difference:\n  reused: ").append(a).append("\n  fresh:  ").append(e);
+                break;
+            }
+        }
+        return message.toString();
+    }
+
+    private static class NotComparableException extends Exception {
+        NotComparableException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -18,6 +18,7 @@
 import org.junit.jupiter.api.Test;
 import org.openrewrite.*;
 import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.text.PlainText;
 
@@ -25,6 +26,7 @@
 import java.net.URI;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
@@ -504,4 +506,99 @@ void willBeValidIfIncludesRecipesFromDependencies() {
         var recipe = env.activateRecipes("test.Foo");
         assertThat(recipe.validate().isValid()).isTrue();
     }
+
+    @Test
+    void recipeIncludedTwiceIsInitializedOnce() {
+        var loaded = new ArrayList<String>();
+        var env = Environment.builder()
+          .load(new YamlResourceLoader(
+            //language=yaml
+            new ByteArrayInputStream(
+              """
+                type: specs.openrewrite.org/v1beta/recipe
+                name: test.Top
+                displayName: Top
+                recipeList:
+                  - test.Left
+                  - test.Right
+                ---
+                type: specs.openrewrite.org/v1beta/recipe
+                name: test.Left
+                displayName: Left
+                recipeList:
+                  - test.Shared
+                ---
+                type: specs.openrewrite.org/v1beta/recipe
+                name: test.Right
+                displayName: Right
+                recipeList:
+                  - test.Shared
+                ---
+                type: specs.openrewrite.org/v1beta/recipe
+                name: test.Shared
+                displayName: Shared
+                recipeList:
+                  - org.openrewrite.text.ChangeText:
+                      toText: Hello
+                """.getBytes()
+            ),
+            URI.create("rewrite.yml"),
+            new Properties()
+          ) {
+              @Override
+              public @Nullable Recipe loadRecipe(String recipeName) {
+                  loaded.add(recipeName);
+                  return super.loadRecipe(recipeName);
+              }
+          })
+          .build();
+
+        var top = env.activateRecipes("test.Top").getRecipeList().get(0);
+        assertThat(top.validateAll()).allMatch(Validated::isValid);
+        var left = top.getRecipeList().get(0);
+        var right = top.getRecipeList().get(1);
+        assertThat(left.getRecipeList().get(0)).isSameAs(right.getRecipeList().get(0));
+        assertThat(loaded).containsOnlyOnce("test.Shared");
+    }
+
+    @Test
+    void activationLooksUpRecipesByNameAndReturnsFreshRecipes() {
+        var env = Environment.builder()
+          .load(yamlRecipes(
+            //language=yaml
+            """
+              type: specs.openrewrite.org/v1beta/recipe
+              name: test.Greet
+              displayName: Greet
+              recipeList:
+                - org.openrewrite.text.ChangeText:
+                    toText: Hello
+              """
+          ), List.of(yamlRecipes(
+            //language=yaml
+            """
+              type: specs.openrewrite.org/v1beta/recipe
+              name: test.Dependency
+              displayName: Dependency
+              recipeList:
+                - org.openrewrite.text.ChangeText:
+                    toText: Dependency
+              """
+          )))
+          .build();
+
+        var first = env.activateRecipes("test.Greet").getRecipeList().get(0);
+        var second = env.activateRecipes("test.Greet").getRecipeList().get(0);
+        assertThat(first.getName()).isEqualTo("test.Greet");
+        assertThat(first).isNotSameAs(second);
+    }
+
+    private static YamlResourceLoader yamlRecipes(String yaml) {
+        return new YamlResourceLoader(new ByteArrayInputStream(yaml.getBytes()), URI.create("rewrite.yml"), new Properties()) {
+            @Override
+            public Collection<Recipe> listRecipes() {
+                throw new AssertionError("recipes should be looked up by name rather than listed");
+            }
+        };
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.test.internal;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.text.PlainText;
+import org.openrewrite.text.PlainTextParser;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParserPoolTest {
+
+    @Test
+    void reusesParserForSameConfiguration() {
+        ParserPool pool = new ParserPool(true, false);
+
+        ParserPool.Lease first = pool.borrow(new CountingParser.Builder("a"));
+        Parser parser = first.getParser();
+        first.close();
+        assertThat(((CountingParser) parser).resets).isEqualTo(1);
+
+        ParserPool.Lease second = pool.borrow(new CountingParser.Builder("a"));
+        assertThat(second.isReused()).isTrue();
+        assertThat(second.getParser()).isSameAs(parser);
+
+        ParserPool.Lease third = pool.borrow(new CountingParser.Builder("b"));
+        assertThat(third.isReused()).isFalse();
+        assertThat(third.getParser()).isNotSameAs(parser);
+    }
+
+    @Test
+    void concurrentBorrowersGetDistinctParsers() {
+        ParserPool pool = new ParserPool(true, false);
+        ParserPool.Lease first = pool.borrow(new CountingParser.Builder("a"));
+        ParserPool.Lease second = pool.borrow(new CountingParser.Builder("a"));
+        assertThat(second.getParser()).isNotSameAs(first.getParser());
+    }
+
+    @Test
+    void builderWithoutValueEqualityIsNotPooled() {
+        ParserPool pool = new ParserPool(true, false);
+        Supplier<String> config = () -> "a";
+        assertThat(ParserPool.configurationKey(new CountingParser.Builder(config))).isNull();
+
+        ParserPool.Lease first = pool.borrow(new CountingParser.Builder(config));
+        first.close();
+        assertThat(pool.borrow(new CountingParser.Builder(config)).isReused()).isFalse();
+    }
+
+    @Test
+    void parserWithoutResetIsNotPooled() {
+        ParserPool pool = new ParserPool(true, false);
+        pool.borrow(PlainTextParser.builder()).close();
+        assertThat(pool.borrow(PlainTextParser.builder()).isReused()).isFalse();
+    }
+
+    @Test
+    void detectsLeakedState() {
+        ParserPool pool = new ParserPool(true, true);
+        ExecutionContext ctx = new InMemoryExecutionContext();
+
+        ParserPool.Lease first = pool.borrow(new CountingParser.Builder("leaky"));
+        first.parse(Collections.singletonList(Parser.Input.fromString("hello")), null, ctx);
+        first.close();
+
+        ParserPool.Lease second = pool.borrow(new CountingParser.Builder("leaky"));
+        assertThatThrownBy(() -> second.parse(Collections.singletonList(Parser.Input.fromString("hello")), null, ctx))
+          .isInstanceOf(AssertionError.class)
+          .hasMessageContaining("leaked");
+    }
+
+    static class CountingParser implements Parser {
+        private final Parser delegate = PlainTextParser.builder().build();
+        private final boolean leaky;
+        int resets;
+        int parses;
+
+        CountingParser(boolean leaky) {
+            this.leaky = leaky;
+        }
+
+        @Override
+        public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path relativeTo, ExecutionContext ctx) {
+            int parse = parses++;
+            return delegate.parseInputs(sources, relativeTo, ctx)
+              .map(sf -> leaky ? ((PlainText) sf).withText(((PlainText) sf).getText() + parse) : sf);
+        }
+
+        @Override
+        public boolean accept(Path path) {
+            return true;
+        }
+
+        @Override
+        public Path sourcePathFromSourceText(Path prefix, String sourceCode) {
+            return prefix.resolve("file.txt");
+        }
+
+        @Override
+        public CountingParser reset() {
+            resets++;
+            if (!leaky) {
+                parses = 0;
+            }
+            return this;
+        }
+
+        static class Builder extends Parser.Builder {
+            private final Object config;
+
+            Builder(Object config) {
+                super(PlainText.class);
+                this.config = config;
+            }
+
+            @Override
+            public Parser build() {
+                return new CountingParser("leaky".equals(config));
+            }
+
+            @Override
+            public String getDslName() {
+                return "counting";
+            }
+        }
+    }
+}
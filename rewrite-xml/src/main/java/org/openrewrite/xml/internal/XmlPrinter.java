@@ -17,6 +17,7 @@
 
 import org.openrewrite.Cursor;
 import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.internal.SourceSlices;
 import org.openrewrite.marker.Marker;
 import org.openrewrite.xml.XmlVisitor;
 import org.openrewrite.xml.tree.Xml;
@@ -25,6 +26,24 @@
 
 public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
 
+    @Override
+    public Xml preVisit(Xml tree, PrintOutputCapture<P> p) {
+        SourceSlices sourceSlices = p.getSourceSlices();
+        if (sourceSlices != null && sourceSlices.beforePrint(getCursor(), p)) {
+            stopAfterPreVisit();
+        }
+        return tree;
+    }
+
+    @Override
+    public Xml postVisit(Xml tree, PrintOutputCapture<P> p) {
+        SourceSlices sourceSlices = p.getSourceSlices();
+        if (sourceSlices != null) {
+            sourceSlices.afterPrint(getCursor(), p);
+        }
+        return tree;
+    }
+
     @Override
     public Xml visitDocument(Xml.Document document, PrintOutputCapture<P> p) {
         beforeSyntax(document, p);
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.xml;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.internal.SourceSlices;
+import org.openrewrite.xml.tree.Xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlPrinterTest {
+
+    //language=xml
+    private static final String SOURCE = """
+      <project>
+        <dependencies>
+          <dependency><groupId>org.openrewrite</groupId><artifactId>rewrite-core</artifactId></dependency>
+          <dependency><groupId>org.openrewrite</groupId><artifactId>rewrite-xml</artifactId></dependency>
+        </dependencies>
+        <version>1.0</version>
+      </project>
+      """;
+
+    @Test
+    void unchangedDocumentPrintsOriginalText() {
+        Xml.Document document = parse(reuseOriginalText());
+        assertThat(SourceSlices.originalText(document)).isEqualTo(SOURCE);
+        assertThat(document.printAll()).isEqualTo(SOURCE);
+    }
+
+    @Test
+    void reusesOriginalTextOfUnchangedTags() {
+        Xml.Document document = parse(reuseOriginalText());
+        Xml.Document changed = (Xml.Document) new XmlVisitor<Integer>() {
+            @Override
+            public Xml visitTag(Xml.Tag tag, Integer p) {
+                Xml.Tag t = (Xml.Tag) super.visitTag(tag, p);
+                return "version".equals(t.getName()) ? t.withValue("2.0") : t;
+            }
+        }.visitNonNull(document, 0);
+
+        assertThat(SourceSlices.originalText(changed)).isNull();
+        PrintOutputCapture<Integer> out = new PrintOutputCapture<>(0);
+        assertThat(changed.printAll(out)).isEqualTo(SOURCE.replace("1.0", "2.0"));
+        assertThat(out.getSourceSlices()).isNotNull();
+
+        PrintOutputCapture<Integer> withoutSlices = new PrintOutputCapture<>(0);
+        assertThat(changed.print(new Cursor(null, Cursor.ROOT_VALUE), withoutSlices)).isEqualTo(out.getOut());
+    }
+
+    @Test
+    void reuseIsOptIn() {
+        assertThat(SourceSlices.originalText(parse(new InMemoryExecutionContext()))).isNull();
+    }
+
+    private static ExecutionContext reuseOriginalText() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        ctx.putMessage(ExecutionContext.REUSE_ORIGINAL_TEXT, true);
+        return ctx;
+    }
+
+    private static Xml.Document parse(ExecutionContext ctx) {
+        return (Xml.Document) XmlParser.builder().build().parse(ctx, SOURCE).findFirst().orElseThrow();
+    }
+}
@@ -17,6 +17,7 @@
 
 import org.openrewrite.Cursor;
 import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.internal.SourceSlices;
 import org.openrewrite.marker.Marker;
 import org.openrewrite.yaml.YamlVisitor;
 import org.openrewrite.yaml.tree.Yaml;
@@ -25,6 +26,24 @@
 
 public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
 
+    @Override
+    public Yaml preVisit(Yaml tree, PrintOutputCapture<P> p) {
+        SourceSlices sourceSlices = p.getSourceSlices();
+        if (sourceSlices != null && sourceSlices.beforePrint(getCursor(), p)) {
+            stopAfterPreVisit();
+        }
+        return tree;
+    }
+
+    @Override
+    public Yaml postVisit(Yaml tree, PrintOutputCapture<P> p) {
+        SourceSlices sourceSlices = p.getSourceSlices();
+        if (sourceSlices != null) {
+            sourceSlices.afterPrint(getCursor(), p);
+        }
+        return tree;
+    }
+
     @Override
     public Yaml visitDocuments(Yaml.Documents documents, PrintOutputCapture<P> p) {
         visitMarkers(documents.getMarkers(), p);
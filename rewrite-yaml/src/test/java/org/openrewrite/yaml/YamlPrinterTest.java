@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.yaml;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.internal.SourceSlices;
+import org.openrewrite.yaml.tree.Yaml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YamlPrinterTest {
+
+    //language=yaml
+    private static final String SOURCE = """
+      spring:
+        datasource:
+          url: jdbc:postgresql://localhost:5432/application
+          username: application-user
+      server:
+        port: 8080
+      """;
+
+    @Test
+    void unchangedDocumentsPrintOriginalText() {
+        Yaml.Documents documents = parse(reuseOriginalText());
+        assertThat(SourceSlices.originalText(documents)).isEqualTo(SOURCE);
+        assertThat(documents.printAll()).isEqualTo(SOURCE);
+    }
+
+    @Test
+    void reusesOriginalTextOfUnchangedMappings() {
+        Yaml.Documents documents = parse(reuseOriginalText());
+        Yaml.Documents changed = (Yaml.Documents) new YamlIsoVisitor<Integer>() {
+            @Override
+            public Yaml.Scalar visitScalar(Yaml.Scalar scalar, Integer p) {
+                return "8080".equals(scalar.getValue()) ? scalar.withValue("9090") : scalar;
+            }
+        }.visitNonNull(documents, 0);
+
+        assertThat(SourceSlices.originalText(changed)).isNull();
+        PrintOutputCapture<Integer> out = new PrintOutputCapture<>(0);
+        assertThat(changed.printAll(out)).isEqualTo(SOURCE.replace("8080", "9090"));
+        assertThat(out.getSourceSlices()).isNotNull();
+        assertThat(changed.print(new Cursor(null, Cursor.ROOT_VALUE), new PrintOutputCapture<>(0)))
+          .isEqualTo(out.getOut());
+    }
+
+    @Test
+    void reuseIsOptIn() {
+        assertThat(SourceSlices.originalText(parse(new InMemoryExecutionContext()))).isNull();
+    }
+
+    private static ExecutionContext reuseOriginalText() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        ctx.putMessage(ExecutionContext.REUSE_ORIGINAL_TEXT, true);
+        return ctx;
+    }
+
+    private static Yaml.Documents parse(ExecutionContext ctx) {
+        return (Yaml.Documents) YamlParser.builder().build().parse(ctx, SOURCE).findFirst().orElseThrow();
+    }
+}